@@ -0,0 +1,60 @@
+package benchmark;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 基准测试数据行
+ *
+ * @author JunPzx
+ * @since 2024/1/17 9:00
+ */
+@Data
+@Accessors(chain = true)
+public class BenchmarkRow {
+
+    private String dimension;
+
+    private LocalDateTime eventTime;
+
+    private BigDecimal score;
+
+    /**
+     * 生成在时间范围内均匀分布的数据(固定随机种子,每次生成的数据相同)
+     *
+     * @param rows        数据行数
+     * @param begin       开始时间
+     * @param end         结束时间
+     * @param cardinality 维度基数
+     * @return 数据行
+     */
+    public static List<BenchmarkRow> generate(int rows, LocalDateTime begin, LocalDateTime end, int cardinality) {
+        Random random = new Random(20240117L);
+        long seconds = ChronoUnit.SECONDS.between(begin, end);
+        List<BenchmarkRow> data = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            data.add(new BenchmarkRow()
+                    .setDimension(dimension(random.nextInt(cardinality)))
+                    .setEventTime(begin.plusSeconds((long) (random.nextDouble() * seconds)))
+                    .setScore(BigDecimal.valueOf(random.nextInt(10000), 2)));
+        }
+        return data;
+    }
+
+    /**
+     * 维度编码
+     *
+     * @param index 维度下标
+     * @return 维度编码
+     */
+    public static String dimension(int index) {
+        return "d" + index;
+    }
+}
@@ -0,0 +1,88 @@
+package benchmark;
+
+import com.hopetool.core.datetime.LocalDateTimeDivisionUtils;
+import com.hopetool.core.datetime.LocalDateTimeUtils;
+import com.hopetool.core.datetime.support.DateTimeUnit;
+import com.hopetool.core.datetime.support.LocalDateTimeDivisionDomain;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 日期时间基准测试
+ *
+ * @author JunPzx
+ * @since 2024/1/17 9:30
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DateTimeBenchmark {
+
+    private static final String PATTERN = "yyyy-MM-dd HH:mm:ss";
+
+    @Param({"HOUR", "DAY", "WEEK", "WEEK_OF_MONTH", "MONTH", "QUARTER", "YEAR"})
+    private DateTimeUnit unit;
+
+    /**
+     * 划分的时间段数量
+     */
+    @Param({"30", "365"})
+    private int frames;
+
+    private LocalDateTime begin;
+
+    private LocalDateTime end;
+
+    private LocalDateTime time;
+
+    private String normalText;
+
+    private String isoText;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        // 从周一开始,按周划分时每个时间段都从周一开始
+        begin = LocalDateTimeUtils.of(LocalDate.of(2024, 1, 1));
+        end = LocalDateTimeUtils.offsetAndEndTimeByDateTimeUnit(begin, frames - 1, unit);
+        time = LocalDateTime.of(2024, 1, 17, 9, 30, 15);
+        normalText = LocalDateTimeUtils.formatNormal(time);
+        isoText = time.toString();
+    }
+
+    @Benchmark
+    public List<LocalDateTimeDivisionDomain<LocalDateTime>> division() {
+        return LocalDateTimeDivisionUtils.division(begin, end, unit);
+    }
+
+    @Benchmark
+    public String format() {
+        return LocalDateTimeUtils.format(time, PATTERN);
+    }
+
+    @Benchmark
+    public String formatByUnit() {
+        return LocalDateTimeUtils.format(time, unit.getDateFormat());
+    }
+
+    @Benchmark
+    public String formatNormal() {
+        return LocalDateTimeUtils.formatNormal(time);
+    }
+
+    @Benchmark
+    public LocalDateTime parse() {
+        return LocalDateTimeUtils.parse(normalText, PATTERN);
+    }
+
+    @Benchmark
+    public LocalDateTime parseIso() {
+        return LocalDateTimeUtils.parse(isoText);
+    }
+}
@@ -0,0 +1,76 @@
+package benchmark;
+
+import com.hopetool.core.column.ColumnUtil;
+import com.hopetool.core.json.JsonUtil;
+import com.hopetool.core.statistics.support.CycleDataStatisticsResult;
+import com.hopetool.core.statistics.support.CycleStatisticsItemDetail;
+import com.hopetool.core.statistics.support.DataStatisticsItemDetail;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON与字段名解析基准测试,以统计结果对象作为序列化数据
+ *
+ * @author JunPzx
+ * @since 2024/1/17 9:50
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonBenchmark {
+
+    /**
+     * 统计数据细节数量
+     */
+    @Param({"100", "10000"})
+    private int details;
+
+    private CycleDataStatisticsResult result;
+
+    private String resultJson;
+
+    private String detailsJson;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        List<DataStatisticsItemDetail> itemDetails = new ArrayList<>(details);
+        for (int i = 0; i < details; i++) {
+            itemDetails.add(new DataStatisticsItemDetail(BenchmarkRow.dimension(i), "维度" + i, String.valueOf(i * 1.5)));
+        }
+        result = new CycleDataStatisticsResult().addDetail(new CycleStatisticsItemDetail()
+                .setDateStr("2024-01").setChineseDateStr("2024年01月").setDetails(itemDetails));
+        resultJson = JsonUtil.objectToJson(result);
+        detailsJson = JsonUtil.objectToJson(itemDetails);
+    }
+
+    @Benchmark
+    public String objectToJson() {
+        return JsonUtil.objectToJson(result);
+    }
+
+    @Benchmark
+    public CycleDataStatisticsResult jsonToPojo() {
+        return JsonUtil.jsonToPojo(resultJson, CycleDataStatisticsResult.class);
+    }
+
+    @Benchmark
+    public CycleDataStatisticsResult roundTrip() {
+        return JsonUtil.jsonToPojo(JsonUtil.objectToJson(result), CycleDataStatisticsResult.class);
+    }
+
+    @Benchmark
+    public List<DataStatisticsItemDetail> jsonToList() {
+        return JsonUtil.jsonToList(detailsJson, DataStatisticsItemDetail.class);
+    }
+
+    @Benchmark
+    public String getFieldName() {
+        return ColumnUtil.getFieldName(BenchmarkRow::getEventTime);
+    }
+}
@@ -0,0 +1,101 @@
+package benchmark;
+
+import com.hopetool.core.datetime.LocalDateTimeUtils;
+import com.hopetool.core.datetime.support.DateTimeUnit;
+import com.hopetool.core.statistics.DataStatisticsUtils;
+import com.hopetool.core.statistics.support.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 数据统计基准测试
+ * <p>
+ * 统计时间范围固定为{@link #FRAME_COUNT}个时间段,数据在时间范围内均匀分布
+ *
+ * @author JunPzx
+ * @since 2024/1/17 9:10
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class StatisticsBenchmark {
+
+    private static final int FRAME_COUNT = 30;
+
+    @Param({"10000", "100000", "1000000", "10000000"})
+    private int rows;
+
+    @Param({"DAY", "MONTH", "YEAR"})
+    private DateTimeUnit unit;
+
+    @Param({"2", "100", "10000"})
+    private int cardinality;
+
+    @Param({"COUNT", "SUM", "AVG", "DISTINCT_COUNT"})
+    private DataValueStatisticsModeEnum mode;
+
+    private CycleStatisticsConfig<BenchmarkRow, BigDecimal, String> cycleSingleConfig;
+
+    private CycleStatisticsConfig<BenchmarkRow, BigDecimal, String> cycleMultiConfig;
+
+    private TotalStatisticsConfig<BenchmarkRow, BigDecimal, String> totalSingleConfig;
+
+    private TotalStatisticsConfig<BenchmarkRow, BigDecimal, String> totalMultiConfig;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        LocalDateTime begin = LocalDateTimeUtils.of(LocalDate.of(2000, 1, 1));
+        LocalDateTime end = LocalDateTimeUtils.offsetAndEndTimeByDateTimeUnit(begin, FRAME_COUNT - 1, unit);
+        List<BenchmarkRow> data = BenchmarkRow.generate(rows, begin, end, cardinality);
+        Map<String, String> tagMemo = new HashMap<>();
+        for (int i = 0; i < cardinality; i++) {
+            tagMemo.put(BenchmarkRow.dimension(i), "维度" + i);
+        }
+        cycleSingleConfig = new CycleStatisticsConfig<BenchmarkRow, BigDecimal, String>()
+                .buildStatisticsDateTime(unit, begin, end)
+                .buildSingleDimensional("score", "成绩")
+                .buildStatisticsData(data, mode, BenchmarkRow::getScore)
+                .buildStatisticsCondition(StatisticsArgumentMatchEnum.AND, BenchmarkRow::getEventTime);
+        cycleMultiConfig = new CycleStatisticsConfig<BenchmarkRow, BigDecimal, String>()
+                .buildStatisticsDateTime(unit, begin, end)
+                .buildMultidimensional(BenchmarkRow::getDimension, tagMemo)
+                .buildStatisticsData(data, mode, BenchmarkRow::getScore)
+                .buildStatisticsCondition(StatisticsArgumentMatchEnum.AND, BenchmarkRow::getEventTime);
+        totalSingleConfig = new TotalStatisticsConfig<BenchmarkRow, BigDecimal, String>()
+                .buildSingleDimensional("score", "成绩")
+                .buildStatisticsData(data, mode, BenchmarkRow::getScore);
+        totalMultiConfig = new TotalStatisticsConfig<BenchmarkRow, BigDecimal, String>()
+                .buildMultidimensional(BenchmarkRow::getDimension, tagMemo)
+                .buildStatisticsData(data, mode, BenchmarkRow::getScore);
+    }
+
+    @Benchmark
+    public CycleDataStatisticsResult cycleSingleDimensionalStatistics() {
+        return DataStatisticsUtils.cycleStatistics(cycleSingleConfig);
+    }
+
+    @Benchmark
+    public CycleDataStatisticsResult cycleMultidimensionalStatistics() {
+        return DataStatisticsUtils.cycleStatistics(cycleMultiConfig);
+    }
+
+    @Benchmark
+    public TotalDataStatisticsResult totalSingleDimensionalStatistics() {
+        return DataStatisticsUtils.totalStatistics(totalSingleConfig);
+    }
+
+    @Benchmark
+    public TotalDataStatisticsResult totalMultidimensionalStatistics() {
+        return DataStatisticsUtils.totalStatistics(totalMultiConfig);
+    }
+}
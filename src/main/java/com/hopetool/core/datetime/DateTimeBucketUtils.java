@@ -0,0 +1,223 @@
+package com.hopetool.core.datetime;
+
+import com.hopetool.core.datetime.support.DateTimeUnit;
+import com.hopetool.core.lang.AssertUtils;
+
+/**
+ * 时间段下标计算工具类
+ * <p>
+ * 按照时间单位将本地毫秒(本地日期时间按照UTC计算的纪元毫秒,见{@link com.hopetool.core.datetime.support.EpochMillisDivision#toLocalMillis})
+ * 或纪元日映射为时间段下标,并计算时间段的开始时间;只使用整数运算(公历日期与纪元日互相转换),不创建对象,可以直接处理基本类型数组。
+ * 纪元毫秒可以先通过{@link com.hopetool.core.datetime.support.ZoneOffsetTable#toLocalMillis(long)}转换为本地毫秒。
+ * <p>
+ * 时间段的开始时间与{@link LocalDateTimeUtils#beginTimeByDateTimeUnit}一致,其中:
+ * <li>DAY_OF_WEEK与DAY相同,按天划分</li>
+ * <li>WEEK从周一开始</li>
+ * <li>WEEK_OF_MONTH从周一开始且不跨月,月初第一个周一之前的日期属于第一个周一开始的时间段</li>
+ * 相邻时间段的下标连续(WEEK_OF_MONTH除外,下标为时间段开始周一所在的周)
+ *
+ * @author JunPzx
+ * @since 2024/1/23 9:30
+ */
+public class DateTimeBucketUtils {
+
+    private static final long MILLIS_PER_DAY = 86400_000L;
+
+    private static final long MILLIS_PER_HOUR = 3600_000L;
+
+    /**
+     * 1970-01-01为周四,1969-12-29(纪元日-3)为周一
+     */
+    private static final long MONDAY_EPOCH_DAY = -3;
+
+    /**
+     * 本地毫秒所属时间段的下标
+     *
+     * @param localMillis  本地毫秒
+     * @param dateTimeUnit 时间单位
+     * @return 时间段下标
+     */
+    public static long bucketOf(long localMillis, DateTimeUnit dateTimeUnit) {
+        if (DateTimeUnit.HOUR.equals(dateTimeUnit)) {
+            return Math.floorDiv(localMillis, MILLIS_PER_HOUR);
+        }
+        return bucketOfEpochDay(Math.floorDiv(localMillis, MILLIS_PER_DAY), dateTimeUnit);
+    }
+
+    /**
+     * 纪元日所属时间段的下标(不支持HOUR)
+     *
+     * @param epochDay     纪元日
+     * @param dateTimeUnit 时间单位
+     * @return 时间段下标
+     */
+    public static long bucketOfEpochDay(long epochDay, DateTimeUnit dateTimeUnit) {
+        AssertUtils.notNull(dateTimeUnit, "时间单位不能为空");
+        switch (dateTimeUnit) {
+            case YEAR:
+                return yearOfEpochDay(epochDay);
+            case QUARTER: {
+                long yearMonth = yearMonthOfEpochDay(epochDay);
+                return Math.floorDiv(yearMonth, 12L) * 4 + Math.floorMod(yearMonth, 12L) / 3;
+            }
+            case MONTH:
+                return yearMonthOfEpochDay(epochDay);
+            case DAY:
+            case DAY_OF_WEEK:
+                return epochDay;
+            case WEEK:
+                return weekOfEpochDay(epochDay);
+            case WEEK_OF_MONTH: {
+                long monday = epochDay - dayOfWeek(epochDay);
+                long firstDay = epochDay - dayOfMonth(epochDay) + 1;
+                long firstMonday = firstDay + (7 - dayOfWeek(firstDay)) % 7;
+                return weekOfEpochDay(Math.max(monday, firstMonday));
+            }
+            default:
+                throw new IllegalArgumentException("THE DATE TIME UNIT IS ILLEGAL");
+        }
+    }
+
+    /**
+     * 批量计算本地毫秒所属时间段的下标
+     *
+     * @param localMillis  本地毫秒数组
+     * @param offset       开始位置
+     * @param length       数量
+     * @param dateTimeUnit 时间单位
+     * @param buckets      时间段下标数组(与本地毫秒数组位置对应)
+     */
+    public static void bucketOf(long[] localMillis, int offset, int length, DateTimeUnit dateTimeUnit, long[] buckets) {
+        AssertUtils.notNull(dateTimeUnit, "时间单位不能为空");
+        AssertUtils.isTrue(offset >= 0 && length >= 0 && offset + length <= localMillis.length && offset + length <= buckets.length, "数组范围越界");
+        if (DateTimeUnit.HOUR.equals(dateTimeUnit)) {
+            for (int i = offset; i < offset + length; i++) {
+                buckets[i] = Math.floorDiv(localMillis[i], MILLIS_PER_HOUR);
+            }
+            return;
+        }
+        for (int i = offset; i < offset + length; i++) {
+            buckets[i] = bucketOfEpochDay(Math.floorDiv(localMillis[i], MILLIS_PER_DAY), dateTimeUnit);
+        }
+    }
+
+    /**
+     * 时间段开始的本地毫秒
+     *
+     * @param bucket       时间段下标
+     * @param dateTimeUnit 时间单位
+     * @return 本地毫秒
+     */
+    public static long beginOf(long bucket, DateTimeUnit dateTimeUnit) {
+        if (DateTimeUnit.HOUR.equals(dateTimeUnit)) {
+            return bucket * MILLIS_PER_HOUR;
+        }
+        return beginEpochDayOf(bucket, dateTimeUnit) * MILLIS_PER_DAY;
+    }
+
+    /**
+     * 时间段开始的纪元日(不支持HOUR)
+     *
+     * @param bucket       时间段下标
+     * @param dateTimeUnit 时间单位
+     * @return 纪元日
+     */
+    public static long beginEpochDayOf(long bucket, DateTimeUnit dateTimeUnit) {
+        AssertUtils.notNull(dateTimeUnit, "时间单位不能为空");
+        switch (dateTimeUnit) {
+            case YEAR:
+                return toEpochDay(bucket, 1, 1);
+            case QUARTER:
+                return toEpochDay(Math.floorDiv(bucket, 4L), (int) Math.floorMod(bucket, 4L) * 3 + 1, 1);
+            case MONTH:
+                return toEpochDay(Math.floorDiv(bucket, 12L), (int) Math.floorMod(bucket, 12L) + 1, 1);
+            case DAY:
+            case DAY_OF_WEEK:
+                return bucket;
+            case WEEK:
+            case WEEK_OF_MONTH:
+                return bucket * 7 + MONDAY_EPOCH_DAY;
+            default:
+                throw new IllegalArgumentException("THE DATE TIME UNIT IS ILLEGAL");
+        }
+    }
+
+    /**
+     * 公历日期转换为纪元日
+     *
+     * @param year  年
+     * @param month 月(1~12)
+     * @param day   日
+     * @return 纪元日
+     */
+    public static long toEpochDay(long year, int month, int day) {
+        // 以3月为一年的开始,闰日位于年末
+        long y = month <= 2 ? year - 1 : year;
+        long era = Math.floorDiv(y, 400L);
+        long yearOfEra = y - era * 400;
+        long dayOfYear = (153L * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    /**
+     * 纪元日所在的年
+     *
+     * @param epochDay 纪元日
+     * @return 年
+     */
+    public static long yearOfEpochDay(long epochDay) {
+        return Math.floorDiv(yearMonthOfEpochDay(epochDay), 12L);
+    }
+
+    /**
+     * 纪元日所在的年月(年 * 12 + 月 - 1)
+     *
+     * @param epochDay 纪元日
+     * @return 年月
+     */
+    public static long yearMonthOfEpochDay(long epochDay) {
+        long z = epochDay + 719468;
+        long era = Math.floorDiv(z, 146097L);
+        long dayOfEra = z - era * 146097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long monthIndex = (5 * dayOfYear + 2) / 153;
+        long month = monthIndex < 10 ? monthIndex + 3 : monthIndex - 9;
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        return year * 12 + month - 1;
+    }
+
+    /**
+     * 纪元日在所在月中的日(1~31)
+     *
+     * @param epochDay 纪元日
+     * @return 日
+     */
+    public static int dayOfMonth(long epochDay) {
+        long z = epochDay + 719468;
+        long era = Math.floorDiv(z, 146097L);
+        long dayOfEra = z - era * 146097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long monthIndex = (5 * dayOfYear + 2) / 153;
+        return (int) (dayOfYear - (153 * monthIndex + 2) / 5 + 1);
+    }
+
+    /**
+     * 纪元日是周几(周一为0,周日为6)
+     *
+     * @param epochDay 纪元日
+     * @return 周几
+     */
+    public static int dayOfWeek(long epochDay) {
+        return (int) Math.floorMod(epochDay - MONDAY_EPOCH_DAY, 7L);
+    }
+
+    /**
+     * 纪元日所在周(从周一开始)的下标
+     */
+    private static long weekOfEpochDay(long epochDay) {
+        return Math.floorDiv(epochDay - MONDAY_EPOCH_DAY, 7L);
+    }
+}
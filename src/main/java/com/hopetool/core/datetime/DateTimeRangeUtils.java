@@ -0,0 +1,265 @@
+package com.hopetool.core.datetime;
+
+import com.hopetool.core.lang.AssertUtils;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.zone.ZoneRules;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * 批量时间范围判断工具类
+ * <p>
+ * 与{@link TemporalAccessorUtil#isIn(java.time.temporal.TemporalAccessor, java.time.temporal.TemporalAccessor, java.time.temporal.TemporalAccessor, boolean, boolean)}语义一致:
+ * 起始时间和结束时间可以互换,includeBegin、includeEnd分别控制是否包含较早、较晚的边界。
+ * 范围边界只转换一次并化为闭区间,逐个元素只做一次无分支的无符号比较,结果按位写入{@link BitSet}(或返回下标数组)。
+ * <p>
+ * long[]中的时间与范围边界需要使用同一时间轴(纪元毫秒或本地毫秒);{@link LocalDateTime}按照系统默认时区转换为纪元毫秒
+ *
+ * @author JunPzx
+ * @since 2024/1/24 9:30
+ */
+public class DateTimeRangeUtils {
+
+    /**
+     * 判断每个时间是否在范围内(包含边界)
+     *
+     * @param millis 时间(毫秒)
+     * @param begin  起始时间(毫秒)
+     * @param end    结束时间(毫秒)
+     * @return 在范围内的时间下标
+     */
+    public static BitSet between(long[] millis, long begin, long end) {
+        return between(millis, begin, end, true, true);
+    }
+
+    /**
+     * 判断每个时间是否在范围内
+     *
+     * @param millis       时间(毫秒)
+     * @param begin        起始时间(毫秒)
+     * @param end          结束时间(毫秒)
+     * @param includeBegin 时间范围是否包含起始时间
+     * @param includeEnd   时间范围是否包含结束时间
+     * @return 在范围内的时间下标
+     */
+    public static BitSet between(long[] millis, long begin, long end, boolean includeBegin, boolean includeEnd) {
+        return between(millis, new long[]{begin, end}, includeBegin, includeEnd);
+    }
+
+    /**
+     * 判断每个时间是否在任一范围内
+     *
+     * @param millis       时间(毫秒)
+     * @param ranges       时间范围,依次为每个范围的起始时间、结束时间(毫秒)
+     * @param includeBegin 时间范围是否包含起始时间
+     * @param includeEnd   时间范围是否包含结束时间
+     * @return 在任一范围内的时间下标
+     */
+    public static BitSet between(long[] millis, long[] ranges, boolean includeBegin, boolean includeEnd) {
+        AssertUtils.notNull(millis, "时间不能为空");
+        return BitSet.valueOf(matchWords(millis, closedRanges(ranges, includeBegin, includeEnd)));
+    }
+
+    /**
+     * 判断每个时间是否在范围内
+     *
+     * @param times        时间
+     * @param begin        起始时间
+     * @param end          结束时间
+     * @param includeBegin 时间范围是否包含起始时间
+     * @param includeEnd   时间范围是否包含结束时间
+     * @return 在范围内的时间下标
+     */
+    public static BitSet between(List<LocalDateTime> times, LocalDateTime begin, LocalDateTime end, boolean includeBegin, boolean includeEnd) {
+        AssertUtils.notNull(begin, "起始时间不能为空");
+        AssertUtils.notNull(end, "结束时间不能为空");
+        ZoneId zoneId = ZoneId.systemDefault();
+        return between(toEpochMillis(times, zoneId), toEpochMilli(begin, zoneId), toEpochMilli(end, zoneId), includeBegin, includeEnd);
+    }
+
+    /**
+     * 判断每个时间是否在任一时间区间内
+     *
+     * @param times        时间
+     * @param timeFrames   时间区间,每个区间为起始时间、结束时间
+     * @param includeBegin 时间区间是否包含起始时间
+     * @param includeEnd   时间区间是否包含结束时间
+     * @return 在任一时间区间内的时间下标
+     */
+    public static BitSet between(List<LocalDateTime> times, List<LocalDateTime[]> timeFrames, boolean includeBegin, boolean includeEnd) {
+        AssertUtils.notNull(timeFrames, "时间区间不能为空");
+        ZoneId zoneId = ZoneId.systemDefault();
+        long[] ranges = new long[timeFrames.size() * 2];
+        for (int i = 0; i < timeFrames.size(); i++) {
+            LocalDateTime[] timeFrame = timeFrames.get(i);
+            AssertUtils.isTrue(timeFrame != null && timeFrame.length >= 2 && timeFrame[0] != null && timeFrame[1] != null, "第{}个时间区间不合法", i);
+            ranges[i * 2] = toEpochMilli(timeFrame[0], zoneId);
+            ranges[i * 2 + 1] = toEpochMilli(timeFrame[1], zoneId);
+        }
+        return between(toEpochMillis(times, zoneId), ranges, includeBegin, includeEnd);
+    }
+
+    /**
+     * 在范围内的时间下标
+     *
+     * @param millis       时间(毫秒)
+     * @param begin        起始时间(毫秒)
+     * @param end          结束时间(毫秒)
+     * @param includeBegin 时间范围是否包含起始时间
+     * @param includeEnd   时间范围是否包含结束时间
+     * @return 下标数组(升序)
+     */
+    public static int[] indexOfBetween(long[] millis, long begin, long end, boolean includeBegin, boolean includeEnd) {
+        return toIndexes(between(millis, begin, end, includeBegin, includeEnd));
+    }
+
+    /**
+     * 在任一范围内的时间下标
+     *
+     * @param millis       时间(毫秒)
+     * @param ranges       时间范围,依次为每个范围的起始时间、结束时间(毫秒)
+     * @param includeBegin 时间范围是否包含起始时间
+     * @param includeEnd   时间范围是否包含结束时间
+     * @return 下标数组(升序)
+     */
+    public static int[] indexOfBetween(long[] millis, long[] ranges, boolean includeBegin, boolean includeEnd) {
+        return toIndexes(between(millis, ranges, includeBegin, includeEnd));
+    }
+
+    /**
+     * 在范围内的时间下标
+     *
+     * @param times        时间
+     * @param begin        起始时间
+     * @param end          结束时间
+     * @param includeBegin 时间范围是否包含起始时间
+     * @param includeEnd   时间范围是否包含结束时间
+     * @return 下标数组(升序)
+     */
+    public static int[] indexOfBetween(List<LocalDateTime> times, LocalDateTime begin, LocalDateTime end, boolean includeBegin, boolean includeEnd) {
+        return toIndexes(between(times, begin, end, includeBegin, includeEnd));
+    }
+
+    /**
+     * 按照系统默认时区将时间转换为纪元毫秒
+     *
+     * @param times 时间
+     * @return 纪元毫秒
+     */
+    public static long[] toEpochMillis(List<LocalDateTime> times) {
+        return toEpochMillis(times, ZoneId.systemDefault());
+    }
+
+    private static long[] toEpochMillis(List<LocalDateTime> times, ZoneId zoneId) {
+        AssertUtils.notNull(times, "时间不能为空");
+        long[] millis = new long[times.size()];
+        int index = 0;
+        for (LocalDateTime time : times) {
+            AssertUtils.notNull(time, "第{}个时间为空", index);
+            millis[index++] = toEpochMilli(time, zoneId);
+        }
+        return millis;
+    }
+
+    /**
+     * 固定偏移的时区直接按照偏移计算,否则按照时区规则转换(与{@link TemporalAccessorUtil#toEpochMilli}一致)
+     */
+    private static long toEpochMilli(LocalDateTime time, ZoneId zoneId) {
+        ZoneRules zoneRules = zoneId.getRules();
+        if (zoneRules.isFixedOffset()) {
+            return time.toInstant(zoneRules.getOffset(Instant.EPOCH)).toEpochMilli();
+        }
+        return time.atZone(zoneId).toInstant().toEpochMilli();
+    }
+
+    /**
+     * 范围化为闭区间[low, high],空区间丢弃;按照起始时间排序并合并重叠、相邻的区间
+     *
+     * @return 依次为每个闭区间的low、high
+     */
+    private static long[] closedRanges(long[] ranges, boolean includeBegin, boolean includeEnd) {
+        AssertUtils.notNull(ranges, "时间范围不能为空");
+        AssertUtils.isTrue(ranges.length % 2 == 0, "时间范围需要成对出现");
+        int count = 0;
+        long[] closed = new long[ranges.length];
+        for (int i = 0; i < ranges.length; i += 2) {
+            long min = Math.min(ranges[i], ranges[i + 1]);
+            long max = Math.max(ranges[i], ranges[i + 1]);
+            long low = min;
+            long high = max;
+            if (min == max) {
+                // 起始时间与结束时间相同时,包含任一边界即包含该时间
+                if (!includeBegin && !includeEnd) {
+                    continue;
+                }
+            } else {
+                // 开区间边界向内收缩一毫秒(min < max,不会越界)
+                low = includeBegin ? min : min + 1;
+                high = includeEnd ? max : max - 1;
+            }
+            if (low <= high) {
+                closed[count * 2] = low;
+                closed[count * 2 + 1] = high;
+                count++;
+            }
+        }
+        if (count <= 1) {
+            return Arrays.copyOf(closed, count * 2);
+        }
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(closed[a * 2], closed[b * 2]));
+        long[] merged = new long[count * 2];
+        int size = 0;
+        for (int i : order) {
+            long low = closed[i * 2];
+            long high = closed[i * 2 + 1];
+            if (size > 0 && merged[size * 2 - 1] != Long.MAX_VALUE && low <= merged[size * 2 - 1] + 1) {
+                merged[size * 2 - 1] = Math.max(merged[size * 2 - 1], high);
+            } else {
+                merged[size * 2] = low;
+                merged[size * 2 + 1] = high;
+                size++;
+            }
+        }
+        return Arrays.copyOf(merged, size * 2);
+    }
+
+    /**
+     * 逐个区间计算匹配位,low <= x <= high等价于无符号比较 x - low <= high - low
+     */
+    private static long[] matchWords(long[] millis, long[] closedRanges) {
+        long[] words = new long[(millis.length + 63) >>> 6];
+        for (int r = 0; r < closedRanges.length; r += 2) {
+            long low = closedRanges[r];
+            // 加上Long.MIN_VALUE后按有符号比较,等价于无符号比较
+            long span = closedRanges[r + 1] - low + Long.MIN_VALUE;
+            for (int w = 0; w < words.length; w++) {
+                int from = w << 6;
+                int to = Math.min(from + 64, millis.length);
+                long word = 0;
+                for (int i = from; i < to; i++) {
+                    long hit = (millis[i] - low + Long.MIN_VALUE) <= span ? 1L : 0L;
+                    word |= hit << (i - from);
+                }
+                words[w] |= word;
+            }
+        }
+        return words;
+    }
+
+    private static int[] toIndexes(BitSet bitSet) {
+        int[] indexes = new int[bitSet.cardinality()];
+        int index = 0;
+        for (int i = bitSet.nextSetBit(0); i >= 0; i = bitSet.nextSetBit(i + 1)) {
+            indexes[index++] = i;
+        }
+        return indexes;
+    }
+}
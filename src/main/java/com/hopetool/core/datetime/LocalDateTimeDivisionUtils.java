@@ -1,12 +1,16 @@
 package com.hopetool.core.datetime;
 
 import com.hopetool.core.datetime.support.DateTimeUnit;
+import com.hopetool.core.datetime.support.EpochMillisDivision;
+import com.hopetool.core.datetime.support.LocalDateTimeDivisionCache;
 import com.hopetool.core.datetime.support.LocalDateTimeDivisionDomain;
 
 import java.time.LocalDateTime;
 import java.time.LocalTime;
-import java.util.ArrayList;
-import java.util.List;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * 时间拆分工具类
@@ -16,6 +20,20 @@ import java.util.List;
  */
 public class LocalDateTimeDivisionUtils {
 
+    /**
+     * 默认的分段结果缓存容量
+     */
+    public static final int DEFAULT_DIVISION_CACHE_SIZE = 1024;
+
+    /**
+     * 默认的分段结果缓存时间段总容量
+     */
+    public static final long DEFAULT_DIVISION_CACHE_FRAMES = 65536;
+
+    /**
+     * 分段结果缓存
+     */
+    private static final LocalDateTimeDivisionCache DIVISION_CACHE = new LocalDateTimeDivisionCache(DEFAULT_DIVISION_CACHE_SIZE, DEFAULT_DIVISION_CACHE_FRAMES);
 
     /**
      * 对两个 LocalDateTime 对象之间的区间进行分段
@@ -32,29 +50,14 @@ public class LocalDateTimeDivisionUtils {
                                                                             boolean ignoringMilliseconds) {
         // 结果列表
         List<LocalDateTimeDivisionDomain<LocalDateTime>> resultList = new ArrayList<>();
-        // 全局开始时间定义
-        LocalDateTime overallSituationBeginTime = ignoringMilliseconds ?
-                LocalDateTime.of(beginDateTime.toLocalDate(), LocalTime.of(0, 0, 0)) : LocalDateTimeUtils.copyLocalDateTime(beginDateTime);
-        // 全局结束时间定义
-        LocalDateTime overallSituationEndTime = ignoringMilliseconds ?
-                LocalDateTime.of(endDateTime.toLocalDate(), LocalTime.of(23, 59, 59)) : LocalDateTimeUtils.copyLocalDateTime(endDateTime);
-        // 根据全局开始时间构建一个临时开始时间
-        LocalDateTime tempBeginTime = LocalDateTimeUtils.copyLocalDateTime(overallSituationBeginTime);
-        // 判断当前时间段的开始时间是否在全局结束时间之前,如果不在全局结束时间之前则进行分割时间段
-        while (tempBeginTime.isBefore(overallSituationEndTime)) {
-            // 构建一个当前时间段返回结果集
-            LocalDateTimeDivisionDomain<LocalDateTime> dateTimeDivision = new LocalDateTimeDivisionDomain<>();
-            // 计算当前时间段结束时间
-            LocalDateTime tempEndTime = LocalDateTimeUtils.endTimeByDateTimeUnit(tempBeginTime, dateTimeUnit, ignoringMilliseconds);
-            // 判断当前时间段结束时间是否在全局结束时间之前,如果不在,则把当前时间段的结束时间设置为全局结束时间
-            tempEndTime = tempEndTime.isBefore(overallSituationEndTime) ? tempEndTime : LocalDateTimeUtils.copyLocalDateTime(overallSituationEndTime);
+        DivisionCursor cursor = new DivisionCursor(beginDateTime, endDateTime, dateTimeUnit, ignoringMilliseconds);
+        while (cursor.advance()) {
             // 构建当前时间段返回结果集
-            dateTimeDivision.setBeginTime(tempBeginTime)
-                    .setEndTime(tempEndTime)
-                    .setChinese(dateTimeUnit.getChineseName(tempBeginTime))
-                    .setDateStr(LocalDateTimeUtils.format(tempBeginTime, dateTimeUnit.getDateFormat()));
-            // 计算下一个时间段开始时间
-            tempBeginTime = LocalDateTimeUtils.offset(tempBeginTime, 1, dateTimeUnit);
+            LocalDateTimeDivisionDomain<LocalDateTime> dateTimeDivision = new LocalDateTimeDivisionDomain<>();
+            dateTimeDivision.setBeginTime(cursor.beginTime)
+                    .setEndTime(cursor.endTime)
+                    .setChinese(dateTimeUnit.getChineseName(cursor.beginTime))
+                    .setDateStr(dateTimeUnit.getDateStr(cursor.beginTime));
             // 添加当前时间段返回结果集
             resultList.add(dateTimeDivision);
         }
@@ -63,6 +66,137 @@ public class LocalDateTimeDivisionUtils {
     }
 
 
+    /**
+     * 对两个 LocalDateTime 对象之间的区间进行分段,相同参数的分段结果会被缓存(见{@link #getDivisionCache()}),
+     * 返回的结果以及其中的时间段都是只读的。适合固定时间范围的重复分段,以当前时间为基准的滚动范围无法命中,应使用{@link #division}
+     *
+     * @param beginDateTime        开始时间
+     * @param endDateTime          结束时间
+     * @param dateTimeUnit         时间单位
+     * @param ignoringMilliseconds 是否忽略毫秒数
+     * @return 只读的分段结果列表
+     */
+    public static List<LocalDateTimeDivisionDomain<LocalDateTime>> cachedDivision(LocalDateTime beginDateTime,
+                                                                                  LocalDateTime endDateTime,
+                                                                                  DateTimeUnit dateTimeUnit,
+                                                                                  boolean ignoringMilliseconds) {
+        return DIVISION_CACHE.get(beginDateTime, endDateTime, dateTimeUnit, ignoringMilliseconds);
+    }
+
+
+    /**
+     * 对两个 LocalDateTime 对象之间的区间进行分段,相同参数的分段结果会被缓存,返回的结果是只读的
+     *
+     * @param beginDateTime 开始时间
+     * @param endDateTime   结束时间
+     * @param dateTimeUnit  时间单位
+     * @return 只读的分段结果列表
+     */
+    public static List<LocalDateTimeDivisionDomain<LocalDateTime>> cachedDivision(LocalDateTime beginDateTime,
+                                                                                  LocalDateTime endDateTime,
+                                                                                  DateTimeUnit dateTimeUnit) {
+        return cachedDivision(beginDateTime, endDateTime, dateTimeUnit, false);
+    }
+
+
+    /**
+     * 分段结果缓存(命中、未命中、淘汰次数)
+     *
+     * @return 分段结果缓存
+     */
+    public static LocalDateTimeDivisionCache getDivisionCache() {
+        return DIVISION_CACHE;
+    }
+
+
+    /**
+     * 惰性地对两个 LocalDateTime 对象之间的区间进行分段,遍历到时才计算时间段,
+     * 中文时间、日期字符串在第一次获取时才计算;时间段与{@link #division(LocalDateTime, LocalDateTime, DateTimeUnit, boolean)}一致
+     *
+     * @param beginDateTime        开始时间
+     * @param endDateTime          结束时间
+     * @param dateTimeUnit         时间单位
+     * @param ignoringMilliseconds 是否忽略毫秒数
+     * @return 分段迭代器
+     */
+    public static Iterator<LocalDateTimeDivisionDomain<LocalDateTime>> divisionIterator(LocalDateTime beginDateTime,
+                                                                                        LocalDateTime endDateTime,
+                                                                                        DateTimeUnit dateTimeUnit,
+                                                                                        boolean ignoringMilliseconds) {
+        DivisionCursor cursor = new DivisionCursor(beginDateTime, endDateTime, dateTimeUnit, ignoringMilliseconds);
+        return new Iterator<LocalDateTimeDivisionDomain<LocalDateTime>>() {
+
+            private boolean ready;
+
+            private boolean hasNext;
+
+            @Override
+            public boolean hasNext() {
+                if (!ready) {
+                    hasNext = cursor.advance();
+                    ready = true;
+                }
+                return hasNext;
+            }
+
+            @Override
+            public LocalDateTimeDivisionDomain<LocalDateTime> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                ready = false;
+                return new LazyDivisionDomain(cursor.beginTime, cursor.endTime, dateTimeUnit);
+            }
+        };
+    }
+
+
+    /**
+     * 惰性地对两个 LocalDateTime 对象之间的区间进行分段,见{@link #divisionIterator(LocalDateTime, LocalDateTime, DateTimeUnit, boolean)}
+     *
+     * @param beginDateTime        开始时间
+     * @param endDateTime          结束时间
+     * @param dateTimeUnit         时间单位
+     * @param ignoringMilliseconds 是否忽略毫秒数
+     * @return 分段流(顺序流)
+     */
+    public static Stream<LocalDateTimeDivisionDomain<LocalDateTime>> divisionStream(LocalDateTime beginDateTime,
+                                                                                    LocalDateTime endDateTime,
+                                                                                    DateTimeUnit dateTimeUnit,
+                                                                                    boolean ignoringMilliseconds) {
+        Iterator<LocalDateTimeDivisionDomain<LocalDateTime>> iterator = divisionIterator(beginDateTime, endDateTime, dateTimeUnit, ignoringMilliseconds);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+
+    /**
+     * 对两个 LocalDateTime 对象之间的区间进行分段,只返回时间段边界,不创建时间段对象以及中文时间、日期字符串
+     *
+     * @param beginDateTime        开始时间
+     * @param endDateTime          结束时间
+     * @param dateTimeUnit         时间单位
+     * @param ignoringMilliseconds 是否忽略毫秒数
+     * @return 时间段边界的本地毫秒({@link EpochMillisDivision#toLocalMillis(LocalDateTime)}),
+     * 第i个时间段的开始、结束(包含)分别位于下标2i、2i+1
+     */
+    public static long[] divisionBoundaries(LocalDateTime beginDateTime,
+                                            LocalDateTime endDateTime,
+                                            DateTimeUnit dateTimeUnit,
+                                            boolean ignoringMilliseconds) {
+        long[] boundaries = new long[16];
+        int size = 0;
+        DivisionCursor cursor = new DivisionCursor(beginDateTime, endDateTime, dateTimeUnit, ignoringMilliseconds);
+        while (cursor.advance()) {
+            if (size == boundaries.length) {
+                boundaries = Arrays.copyOf(boundaries, size << 1);
+            }
+            boundaries[size++] = EpochMillisDivision.toLocalMillis(cursor.beginTime);
+            boundaries[size++] = EpochMillisDivision.toLocalMillis(cursor.endTime);
+        }
+        return Arrays.copyOf(boundaries, size);
+    }
+
+
     /**
      * 对两个 LocalDateTime 对象之间的区间进行分段
      *
@@ -85,9 +219,112 @@ public class LocalDateTimeDivisionUtils {
      * @return 切分结果
      */
     public static List<LocalDateTimeDivisionDomain<LocalDateTime>> division(DateTimeUnit dateTimeUnit) {
-        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime now = LocalDateTimeUtils.now();
         LocalDateTime beginDateTime = LocalDateTimeUtils.beginTimeByDateTimeUnit(now, dateTimeUnit);
         LocalDateTime endDateTime = LocalDateTimeUtils.endTimeByDateTimeUnit(now, dateTimeUnit);
         return division(beginDateTime, endDateTime, dateTimeUnit);
     }
+
+
+    /**
+     * 按照指定时区对两个 LocalDateTime 对象之间的区间进行分段,用于定位纪元毫秒所属的时间段,结果与JVM默认时区无关
+     *
+     * @param beginDateTime 开始时间(指定时区的本地时间)
+     * @param endDateTime   结束时间(指定时区的本地时间)
+     * @param dateTimeUnit  时间单位
+     * @param zoneId        时区
+     * @return 纪元毫秒时间段划分
+     */
+    public static EpochMillisDivision divisionEpochMillis(LocalDateTime beginDateTime,
+                                                          LocalDateTime endDateTime,
+                                                          DateTimeUnit dateTimeUnit,
+                                                          ZoneId zoneId) {
+        return EpochMillisDivision.of(division(beginDateTime, endDateTime, dateTimeUnit), zoneId);
+    }
+
+
+    /**
+     * 时间段游标,依次计算每个时间段的开始、结束时间
+     */
+    private static final class DivisionCursor {
+
+        private final DateTimeUnit dateTimeUnit;
+
+        private final boolean ignoringMilliseconds;
+
+        /**
+         * 全局结束时间
+         */
+        private final LocalDateTime overallSituationEndTime;
+
+        /**
+         * 下一个时间段的开始时间
+         */
+        private LocalDateTime nextBeginTime;
+
+        private LocalDateTime beginTime;
+
+        private LocalDateTime endTime;
+
+        private DivisionCursor(LocalDateTime beginDateTime, LocalDateTime endDateTime, DateTimeUnit dateTimeUnit, boolean ignoringMilliseconds) {
+            this.dateTimeUnit = dateTimeUnit;
+            this.ignoringMilliseconds = ignoringMilliseconds;
+            // 全局开始时间定义
+            this.nextBeginTime = ignoringMilliseconds ?
+                    LocalDateTime.of(beginDateTime.toLocalDate(), LocalTime.of(0, 0, 0)) : LocalDateTimeUtils.copyLocalDateTime(beginDateTime);
+            // 全局结束时间定义
+            this.overallSituationEndTime = ignoringMilliseconds ?
+                    LocalDateTime.of(endDateTime.toLocalDate(), LocalTime.of(23, 59, 59)) : LocalDateTimeUtils.copyLocalDateTime(endDateTime);
+        }
+
+        /**
+         * 移动到下一个时间段
+         *
+         * @return 是否存在下一个时间段
+         */
+        private boolean advance() {
+            // 判断当前时间段的开始时间是否在全局结束时间之前,如果不在全局结束时间之前则结束分割
+            if (!nextBeginTime.isBefore(overallSituationEndTime)) {
+                return false;
+            }
+            beginTime = nextBeginTime;
+            // 计算当前时间段结束时间,不在全局结束时间之前时设置为全局结束时间
+            LocalDateTime tempEndTime = LocalDateTimeUtils.endTimeByDateTimeUnit(beginTime, dateTimeUnit, ignoringMilliseconds);
+            endTime = tempEndTime.isBefore(overallSituationEndTime) ? tempEndTime : overallSituationEndTime;
+            // 计算下一个时间段开始时间
+            nextBeginTime = LocalDateTimeUtils.offset(beginTime, 1, dateTimeUnit);
+            return true;
+        }
+    }
+
+
+    /**
+     * 惰性计算中文时间、日期字符串的时间段
+     */
+    private static final class LazyDivisionDomain extends LocalDateTimeDivisionDomain<LocalDateTime> {
+
+        private final transient DateTimeUnit dateTimeUnit;
+
+        private LazyDivisionDomain(LocalDateTime beginTime, LocalDateTime endTime, DateTimeUnit dateTimeUnit) {
+            this.dateTimeUnit = dateTimeUnit;
+            setBeginTime(beginTime);
+            setEndTime(endTime);
+        }
+
+        @Override
+        public String getChinese() {
+            if (super.getChinese() == null) {
+                setChinese(dateTimeUnit.getChineseName(getBeginTime()));
+            }
+            return super.getChinese();
+        }
+
+        @Override
+        public String getDateStr() {
+            if (super.getDateStr() == null) {
+                setDateStr(dateTimeUnit.getDateStr(getBeginTime()));
+            }
+            return super.getDateStr();
+        }
+    }
 }
@@ -2,8 +2,12 @@ package com.hopetool.core.datetime;
 
 
 import com.hopetool.core.array.ArraysUtils;
+import com.hopetool.core.datetime.support.CachedClock;
 import com.hopetool.core.datetime.support.DatePattern;
+import com.hopetool.core.datetime.support.DateTimeAutoParser;
+import com.hopetool.core.datetime.support.DateTimeFormatterCache;
 import com.hopetool.core.datetime.support.DateTimeUnit;
+import com.hopetool.core.datetime.support.FixedDatePattern;
 import com.hopetool.core.datetime.support.Month;
 import com.hopetool.core.datetime.support.Quarter;
 import com.hopetool.core.lang.AssertUtils;
@@ -33,6 +37,64 @@ public class LocalDateTimeUtils {
      */
     public static LocalDateTime EMPTY = buildTime(1970, 1, 1);
 
+    /**
+     * yyyyMMddHHmmss开头的日期格式的解析器(毫秒固定为3位)
+     */
+    private static final DateTimeFormatter PURE_DATETIME_MS_PARSER = new DateTimeFormatterBuilder()
+            .appendPattern(DatePattern.PURE_DATETIME_PATTERN)
+            .appendValue(ChronoField.MILLI_OF_SECOND, 3)
+            .toFormatter();
+
+    /**
+     * 当前时间使用的时钟,为null时使用系统时钟和默认时区({@link LocalDateTime#now()})
+     */
+    private static volatile Clock clock;
+
+    /**
+     * 设置当前时间使用的时钟,例如{@link CachedClock}(避免每次读取系统时钟、查找时区偏移)或测试使用的{@link Clock#fixed}
+     *
+     * @param clock 时钟,为null时恢复为系统时钟和默认时区
+     */
+    public static void setClock(Clock clock) {
+        LocalDateTimeUtils.clock = clock;
+    }
+
+    /**
+     * 当前时间使用的时钟
+     *
+     * @return 时钟,未设置时返回默认时区的系统时钟
+     */
+    public static Clock getClock() {
+        Clock current = clock;
+        return current == null ? Clock.systemDefaultZone() : current;
+    }
+
+    /**
+     * 当前时间,使用{@link #setClock(Clock)}设置的时钟
+     *
+     * @return 当前时间
+     */
+    public static LocalDateTime now() {
+        Clock current = clock;
+        if (current == null) {
+            return LocalDateTime.now();
+        }
+        if (current instanceof CachedClock) {
+            return ((CachedClock) current).localDateTime();
+        }
+        return LocalDateTime.now(current);
+    }
+
+    /**
+     * 当前纪元毫秒,使用{@link #setClock(Clock)}设置的时钟
+     *
+     * @return 纪元毫秒
+     */
+    public static long currentTimeMillis() {
+        Clock current = clock;
+        return current == null ? System.currentTimeMillis() : current.millis();
+    }
+
     /**
      * 返回当前时间加上指定时间间隔后的时间
      *
@@ -40,7 +102,7 @@ public class LocalDateTimeUtils {
      * @return 加上指定时间间隔后的时间
      */
     public static LocalDateTime addTime(Duration duration) {
-        return LocalDateTime.now().plus(duration);
+        return now().plus(duration);
     }
 
 
@@ -51,7 +113,7 @@ public class LocalDateTimeUtils {
      * @return 如果给定的日期在当前时间之前，则返回true；否则返回false
      */
     public static boolean beforeNow(LocalDateTime date) {
-        return date.isBefore(LocalDateTime.now());
+        return date.isBefore(now());
     }
 
 
@@ -62,7 +124,7 @@ public class LocalDateTimeUtils {
      * @return 如果给定的日期在当前时间之后，则返回true；否则返回false
      */
     public static boolean afterNow(LocalDateTime date) {
-        return date.isAfter(LocalDateTime.now());
+        return date.isAfter(now());
     }
 
 
@@ -273,7 +335,7 @@ public class LocalDateTimeUtils {
         if (startTime == null || endTime == null) {
             return false;
         }
-        return TemporalAccessorUtil.isIn(LocalDateTime.now(), startTime, endTime);
+        return TemporalAccessorUtil.isIn(now(), startTime, endTime);
     }
 
 
@@ -698,7 +760,7 @@ public class LocalDateTimeUtils {
     public static LocalDateTime beginOfQuarter(LocalDateTime benchmarkTime) {
         Month month = Month.of(benchmarkTime.getMonth().firstMonthOfQuarter());
         AssertUtils.notNull(month, "The month of the given time is invalid.");
-        return LocalDateTime.of(LocalDate.of(benchmarkTime.getYear(), month.getValue(), 1), LocalTime.MIN);
+        return LocalDateTime.of(LocalDate.of(benchmarkTime.getYear(), month.getValueBaseOne(), 1), LocalTime.MIN);
     }
 
 
@@ -890,7 +952,7 @@ public class LocalDateTimeUtils {
      * @since 5.3.11
      */
     public static String formatNormal(LocalDateTime time) {
-        return format(time, DatePattern.NORM_DATETIME_FORMATTER);
+        return format(time, DatePattern.NORM_DATETIME_PATTERN);
     }
 
     /**
@@ -912,6 +974,11 @@ public class LocalDateTimeUtils {
      * @return 格式化后的字符串
      */
     public static String format(LocalDateTime time, String format) {
+        // 定长数字日期格式直接写入数字
+        FixedDatePattern fixedDatePattern = FixedDatePattern.of(format);
+        if (null != time && null != fixedDatePattern && fixedDatePattern.isSupported(time)) {
+            return fixedDatePattern.format(time);
+        }
         return TemporalAccessorUtil.format(time, format);
     }
 
@@ -927,6 +994,17 @@ public class LocalDateTimeUtils {
         return parse(text, (DateTimeFormatter) null);
     }
 
+    /**
+     * 自动识别{@link DatePattern}中的日期格式并解析(一次扫描,不使用正则表达式),用于格式不确定的输入,
+     * 代替依次尝试多个格式并捕获异常,支持的格式见{@link DateTimeAutoParser}
+     *
+     * @param text 日期时间字符串
+     * @return {@link LocalDateTime},无法识别时返回null
+     */
+    public static LocalDateTime parseAuto(CharSequence text) {
+        return DateTimeAutoParser.parse(text);
+    }
+
     /**
      * 解析日期时间字符串为{@link LocalDateTime}，格式支持日期时间、日期、时间<br>
      * 如果formatter为{@code null}，则使用{@link DateTimeFormatter#ISO_LOCAL_DATE_TIME}
@@ -957,6 +1035,14 @@ public class LocalDateTimeUtils {
         if (StrUtils.isBlank(text)) {
             return null;
         }
+        // 定长数字日期格式直接读取数字,字段值不合法时由DateTimeFormatter处理
+        FixedDatePattern fixedDatePattern = FixedDatePattern.of(format);
+        if (null != fixedDatePattern && text.length() == fixedDatePattern.length()) {
+            LocalDateTime time = fixedDatePattern.parse(text, 0);
+            if (null != time) {
+                return time;
+            }
+        }
         DateTimeFormatter formatter = null;
         if (StrUtils.isNotBlank(format)) {
             // 修复yyyyMMddHHmmssSSS格式不能解析的问题
@@ -968,12 +1054,9 @@ public class LocalDateTimeUtils {
                     //将yyyyMMddHHmmssS、yyyyMMddHHmmssSS的日期统一替换为yyyyMMddHHmmssSSS格式，用0补
                     text += StrUtils.repeat('0', 3 - fraction.length());
                 }
-                formatter = new DateTimeFormatterBuilder()
-                        .appendPattern(DatePattern.PURE_DATETIME_PATTERN)
-                        .appendValue(ChronoField.MILLI_OF_SECOND, 3)
-                        .toFormatter();
+                formatter = PURE_DATETIME_MS_PARSER;
             } else {
-                formatter = DateTimeFormatter.ofPattern(format);
+                formatter = DateTimeFormatterCache.get(format);
             }
         }
         return parse(text, formatter);
@@ -1013,7 +1096,7 @@ public class LocalDateTimeUtils {
      * @return 开始时间和结束时间
      */
     public static LocalDateTime[] generateTimePeriodByBenchmarkDateTime(DateTimeUnit dateTimeUnit, int offset) {
-        return generateTimePeriodByBenchmarkDateTime(LocalDateTime.now(), dateTimeUnit, offset);
+        return generateTimePeriodByBenchmarkDateTime(now(), dateTimeUnit, offset);
     }
 
 
@@ -1093,7 +1176,7 @@ public class LocalDateTimeUtils {
      * @return 起点时间和终点时间
      */
     public static LocalDateTime[] generateTimePeriodByDateTimeUnit(DateTimeUnit dateTimeUnit, int offset, int step) {
-        LocalDateTime offsetDateTime = offset(LocalDateTime.now(), offset, dateTimeUnit);
+        LocalDateTime offsetDateTime = offset(now(), offset, dateTimeUnit);
         return generateTimePeriodByBenchmarkDateTime(offsetDateTime, dateTimeUnit, step);
     }
 }
@@ -1,6 +1,7 @@
 package com.hopetool.core.datetime;
 
 
+import com.hopetool.core.datetime.support.DateTimeFormatterCache;
 import com.hopetool.core.text.StrUtils;
 
 import java.time.*;
@@ -92,7 +93,7 @@ public class TemporalAccessorUtil extends TemporalUtil {
             return time.toString();
         }
         final DateTimeFormatter formatter = StrUtils.isBlank(format)
-                ? null : DateTimeFormatter.ofPattern(format);
+                ? null : DateTimeFormatterCache.get(format);
         return format(time, formatter);
     }
 
@@ -0,0 +1,165 @@
+package com.hopetool.core.datetime.support;
+
+import com.hopetool.core.lang.AssertUtils;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 粗粒度缓存时钟
+ * <p>
+ * 后台线程按照指定精度读取系统时钟,缓存当前的纪元毫秒、{@link Instant}以及时区下的{@link LocalDateTime};
+ * 读取当前时间只是一次volatile读,不读取系统时钟也不查找时区偏移,返回的时间最多落后一个精度。
+ * 适合只需要毫秒、秒级当前时间的高频调用(例如{@link com.hopetool.core.datetime.LocalDateTimeUtils#now()})。
+ * 不再使用时调用{@link #close()}停止后台线程(后台线程为守护线程,不阻止JVM退出)
+ *
+ * @author JunPzx
+ * @since 2024/1/24 14:00
+ */
+public final class CachedClock extends Clock implements AutoCloseable {
+
+    private static final AtomicInteger THREAD_NUMBER = new AtomicInteger();
+
+    private final ZoneId zone;
+
+    private final long resolutionMillis;
+
+    private final ScheduledExecutorService ticker;
+
+    private volatile Snapshot snapshot;
+
+    private CachedClock(ZoneId zone, long resolutionMillis) {
+        this.zone = zone;
+        this.resolutionMillis = resolutionMillis;
+        tick();
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "cached-clock-ticker-" + THREAD_NUMBER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+        executor.scheduleAtFixedRate(this::tick, resolutionMillis, resolutionMillis, TimeUnit.MILLISECONDS);
+        this.ticker = executor;
+    }
+
+    /**
+     * 创建默认时区的缓存时钟并启动后台线程
+     *
+     * @param resolutionMillis 精度(毫秒)
+     * @return 缓存时钟
+     */
+    public static CachedClock start(long resolutionMillis) {
+        return start(ZoneId.systemDefault(), resolutionMillis);
+    }
+
+    /**
+     * 创建指定时区的缓存时钟并启动后台线程
+     *
+     * @param zone             时区
+     * @param resolutionMillis 精度(毫秒)
+     * @return 缓存时钟
+     */
+    public static CachedClock start(ZoneId zone, long resolutionMillis) {
+        AssertUtils.notNull(zone, "时区不能为空");
+        AssertUtils.isTrue(resolutionMillis > 0, "精度需要大于0");
+        return new CachedClock(zone, resolutionMillis);
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    /**
+     * 返回指定时区的时钟,与当前时钟共享后台线程,时区不同时每次读取按照时区转换
+     */
+    @Override
+    public Clock withZone(ZoneId zone) {
+        if (this.zone.equals(zone)) {
+            return this;
+        }
+        AssertUtils.notNull(zone, "时区不能为空");
+        Clock source = this;
+        return new Clock() {
+            @Override
+            public ZoneId getZone() {
+                return zone;
+            }
+
+            @Override
+            public Clock withZone(ZoneId other) {
+                return source.withZone(other);
+            }
+
+            @Override
+            public long millis() {
+                return source.millis();
+            }
+
+            @Override
+            public Instant instant() {
+                return source.instant();
+            }
+        };
+    }
+
+    @Override
+    public long millis() {
+        return snapshot.millis;
+    }
+
+    @Override
+    public Instant instant() {
+        return snapshot.instant;
+    }
+
+    /**
+     * 缓存的时钟时区下的当前时间
+     *
+     * @return 当前时间
+     */
+    public LocalDateTime localDateTime() {
+        return snapshot.localDateTime;
+    }
+
+    public long getResolutionMillis() {
+        return resolutionMillis;
+    }
+
+    /**
+     * 停止后台线程,之后时间不再更新
+     */
+    @Override
+    public void close() {
+        ticker.shutdownNow();
+    }
+
+    private void tick() {
+        Instant instant = Instant.ofEpochMilli(System.currentTimeMillis());
+        snapshot = new Snapshot(instant, LocalDateTime.ofInstant(instant, zone));
+    }
+
+    /**
+     * 同一时刻的缓存值,整体替换以保证一致
+     */
+    private static final class Snapshot {
+
+        private final long millis;
+
+        private final Instant instant;
+
+        private final LocalDateTime localDateTime;
+
+        private Snapshot(Instant instant, LocalDateTime localDateTime) {
+            this.millis = instant.toEpochMilli();
+            this.instant = instant;
+            this.localDateTime = localDateTime;
+        }
+    }
+}
@@ -0,0 +1,371 @@
+package com.hopetool.core.datetime.support;
+
+import com.hopetool.core.datetime.DateTimeBucketUtils;
+import com.hopetool.core.lang.AssertUtils;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.Year;
+import java.time.ZoneId;
+import java.time.zone.ZoneRules;
+
+/**
+ * 日期格式自动识别解析器
+ * <p>
+ * 一次扫描字符串识别{@link DatePattern}中的日期格式,不使用正则表达式,格式不匹配时返回null而不是抛出异常:
+ * <li>NORM: yyyy、yyyy-MM、yyyy-MM-dd、yyyy-MM-dd HH:mm、yyyy-MM-dd HH:mm:ss、yyyy-MM-dd HH:mm:ss.SSS,
+ * 以及yyyy-MM-dd HH:mm:ss,SSS(ISO8601);月、日、时、分、秒可以为1位,分隔符也可以为/</li>
+ * <li>PURE: yyyyMM、yyyyMMdd、yyyyMMddHHmmss、yyyyMMddHHmmssSSS</li>
+ * <li>CHINESE: yyyy年MM月、yyyy年MM月dd日、yyyy年MM月dd日HH时mm分ss秒(可以省略秒或分秒)</li>
+ * <li>UTC/ISO: yyyy-MM-dd'T'HH:mm:ss,可以带毫秒(1~9位小数)以及Z、+08:00、+0800、+08形式的偏移</li>
+ * 只有时间的格式(HH:mm:ss、HHmmss)无法确定日期,HTTP、JDK格式包含英文名称,均不识别。
+ * <p>
+ * {@link #parse(CharSequence)}返回字符串中的本地时间(忽略偏移,与按照UTC格式解析一致),
+ * {@link #parseEpochMillis(CharSequence, ZoneId)}按照字符串中的偏移(没有偏移时按照指定时区)计算纪元毫秒
+ *
+ * @author JunPzx
+ * @since 2024/1/25 16:00
+ */
+public final class DateTimeAutoParser {
+
+    private static final int NO_OFFSET = Integer.MIN_VALUE;
+
+    private static final int MAX_OFFSET_SECONDS = 18 * 3600;
+
+    private DateTimeAutoParser() {
+    }
+
+    /**
+     * 识别日期格式并解析为本地时间
+     *
+     * @param text 日期时间字符串
+     * @return 本地时间,无法识别或字段值不合法时返回null
+     */
+    public static LocalDateTime parse(CharSequence text) {
+        Fields fields = scan(text);
+        return fields == null ? null : LocalDateTime.of(fields.year, fields.month, fields.day, fields.hour, fields.minute, fields.second, fields.nano);
+    }
+
+    /**
+     * 识别日期格式并计算纪元毫秒
+     *
+     * @param text   日期时间字符串
+     * @param zoneId 字符串中没有偏移时使用的时区
+     * @return 纪元毫秒,无法识别或字段值不合法时返回null
+     */
+    public static Long parseEpochMillis(CharSequence text, ZoneId zoneId) {
+        AssertUtils.notNull(zoneId, "时区不能为空");
+        Fields fields = scan(text);
+        if (fields == null) {
+            return null;
+        }
+        long localSeconds = DateTimeBucketUtils.toEpochDay(fields.year, fields.month, fields.day) * 86400
+                + fields.hour * 3600 + fields.minute * 60 + fields.second;
+        long millisOfSecond = fields.nano / 1_000_000;
+        if (fields.offsetSeconds != NO_OFFSET) {
+            return (localSeconds - fields.offsetSeconds) * 1000 + millisOfSecond;
+        }
+        ZoneRules zoneRules = zoneId.getRules();
+        if (zoneRules.isFixedOffset()) {
+            return (localSeconds - zoneRules.getOffset(Instant.EPOCH).getTotalSeconds()) * 1000 + millisOfSecond;
+        }
+        LocalDateTime localDateTime = LocalDateTime.of(fields.year, fields.month, fields.day, fields.hour, fields.minute, fields.second, fields.nano);
+        return localDateTime.atZone(zoneId).toInstant().toEpochMilli();
+    }
+
+    /**
+     * 扫描字符串,识别格式并读取字段
+     */
+    private static Fields scan(CharSequence text) {
+        if (text == null) {
+            return null;
+        }
+        Scanner scanner = new Scanner(text);
+        if (scanner.isEnd()) {
+            return null;
+        }
+        int digits = scanner.countDigits();
+        Fields fields = new Fields();
+        if (digits != 4 || scanner.isEnd(scanner.pos + 4)) {
+            // 纯数字格式
+            if (!scanner.isEnd(scanner.pos + digits) || !readPure(scanner, digits, fields)) {
+                return null;
+            }
+            return fields.isValid() ? fields : null;
+        }
+        fields.year = scanner.number(4);
+        char separator = scanner.next();
+        boolean matched;
+        if (separator == '-' || separator == '/') {
+            matched = readNorm(scanner, separator, fields);
+        } else if (separator == '年') {
+            matched = readChinese(scanner, fields);
+        } else {
+            matched = false;
+        }
+        return matched && scanner.isEnd() && fields.isValid() ? fields : null;
+    }
+
+    /**
+     * yyyy、yyyyMM、yyyyMMdd、yyyyMMddHHmmss、yyyyMMddHHmmssSSS
+     */
+    private static boolean readPure(Scanner scanner, int digits, Fields fields) {
+        switch (digits) {
+            case 4:
+            case 6:
+            case 8:
+            case 14:
+            case 17:
+                break;
+            default:
+                return false;
+        }
+        fields.year = scanner.number(4);
+        if (digits >= 6) {
+            fields.month = scanner.number(2);
+        }
+        if (digits >= 8) {
+            fields.day = scanner.number(2);
+        }
+        if (digits >= 14) {
+            fields.hour = scanner.number(2);
+            fields.minute = scanner.number(2);
+            fields.second = scanner.number(2);
+        }
+        if (digits == 17) {
+            fields.nano = scanner.number(3) * 1_000_000;
+        }
+        return true;
+    }
+
+    /**
+     * yyyy-M[-d[( |T)H:m[:s[(.|,)S...]][偏移]]]
+     */
+    private static boolean readNorm(Scanner scanner, char separator, Fields fields) {
+        if ((fields.month = scanner.number1or2()) < 0) {
+            return false;
+        }
+        if (scanner.isEnd()) {
+            return true;
+        }
+        if (scanner.next() != separator || (fields.day = scanner.number1or2()) < 0) {
+            return false;
+        }
+        if (scanner.isEnd()) {
+            return true;
+        }
+        char c = scanner.next();
+        if (c != ' ' && c != 'T') {
+            return false;
+        }
+        if ((fields.hour = scanner.number1or2()) < 0 || scanner.next() != ':' || (fields.minute = scanner.number1or2()) < 0) {
+            return false;
+        }
+        if (scanner.peek() == ':') {
+            scanner.pos++;
+            if ((fields.second = scanner.number1or2()) < 0) {
+                return false;
+            }
+            c = scanner.peek();
+            if (c == '.' || c == ',') {
+                scanner.pos++;
+                if ((fields.nano = scanner.fraction()) < 0) {
+                    return false;
+                }
+            }
+        }
+        return scanner.isEnd() || readOffset(scanner, fields);
+    }
+
+    /**
+     * Z、+HH:mm、+HHmm、+HH(-同理)
+     */
+    private static boolean readOffset(Scanner scanner, Fields fields) {
+        char sign = scanner.next();
+        if (sign == 'Z') {
+            fields.offsetSeconds = 0;
+            return true;
+        }
+        if (sign != '+' && sign != '-') {
+            return false;
+        }
+        int hours = scanner.countDigits() >= 2 ? scanner.number(2) : -1;
+        if (hours < 0) {
+            return false;
+        }
+        int minutes = 0;
+        if (!scanner.isEnd()) {
+            if (scanner.peek() == ':') {
+                scanner.pos++;
+            }
+            if (scanner.countDigits() != 2) {
+                return false;
+            }
+            minutes = scanner.number(2);
+        }
+        int seconds = hours * 3600 + minutes * 60;
+        if (minutes > 59 || seconds > MAX_OFFSET_SECONDS) {
+            return false;
+        }
+        fields.offsetSeconds = sign == '-' ? -seconds : seconds;
+        return true;
+    }
+
+    /**
+     * yyyy年M月[d日[H时[m分[s秒]]]],日期与时间之间可以有空格
+     */
+    private static boolean readChinese(Scanner scanner, Fields fields) {
+        if ((fields.month = scanner.number1or2()) < 0 || scanner.next() != '月') {
+            return false;
+        }
+        if (scanner.isEnd()) {
+            return true;
+        }
+        if ((fields.day = scanner.number1or2()) < 0 || scanner.next() != '日') {
+            return false;
+        }
+        while (scanner.peek() == ' ') {
+            scanner.pos++;
+        }
+        if (scanner.isEnd()) {
+            return true;
+        }
+        if ((fields.hour = scanner.number1or2()) < 0 || scanner.next() != '时') {
+            return false;
+        }
+        if (scanner.isEnd()) {
+            return true;
+        }
+        if ((fields.minute = scanner.number1or2()) < 0 || scanner.next() != '分') {
+            return false;
+        }
+        if (scanner.isEnd()) {
+            return true;
+        }
+        return (fields.second = scanner.number1or2()) >= 0 && scanner.next() == '秒';
+    }
+
+    /**
+     * 字符游标(忽略首尾空白)
+     */
+    private static final class Scanner {
+
+        private final CharSequence text;
+
+        private final int end;
+
+        private int pos;
+
+        private Scanner(CharSequence text) {
+            int begin = 0;
+            int last = text.length();
+            while (begin < last && Character.isWhitespace(text.charAt(begin))) {
+                begin++;
+            }
+            while (last > begin && Character.isWhitespace(text.charAt(last - 1))) {
+                last--;
+            }
+            this.text = text;
+            this.pos = begin;
+            this.end = last;
+        }
+
+        private boolean isEnd() {
+            return pos >= end;
+        }
+
+        private boolean isEnd(int index) {
+            return index >= end;
+        }
+
+        /**
+         * 当前字符,已结束时返回0
+         */
+        private char peek() {
+            return pos < end ? text.charAt(pos) : 0;
+        }
+
+        /**
+         * 读取当前字符,已结束时返回0
+         */
+        private char next() {
+            return pos < end ? text.charAt(pos++) : 0;
+        }
+
+        /**
+         * 从当前位置开始连续数字的数量
+         */
+        private int countDigits() {
+            int index = pos;
+            while (index < end && isDigit(text.charAt(index))) {
+                index++;
+            }
+            return index - pos;
+        }
+
+        /**
+         * 读取指定位数的数字(调用方已确认均为数字)
+         */
+        private int number(int digits) {
+            int value = 0;
+            for (int i = 0; i < digits; i++) {
+                value = value * 10 + (text.charAt(pos++) - '0');
+            }
+            return value;
+        }
+
+        /**
+         * 读取1~2位数字,不匹配时返回-1
+         */
+        private int number1or2() {
+            int digits = countDigits();
+            return digits == 1 || digits == 2 ? number(digits) : -1;
+        }
+
+        /**
+         * 读取1~9位小数并转换为纳秒,不匹配时返回-1
+         */
+        private int fraction() {
+            int digits = countDigits();
+            if (digits < 1 || digits > 9) {
+                return -1;
+            }
+            int value = number(digits);
+            for (int i = digits; i < 9; i++) {
+                value *= 10;
+            }
+            return value;
+        }
+
+        private static boolean isDigit(char c) {
+            return c >= '0' && c <= '9';
+        }
+    }
+
+    /**
+     * 解析出的字段,缺少的字段取最小值
+     */
+    private static final class Fields {
+
+        private int year;
+
+        private int month = 1;
+
+        private int day = 1;
+
+        private int hour;
+
+        private int minute;
+
+        private int second;
+
+        private int nano;
+
+        private int offsetSeconds = NO_OFFSET;
+
+        private boolean isValid() {
+            return year >= 1 && month >= 1 && month <= 12 && day >= 1 && day <= java.time.Month.of(month).length(Year.isLeap(year))
+                    && hour <= 23 && minute <= 59 && second <= 59;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.hopetool.core.datetime.support;
+
+import com.hopetool.core.lang.AssertUtils;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 日期格式化器缓存
+ * <p>
+ * 按照区域、日期格式缓存{@link DateTimeFormatter#ofPattern(String, Locale)}的结果,避免每次格式化、解析时重新编译日期格式。
+ * 默认区域下预先编译{@link DatePattern}中的全部日期格式;每个区域最多缓存{@link #MAX_SIZE}个日期格式,
+ * 超出时清除预编译以外的日期格式。{@link DateTimeFormatter}不可变,线程安全
+ *
+ * @author JunPzx
+ * @since 2024/1/22 9:30
+ */
+public final class DateTimeFormatterCache {
+
+    /**
+     * 每个区域最多缓存的日期格式数量
+     */
+    public static final int MAX_SIZE = 256;
+
+    /**
+     * 最多缓存的区域数量
+     */
+    private static final int MAX_LOCALES = 16;
+
+    /**
+     * 预编译的日期格式({@link DatePattern}中的字符串常量)
+     */
+    private static final Set<String> SEED_PATTERNS = seedPatterns();
+
+    private static final ConcurrentMap<Locale, ConcurrentMap<String, DateTimeFormatter>> CACHE = new ConcurrentHashMap<>();
+
+    static {
+        Locale locale = Locale.getDefault(Locale.Category.FORMAT);
+        SEED_PATTERNS.forEach(pattern -> get(pattern, locale));
+    }
+
+    private DateTimeFormatterCache() {
+    }
+
+    /**
+     * 获取默认区域的日期格式化器,与{@link DateTimeFormatter#ofPattern(String)}一致
+     *
+     * @param pattern 日期格式
+     * @return 日期格式化器
+     */
+    public static DateTimeFormatter get(String pattern) {
+        return get(pattern, Locale.getDefault(Locale.Category.FORMAT));
+    }
+
+    /**
+     * 获取指定区域的日期格式化器,与{@link DateTimeFormatter#ofPattern(String, Locale)}一致
+     *
+     * @param pattern 日期格式
+     * @param locale  区域
+     * @return 日期格式化器
+     */
+    public static DateTimeFormatter get(String pattern, Locale locale) {
+        AssertUtils.notNull(pattern, "日期格式不能为空");
+        AssertUtils.notNull(locale, "区域不能为空");
+        ConcurrentMap<String, DateTimeFormatter> formatters = CACHE.get(locale);
+        if (formatters == null) {
+            if (CACHE.size() >= MAX_LOCALES) {
+                CACHE.clear();
+            }
+            ConcurrentMap<String, DateTimeFormatter> created = new ConcurrentHashMap<>();
+            formatters = CACHE.putIfAbsent(locale, created);
+            if (formatters == null) {
+                formatters = created;
+            }
+        }
+        DateTimeFormatter formatter = formatters.get(pattern);
+        if (formatter != null) {
+            return formatter;
+        }
+        // 日期格式不合法时抛出异常,不缓存
+        formatter = DateTimeFormatter.ofPattern(pattern, locale);
+        if (formatters.size() >= MAX_SIZE) {
+            formatters.keySet().removeIf(key -> !SEED_PATTERNS.contains(key));
+        }
+        DateTimeFormatter existing = formatters.putIfAbsent(pattern, formatter);
+        return existing == null ? formatter : existing;
+    }
+
+    /**
+     * 指定区域已缓存的日期格式数量
+     *
+     * @param locale 区域
+     * @return 日期格式数量
+     */
+    public static int size(Locale locale) {
+        ConcurrentMap<String, DateTimeFormatter> formatters = CACHE.get(locale);
+        return formatters == null ? 0 : formatters.size();
+    }
+
+    /**
+     * {@link DatePattern}中的全部字符串常量
+     */
+    private static Set<String> seedPatterns() {
+        Set<String> patterns = new HashSet<>();
+        for (Field field : DatePattern.class.getFields()) {
+            int modifiers = field.getModifiers();
+            if (Modifier.isStatic(modifiers) && Modifier.isFinal(modifiers) && field.getType() == String.class) {
+                try {
+                    patterns.add((String) field.get(null));
+                } catch (IllegalAccessException ignored) {
+                    // 公共常量可以访问
+                }
+            }
+        }
+        return Collections.unmodifiableSet(patterns);
+    }
+}
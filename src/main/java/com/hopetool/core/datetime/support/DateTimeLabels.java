@@ -0,0 +1,224 @@
+package com.hopetool.core.datetime.support;
+
+import com.hopetool.core.lang.AssertUtils;
+
+import java.time.LocalDateTime;
+
+/**
+ * 时间段名称表
+ * <p>
+ * 预先生成{@link DateTimeUnit#getChineseName(LocalDateTime)}、{@link DateTimeUnit#getDateStr(LocalDateTime)}使用的名称,
+ * 获取名称时只做数组下标查找,返回共享的字符串实例,不再解析格式字符串:
+ * <li>年:年份范围内(默认{@link #DEFAULT_MIN_YEAR}~{@link #DEFAULT_MAX_YEAR},可通过{@link #setYearRange(int, int)}调整)的"2023年"、"2023"、"2023-1"</li>
+ * <li>季度、月、日、时:固定的"1季度"、"1月"、"1日"、"0时"</li>
+ * <li>周:按照月份、周数生成的"9月第1周",周数由日期与当月第一个周一的号数计算,第一个周一之前的日期属于第一周</li>
+ * 年份超出范围时返回null,由调用方格式化
+ *
+ * @author JunPzx
+ * @since 2024/1/23 16:30
+ */
+public final class DateTimeLabels {
+
+    public static final int DEFAULT_MIN_YEAR = 1970;
+
+    public static final int DEFAULT_MAX_YEAR = 2100;
+
+    /**
+     * 一个月最多的周数(1号为周一且当月有29天以上)
+     */
+    private static final int MAX_WEEK_OF_MONTH = 5;
+
+    private static final String[] QUARTER_LABELS = labels(1, 4, "季度");
+
+    private static final String[] MONTH_LABELS = labels(1, 12, "月");
+
+    private static final String[] DAY_LABELS = labels(1, 31, "日");
+
+    private static final String[] HOUR_LABELS = labels(0, 23, "时");
+
+    /**
+     * [月][周数]
+     */
+    private static final String[][] WEEK_LABELS = new String[13][MAX_WEEK_OF_MONTH + 1];
+
+    /**
+     * [当月第一个周一的号数][号数],值为周数
+     */
+    private static final byte[][] WEEK_OF_MONTH_TABLE = new byte[8][32];
+
+    private static volatile YearTable yearTable = new YearTable(DEFAULT_MIN_YEAR, DEFAULT_MAX_YEAR);
+
+    static {
+        for (int month = 1; month <= 12; month++) {
+            for (int week = 1; week <= MAX_WEEK_OF_MONTH; week++) {
+                WEEK_LABELS[month][week] = month + "月第" + week + "周";
+            }
+        }
+        for (int firstMonday = 1; firstMonday <= 7; firstMonday++) {
+            for (int day = 1; day <= 31; day++) {
+                WEEK_OF_MONTH_TABLE[firstMonday][day] = (byte) (day < firstMonday ? 1 : (day - firstMonday) / 7 + 1);
+            }
+        }
+    }
+
+    private DateTimeLabels() {
+    }
+
+    /**
+     * 调整预先生成名称的年份范围(1000~9999,四位年份的日期字符串与yyyy格式一致)
+     *
+     * @param minYear 最小年份
+     * @param maxYear 最大年份
+     */
+    public static void setYearRange(int minYear, int maxYear) {
+        AssertUtils.isTrue(minYear >= 1000 && maxYear <= 9999 && minYear <= maxYear, "年份范围不合法: {}~{}", minYear, maxYear);
+        yearTable = new YearTable(minYear, maxYear);
+    }
+
+    public static int getMinYear() {
+        return yearTable.minYear;
+    }
+
+    public static int getMaxYear() {
+        return yearTable.minYear + yearTable.chineseNames.length - 1;
+    }
+
+    /**
+     * 年的中文名称,例如2023年
+     *
+     * @param year 年
+     * @return 中文名称,超出年份范围时返回null
+     */
+    public static String yearChineseName(int year) {
+        YearTable table = yearTable;
+        int index = year - table.minYear;
+        return index >= 0 && index < table.chineseNames.length ? table.chineseNames[index] : null;
+    }
+
+    /**
+     * 年的日期字符串(yyyy),例如2023
+     *
+     * @param year 年
+     * @return 日期字符串,超出年份范围时返回null
+     */
+    public static String yearDateStr(int year) {
+        YearTable table = yearTable;
+        int index = year - table.minYear;
+        return index >= 0 && index < table.dateStrs.length ? table.dateStrs[index] : null;
+    }
+
+    /**
+     * 季度的日期字符串(yyyy-q),例如2023-1
+     *
+     * @param year    年
+     * @param quarter 季度(1~4)
+     * @return 日期字符串,超出年份范围时返回null
+     */
+    public static String quarterDateStr(int year, int quarter) {
+        YearTable table = yearTable;
+        int index = year - table.minYear;
+        return index >= 0 && index < table.dateStrs.length ? table.quarterDateStrs[index * 4 + quarter - 1] : null;
+    }
+
+    /**
+     * 季度的中文名称,例如1季度
+     *
+     * @param quarter 季度(1~4)
+     * @return 中文名称
+     */
+    public static String quarterChineseName(int quarter) {
+        return QUARTER_LABELS[quarter - 1];
+    }
+
+    /**
+     * 月的中文名称,例如1月
+     *
+     * @param month 月(1~12)
+     * @return 中文名称
+     */
+    public static String monthChineseName(int month) {
+        return MONTH_LABELS[month - 1];
+    }
+
+    /**
+     * 日的中文名称,例如1日
+     *
+     * @param day 日(1~31)
+     * @return 中文名称
+     */
+    public static String dayChineseName(int day) {
+        return DAY_LABELS[day - 1];
+    }
+
+    /**
+     * 时的中文名称,例如0时
+     *
+     * @param hour 时(0~23)
+     * @return 中文名称
+     */
+    public static String hourChineseName(int hour) {
+        return HOUR_LABELS[hour];
+    }
+
+    /**
+     * 周的中文名称,例如9月第1周
+     *
+     * @param dateTime 日期时间
+     * @return 中文名称
+     */
+    public static String weekChineseName(LocalDateTime dateTime) {
+        return WEEK_LABELS[dateTime.getMonthValue()][weekOfMonth(dateTime)];
+    }
+
+    /**
+     * 日期在当月的第几周(从当月第一个周一开始计算,第一个周一之前的日期属于第一周)
+     *
+     * @param dateTime 日期时间
+     * @return 周数(1~5)
+     */
+    public static int weekOfMonth(LocalDateTime dateTime) {
+        int dayOfMonth = dateTime.getDayOfMonth();
+        // 当月1号是周几(周一为0),由此得到第一个周一的号数
+        int dayOfWeekOfFirstDay = Math.floorMod(dateTime.getDayOfWeek().getValue() - dayOfMonth, 7);
+        int firstMonday = 1 + (7 - dayOfWeekOfFirstDay) % 7;
+        return WEEK_OF_MONTH_TABLE[firstMonday][dayOfMonth];
+    }
+
+    private static String[] labels(int from, int to, String suffix) {
+        String[] labels = new String[to - from + 1];
+        for (int i = from; i <= to; i++) {
+            labels[i - from] = i + suffix;
+        }
+        return labels;
+    }
+
+    /**
+     * 年份范围内的名称,整体替换以保证读取时范围与名称一致
+     */
+    private static final class YearTable {
+
+        private final int minYear;
+
+        private final String[] chineseNames;
+
+        private final String[] dateStrs;
+
+        private final String[] quarterDateStrs;
+
+        private YearTable(int minYear, int maxYear) {
+            this.minYear = minYear;
+            int size = maxYear - minYear + 1;
+            this.chineseNames = new String[size];
+            this.dateStrs = new String[size];
+            this.quarterDateStrs = new String[size * 4];
+            for (int i = 0; i < size; i++) {
+                String year = String.valueOf(minYear + i);
+                chineseNames[i] = year + "年";
+                dateStrs[i] = year;
+                for (int quarter = 1; quarter <= 4; quarter++) {
+                    quarterDateStrs[i * 4 + quarter - 1] = year + "-" + quarter;
+                }
+            }
+        }
+    }
+}
@@ -77,7 +77,7 @@ public enum DateTimeUnit {
     }
 
     /**
-     * 根据给定的日期时间获取对应的中文名称
+     * 根据给定的日期时间获取对应的中文名称,名称来自{@link DateTimeLabels}
      *
      * @param dateTime 传入的日期时间
      * @return 对应的中文名称
@@ -86,29 +86,30 @@ public enum DateTimeUnit {
         String chineseName = "";
         switch (this) {
             case YEAR:
-                chineseName = String.format(this.getChineseNameFormat(), dateTime.getYear());
+                chineseName = DateTimeLabels.yearChineseName(dateTime.getYear());
+                if (chineseName == null) {
+                    chineseName = dateTime.getYear() + "年";
+                }
                 break;
             case QUARTER:
                 Quarter quarter = LocalDateTimeUtils.queryQuarter(dateTime);
-                chineseName = String.format(this.getChineseNameFormat(), quarter.getValue());
+                chineseName = DateTimeLabels.quarterChineseName(quarter.getValue());
                 break;
             case MONTH:
-                chineseName = String.format(this.getChineseNameFormat(), dateTime.getMonth().getValue());
+                chineseName = DateTimeLabels.monthChineseName(dateTime.getMonthValue());
                 break;
             case WEEK:
             case WEEK_OF_MONTH:
-                LocalDateTime mondayOfFirstWeekOfMonth = LocalDateTimeUtils.mondayOfFirstWeekOfMonth(dateTime);
-                int weekNumber = (dateTime.getDayOfMonth() - mondayOfFirstWeekOfMonth.getDayOfMonth()) / 7 + 1;
-                chineseName = String.format(this.getChineseNameFormat(), dateTime.getMonth().getValue(), weekNumber);
+                chineseName = DateTimeLabels.weekChineseName(dateTime);
                 break;
             case DAY:
-                chineseName = String.format(this.getChineseNameFormat(), dateTime.getDayOfMonth());
+                chineseName = DateTimeLabels.dayChineseName(dateTime.getDayOfMonth());
                 break;
             case DAY_OF_WEEK:
                 chineseName = weekChineseNameMemo.get(dateTime.getDayOfWeek().getValue());
                 break;
             case HOUR:
-                chineseName = String.format(this.getChineseNameFormat(), dateTime.getHour());
+                chineseName = DateTimeLabels.hourChineseName(dateTime.getHour());
                 break;
             default:
                 break;
@@ -116,4 +117,20 @@ public enum DateTimeUnit {
         return chineseName;
     }
 
+    /**
+     * 根据给定的日期时间获取{@link #getDateFormat()}格式的日期字符串,年、季度的日期字符串来自{@link DateTimeLabels}
+     *
+     * @param dateTime 传入的日期时间
+     * @return 日期字符串
+     */
+    public String getDateStr(LocalDateTime dateTime) {
+        String dateStr = null;
+        if (this == YEAR) {
+            dateStr = DateTimeLabels.yearDateStr(dateTime.getYear());
+        } else if (this == QUARTER) {
+            dateStr = DateTimeLabels.quarterDateStr(dateTime.getYear(), LocalDateTimeUtils.queryQuarter(dateTime).getValue());
+        }
+        return dateStr == null ? LocalDateTimeUtils.format(dateTime, this.getDateFormat()) : dateStr;
+    }
+
 }
@@ -0,0 +1,230 @@
+package com.hopetool.core.datetime.support;
+
+import com.hopetool.core.lang.AssertUtils;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * 纪元毫秒时间段划分
+ * <p>
+ * 时间段按照指定时区的本地时间划分,以本地毫秒(本地日期时间按照UTC计算的纪元毫秒)区间表示;
+ * 定位纪元毫秒所属时间段时,先通过{@link ZoneOffsetTable}转换为本地毫秒,
+ * 时间段等长(小时、天、周)时直接计算下标,否则二分查找。
+ * 夏令时结束时重复的本地时间都属于同一个时间段,夏令时开始时跳过的本地时间所在时间段没有数据。不可变,线程安全
+ *
+ * @author JunPzx
+ * @since 2024/1/18 9:30
+ */
+public final class EpochMillisDivision {
+
+    /**
+     * 偏移转换表在时间段范围两端预留的毫秒数(覆盖所有时区偏移)
+     */
+    private static final long OFFSET_TABLE_MARGIN_MILLIS = 2 * 86400_000L;
+
+    private final ZoneId zoneId;
+
+    private final List<LocalDateTimeDivisionDomain<LocalDateTime>> timeFrames;
+
+    /**
+     * 时间段开始本地毫秒
+     */
+    private final long[] localBegins;
+
+    /**
+     * 时间段结束本地毫秒(包含)
+     */
+    private final long[] localEnds;
+
+    /**
+     * 时间段是否按开始时间排序且互不重叠
+     */
+    private final boolean disjoint;
+
+    /**
+     * 等长时间段的开始时间间隔毫秒,不等长时为0
+     */
+    private final long step;
+
+    private final ZoneOffsetTable offsetTable;
+
+    private EpochMillisDivision(ZoneId zoneId, List<LocalDateTimeDivisionDomain<LocalDateTime>> timeFrames) {
+        this.zoneId = zoneId;
+        this.timeFrames = Collections.unmodifiableList(timeFrames);
+        int size = timeFrames.size();
+        this.localBegins = new long[size];
+        this.localEnds = new long[size];
+        for (int i = 0; i < size; i++) {
+            localBegins[i] = toLocalMillis(timeFrames.get(i).getBeginTime());
+            localEnds[i] = toLocalMillis(timeFrames.get(i).getEndTime());
+        }
+        boolean sorted = true;
+        for (int i = 1; i < size; i++) {
+            sorted &= localEnds[i - 1] < localBegins[i];
+        }
+        this.disjoint = sorted;
+        this.step = disjoint ? step(localBegins) : 0;
+        long from = size == 0 ? 0 : localBegins[0];
+        long to = size == 0 ? 0 : localEnds[size - 1];
+        for (int i = 0; i < size; i++) {
+            from = Math.min(from, localBegins[i]);
+            to = Math.max(to, localEnds[i]);
+        }
+        this.offsetTable = ZoneOffsetTable.of(zoneId, from - OFFSET_TABLE_MARGIN_MILLIS, to + OFFSET_TABLE_MARGIN_MILLIS);
+    }
+
+    /**
+     * 根据时间段构建纪元毫秒时间段划分
+     *
+     * @param timeFrames 时间段(本地时间)
+     * @param zoneId     时区
+     * @return 纪元毫秒时间段划分
+     */
+    public static EpochMillisDivision of(List<LocalDateTimeDivisionDomain<LocalDateTime>> timeFrames, ZoneId zoneId) {
+        AssertUtils.notNull(timeFrames, "时间段不能为空");
+        AssertUtils.notNull(zoneId, "时区不能为空");
+        return new EpochMillisDivision(zoneId, timeFrames);
+    }
+
+    /**
+     * 定位纪元毫秒所属时间段(时间段互不重叠时使用)
+     *
+     * @param epochMillis 纪元毫秒
+     * @return 时间段下标,不属于任何时间段时返回-1
+     */
+    public int indexOf(long epochMillis) {
+        return indexOfLocal(offsetTable.toLocalMillis(epochMillis));
+    }
+
+    /**
+     * 遍历纪元毫秒所属的所有时间段(时间段可能重叠)
+     *
+     * @param epochMillis 纪元毫秒
+     * @param consumer    时间段下标消费者
+     */
+    public void forEachIndex(long epochMillis, IntConsumer consumer) {
+        long localMillis = offsetTable.toLocalMillis(epochMillis);
+        if (disjoint) {
+            int index = indexOfLocal(localMillis);
+            if (index >= 0) {
+                consumer.accept(index);
+            }
+            return;
+        }
+        for (int i = 0; i < localBegins.length; i++) {
+            if (localMillis >= localBegins[i] && localMillis <= localEnds[i]) {
+                consumer.accept(i);
+            }
+        }
+    }
+
+    /**
+     * 时间段开始的纪元毫秒(开始时间被夏令时跳过时为跳过之后的第一个时刻)
+     *
+     * @param index 时间段下标
+     * @return 纪元毫秒
+     */
+    public long getBeginEpochMillis(int index) {
+        return timeFrames.get(index).getBeginTime().atZone(zoneId).toInstant().toEpochMilli();
+    }
+
+    /**
+     * 时间段结束的纪元毫秒(包含,结束时间重复时为较晚的时刻)
+     *
+     * @param index 时间段下标
+     * @return 纪元毫秒
+     */
+    public long getEndEpochMillis(int index) {
+        return timeFrames.get(index).getEndTime().atZone(zoneId).withLaterOffsetAtOverlap().toInstant().toEpochMilli();
+    }
+
+    /**
+     * 时间段数量
+     *
+     * @return 时间段数量
+     */
+    public int size() {
+        return localBegins.length;
+    }
+
+    public ZoneId getZoneId() {
+        return zoneId;
+    }
+
+    /**
+     * 时间段(本地时间,不可修改)
+     *
+     * @return 时间段
+     */
+    public List<LocalDateTimeDivisionDomain<LocalDateTime>> getTimeFrames() {
+        return timeFrames;
+    }
+
+    /**
+     * 时间段是否按开始时间排序且互不重叠
+     *
+     * @return 是否互不重叠
+     */
+    public boolean isDisjoint() {
+        return disjoint;
+    }
+
+    /**
+     * 本地日期时间转换为本地毫秒
+     *
+     * @param dateTime 本地日期时间
+     * @return 本地毫秒
+     */
+    public static long toLocalMillis(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1000 + dateTime.getNano() / 1_000_000;
+    }
+
+    /**
+     * 在互不重叠的本地毫秒区间中定位所属时间段
+     */
+    private int indexOfLocal(long localMillis) {
+        int index;
+        if (step > 0) {
+            long offset = localMillis - localBegins[0];
+            if (offset < 0) {
+                return -1;
+            }
+            long quotient = offset / step;
+            index = quotient >= localBegins.length ? localBegins.length - 1 : (int) quotient;
+        } else {
+            int low = 0;
+            int high = localBegins.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (localBegins[mid] > localMillis) {
+                    high = mid - 1;
+                } else {
+                    low = mid + 1;
+                }
+            }
+            index = high;
+        }
+        return index >= 0 && localMillis <= localEnds[index] ? index : -1;
+    }
+
+    /**
+     * 开始时间等间隔时返回间隔毫秒,否则返回0
+     */
+    private static long step(long[] localBegins) {
+        if (localBegins.length < 2) {
+            return 0;
+        }
+        long step = localBegins[1] - localBegins[0];
+        for (int i = 2; i < localBegins.length; i++) {
+            if (localBegins[i] - localBegins[i - 1] != step) {
+                return 0;
+            }
+        }
+        return step;
+    }
+}
@@ -0,0 +1,373 @@
+package com.hopetool.core.datetime.support;
+
+import com.hopetool.core.lang.AssertUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Year;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 定长数字日期格式
+ * <p>
+ * {@link DatePattern}中只由数字字段(yyyy、MM、dd、HH、mm、ss、SSS)和分隔符组成的日期格式,
+ * 格式化时直接将数字写入调用方提供的char[]、byte[]、StringBuilder,解析时直接读取CharSequence中的字符,
+ * 不创建中间对象;结果与{@link java.time.format.DateTimeFormatter#ofPattern(String)}一致。
+ * <p>
+ * 年份超出1~9999时不支持格式化({@link #isSupported(LocalDateTime)}),解析时字段值不合法返回null,
+ * 由调用方回退到{@link java.time.format.DateTimeFormatter}
+ *
+ * @author JunPzx
+ * @since 2024/1/22 14:00
+ */
+public enum FixedDatePattern {
+    /**
+     * yyyy
+     */
+    NORM_YEAR(DatePattern.NORM_YEAR_PATTERN),
+    /**
+     * yyyy-MM
+     */
+    NORM_MONTH(DatePattern.NORM_MONTH_PATTERN),
+    /**
+     * yyyyMM
+     */
+    SIMPLE_MONTH(DatePattern.SIMPLE_MONTH_PATTERN),
+    /**
+     * yyyy-MM-dd
+     */
+    NORM_DATE(DatePattern.NORM_DATE_PATTERN),
+    /**
+     * yyyy-MM-dd HH(按小时划分时间段的日期格式)
+     */
+    NORM_DATETIME_HOUR("yyyy-MM-dd HH"),
+    /**
+     * HH:mm:ss
+     */
+    NORM_TIME(DatePattern.NORM_TIME_PATTERN),
+    /**
+     * yyyy-MM-dd HH:mm
+     */
+    NORM_DATETIME_MINUTE(DatePattern.NORM_DATETIME_MINUTE_PATTERN),
+    /**
+     * yyyy-MM-dd HH:mm:ss
+     */
+    NORM_DATETIME(DatePattern.NORM_DATETIME_PATTERN),
+    /**
+     * yyyy-MM-dd HH:mm:ss.SSS
+     */
+    NORM_DATETIME_MS(DatePattern.NORM_DATETIME_MS_PATTERN),
+    /**
+     * yyyyMMdd
+     */
+    PURE_DATE(DatePattern.PURE_DATE_PATTERN),
+    /**
+     * HHmmss
+     */
+    PURE_TIME(DatePattern.PURE_TIME_PATTERN),
+    /**
+     * yyyyMMddHHmmss
+     */
+    PURE_DATETIME(DatePattern.PURE_DATETIME_PATTERN),
+    /**
+     * yyyyMMddHHmmssSSS
+     */
+    PURE_DATETIME_MS(DatePattern.PURE_DATETIME_MS_PATTERN);
+
+    private static final int LITERAL = -1;
+
+    private static final int YEAR = 0;
+
+    private static final int MONTH = 1;
+
+    private static final int DAY = 2;
+
+    private static final int HOUR = 3;
+
+    private static final int MINUTE = 4;
+
+    private static final int SECOND = 5;
+
+    private static final int MILLI = 6;
+
+    private static final Map<String, FixedDatePattern> PATTERN_MEMO = new HashMap<>();
+
+    static {
+        for (FixedDatePattern value : values()) {
+            PATTERN_MEMO.put(value.pattern, value);
+        }
+    }
+
+    private final String pattern;
+
+    /**
+     * 每个位置的字段,分隔符为{@link #LITERAL}
+     */
+    private final int[] fields;
+
+    /**
+     * 每个位置的数字在字段值中的位权(1、10、100、1000)
+     */
+    private final int[] places;
+
+    private final boolean hasYear;
+
+    private final boolean hasMonth;
+
+    private final boolean hasDay;
+
+    FixedDatePattern(String pattern) {
+        this.pattern = pattern;
+        int length = pattern.length();
+        this.fields = new int[length];
+        this.places = new int[length];
+        boolean year = false;
+        boolean month = false;
+        boolean day = false;
+        int i = 0;
+        while (i < length) {
+            char c = pattern.charAt(i);
+            int field = field(c);
+            if (field == LITERAL) {
+                fields[i] = LITERAL;
+                i++;
+                continue;
+            }
+            year |= field == YEAR;
+            month |= field == MONTH;
+            day |= field == DAY;
+            int end = i;
+            while (end < length && pattern.charAt(end) == c) {
+                end++;
+            }
+            for (int place = 1, j = end - 1; j >= i; j--, place *= 10) {
+                fields[j] = field;
+                places[j] = place;
+            }
+            i = end;
+        }
+        this.hasYear = year;
+        this.hasMonth = month;
+        this.hasDay = day;
+    }
+
+    /**
+     * 根据日期格式获取定长数字日期格式
+     *
+     * @param pattern 日期格式
+     * @return 定长数字日期格式,不是定长数字日期格式时返回null
+     */
+    public static FixedDatePattern of(String pattern) {
+        return pattern == null ? null : PATTERN_MEMO.get(pattern);
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    /**
+     * 格式化后的字符数
+     *
+     * @return 字符数
+     */
+    public int length() {
+        return fields.length;
+    }
+
+    /**
+     * 是否支持格式化该时间(年份需要在1~9999之间)
+     *
+     * @param time 时间
+     * @return 是否支持
+     */
+    public boolean isSupported(LocalDateTime time) {
+        return !hasYear || (time.getYear() >= 1 && time.getYear() <= 9999);
+    }
+
+    /**
+     * 格式化时间
+     *
+     * @param time 时间
+     * @return 格式化后的字符串
+     */
+    public String format(LocalDateTime time) {
+        char[] chars = new char[fields.length];
+        format(time, chars, 0);
+        return new String(chars);
+    }
+
+    /**
+     * 格式化时间到字符数组
+     *
+     * @param time   时间
+     * @param chars  字符数组
+     * @param offset 开始位置
+     * @return 结束位置(不包含)
+     */
+    public int format(LocalDateTime time, char[] chars, int offset) {
+        checkSupported(time);
+        for (int i = 0; i < fields.length; i++) {
+            chars[offset + i] = charAt(time, i);
+        }
+        return offset + fields.length;
+    }
+
+    /**
+     * 格式化时间到字节数组(ASCII)
+     *
+     * @param time   时间
+     * @param bytes  字节数组
+     * @param offset 开始位置
+     * @return 结束位置(不包含)
+     */
+    public int format(LocalDateTime time, byte[] bytes, int offset) {
+        checkSupported(time);
+        for (int i = 0; i < fields.length; i++) {
+            bytes[offset + i] = (byte) charAt(time, i);
+        }
+        return offset + fields.length;
+    }
+
+    /**
+     * 格式化时间并追加到StringBuilder
+     *
+     * @param time    时间
+     * @param builder StringBuilder
+     * @return StringBuilder
+     */
+    public StringBuilder format(LocalDateTime time, StringBuilder builder) {
+        checkSupported(time);
+        for (int i = 0; i < fields.length; i++) {
+            builder.append(charAt(time, i));
+        }
+        return builder;
+    }
+
+    /**
+     * 解析字符串中从offset开始的{@link #length()}个字符,缺少的日期字段取最小值({@link LocalDate#MIN}),缺少的时间字段取0
+     *
+     * @param text   字符串
+     * @param offset 开始位置
+     * @return 时间,字符不匹配或字段值不合法时返回null
+     */
+    public LocalDateTime parse(CharSequence text, int offset) {
+        if (text == null || offset < 0 || text.length() - offset < fields.length) {
+            return null;
+        }
+        int year = 0;
+        int month = 0;
+        int day = 0;
+        int hour = 0;
+        int minute = 0;
+        int second = 0;
+        int milli = 0;
+        for (int i = 0; i < fields.length; i++) {
+            char c = text.charAt(offset + i);
+            int field = fields[i];
+            if (field == LITERAL) {
+                if (c != pattern.charAt(i)) {
+                    return null;
+                }
+                continue;
+            }
+            if (c < '0' || c > '9') {
+                return null;
+            }
+            int digit = (c - '0') * places[i];
+            switch (field) {
+                case YEAR:
+                    year += digit;
+                    break;
+                case MONTH:
+                    month += digit;
+                    break;
+                case DAY:
+                    day += digit;
+                    break;
+                case HOUR:
+                    hour += digit;
+                    break;
+                case MINUTE:
+                    minute += digit;
+                    break;
+                case SECOND:
+                    second += digit;
+                    break;
+                default:
+                    milli += digit;
+                    break;
+            }
+        }
+        if (!hasYear) {
+            year = LocalDate.MIN.getYear();
+        } else if (year < 1) {
+            return null;
+        }
+        month = hasMonth ? month : 1;
+        day = hasDay ? day : 1;
+        if (month < 1 || month > 12 || day < 1 || day > java.time.Month.of(month).length(hasYear && Year.isLeap(year))
+                || hour > 23 || minute > 59 || second > 59) {
+            return null;
+        }
+        return LocalDateTime.of(year, month, day, hour, minute, second, milli * 1_000_000);
+    }
+
+    private void checkSupported(LocalDateTime time) {
+        AssertUtils.notNull(time, "时间不能为空");
+        AssertUtils.isTrue(isSupported(time), "年份超出定长日期格式范围: {}", time.getYear());
+    }
+
+    private char charAt(LocalDateTime time, int index) {
+        int field = fields[index];
+        if (field == LITERAL) {
+            return pattern.charAt(index);
+        }
+        int value;
+        switch (field) {
+            case YEAR:
+                value = time.getYear();
+                break;
+            case MONTH:
+                value = time.getMonthValue();
+                break;
+            case DAY:
+                value = time.getDayOfMonth();
+                break;
+            case HOUR:
+                value = time.getHour();
+                break;
+            case MINUTE:
+                value = time.getMinute();
+                break;
+            case SECOND:
+                value = time.getSecond();
+                break;
+            default:
+                value = time.getNano() / 1_000_000;
+                break;
+        }
+        return (char) ('0' + value / places[index] % 10);
+    }
+
+    private static int field(char c) {
+        switch (c) {
+            case 'y':
+                return YEAR;
+            case 'M':
+                return MONTH;
+            case 'd':
+                return DAY;
+            case 'H':
+                return HOUR;
+            case 'm':
+                return MINUTE;
+            case 's':
+                return SECOND;
+            case 'S':
+                return MILLI;
+            default:
+                return LITERAL;
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.hopetool.core.datetime.support;
+
+import com.hopetool.core.datetime.LocalDateTimeDivisionUtils;
+import com.hopetool.core.lang.AssertUtils;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 时间分段结果缓存
+ * <p>
+ * 按照开始时间、结束时间、时间单位、是否忽略毫秒数缓存{@link LocalDateTimeDivisionUtils#division}的结果,
+ * 缓存的结果数量或时间段总数超出容量时淘汰最久未使用的结果,时间段数量超过总容量的结果不缓存。
+ * 缓存的结果以及其中的时间段都是只读的(修改时抛出{@link UnsupportedOperationException}),
+ * 可以在线程之间共享。线程安全
+ *
+ * @author JunPzx
+ * @since 2024/1/23 14:00
+ */
+public final class LocalDateTimeDivisionCache {
+
+    private final int maxSize;
+
+    private final long maxFrames;
+
+    private final Map<Key, List<LocalDateTimeDivisionDomain<LocalDateTime>>> cache = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * 已缓存的时间段总数(在cache锁内修改)
+     */
+    private long frameCount;
+
+    private final LongAdder hitCount = new LongAdder();
+
+    private final LongAdder missCount = new LongAdder();
+
+    private final LongAdder evictionCount = new LongAdder();
+
+    /**
+     * @param maxSize 最多缓存的分段结果数量
+     */
+    public LocalDateTimeDivisionCache(int maxSize) {
+        this(maxSize, Long.MAX_VALUE);
+    }
+
+    /**
+     * @param maxSize   最多缓存的分段结果数量
+     * @param maxFrames 最多缓存的时间段总数
+     */
+    public LocalDateTimeDivisionCache(int maxSize, long maxFrames) {
+        AssertUtils.isTrue(maxSize > 0, "缓存容量需要大于0");
+        AssertUtils.isTrue(maxFrames > 0, "时间段容量需要大于0");
+        this.maxSize = maxSize;
+        this.maxFrames = maxFrames;
+    }
+
+    /**
+     * 获取分段结果,未缓存时分段并缓存
+     *
+     * @param beginDateTime        开始时间
+     * @param endDateTime          结束时间
+     * @param dateTimeUnit         时间单位
+     * @param ignoringMilliseconds 是否忽略毫秒数
+     * @return 只读的分段结果
+     */
+    public List<LocalDateTimeDivisionDomain<LocalDateTime>> get(LocalDateTime beginDateTime,
+                                                               LocalDateTime endDateTime,
+                                                               DateTimeUnit dateTimeUnit,
+                                                               boolean ignoringMilliseconds) {
+        AssertUtils.notNull(beginDateTime, "开始时间不能为空");
+        AssertUtils.notNull(endDateTime, "结束时间不能为空");
+        AssertUtils.notNull(dateTimeUnit, "时间单位不能为空");
+        Key key = new Key(beginDateTime, endDateTime, dateTimeUnit, ignoringMilliseconds);
+        List<LocalDateTimeDivisionDomain<LocalDateTime>> result;
+        synchronized (cache) {
+            result = cache.get(key);
+        }
+        if (result != null) {
+            hitCount.increment();
+            return result;
+        }
+        missCount.increment();
+        // 在锁外分段,并发未命中时可能重复计算,结果相同
+        List<LocalDateTimeDivisionDomain<LocalDateTime>> divisions = LocalDateTimeDivisionUtils.division(beginDateTime, endDateTime, dateTimeUnit, ignoringMilliseconds);
+        List<LocalDateTimeDivisionDomain<LocalDateTime>> readOnly = new ArrayList<>(divisions.size());
+        divisions.forEach(division -> readOnly.add(new ReadOnlyDivisionDomain(division)));
+        result = Collections.unmodifiableList(readOnly);
+        // 单个结果超过时间段总容量时不缓存,避免淘汰全部已缓存的结果
+        if (result.size() > maxFrames) {
+            return result;
+        }
+        synchronized (cache) {
+            List<LocalDateTimeDivisionDomain<LocalDateTime>> existing = cache.putIfAbsent(key, result);
+            if (existing != null) {
+                return existing;
+            }
+            frameCount += result.size();
+            evict();
+            return result;
+        }
+    }
+
+    /**
+     * 淘汰最久未使用的结果,直到结果数量和时间段总数都不超过容量(调用方持有cache锁)
+     */
+    private void evict() {
+        Iterator<List<LocalDateTimeDivisionDomain<LocalDateTime>>> iterator = cache.values().iterator();
+        while ((cache.size() > maxSize || frameCount > maxFrames) && iterator.hasNext()) {
+            frameCount -= iterator.next().size();
+            iterator.remove();
+            evictionCount.increment();
+        }
+    }
+
+    /**
+     * 命中次数
+     *
+     * @return 命中次数
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * 未命中次数
+     *
+     * @return 未命中次数
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * 淘汰次数
+     *
+     * @return 淘汰次数
+     */
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    /**
+     * 已缓存的分段结果数量
+     *
+     * @return 数量
+     */
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    /**
+     * 已缓存的时间段总数
+     *
+     * @return 时间段总数
+     */
+    public long frameCount() {
+        synchronized (cache) {
+            return frameCount;
+        }
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getMaxFrames() {
+        return maxFrames;
+    }
+
+    /**
+     * 清空缓存(不重置计数)
+     */
+    public void clear() {
+        synchronized (cache) {
+            cache.clear();
+            frameCount = 0;
+        }
+    }
+
+    /**
+     * 缓存键
+     */
+    @EqualsAndHashCode
+    @AllArgsConstructor
+    private static final class Key {
+
+        private final LocalDateTime beginDateTime;
+
+        private final LocalDateTime endDateTime;
+
+        private final DateTimeUnit dateTimeUnit;
+
+        private final boolean ignoringMilliseconds;
+    }
+
+    /**
+     * 只读的时间段
+     */
+    private static final class ReadOnlyDivisionDomain extends LocalDateTimeDivisionDomain<LocalDateTime> {
+
+        private ReadOnlyDivisionDomain(LocalDateTimeDivisionDomain<LocalDateTime> division) {
+            super(division.getBeginTime(), division.getEndTime(), division.getChinese(), division.getDateStr());
+        }
+
+        @Override
+        public LocalDateTimeDivisionDomain<LocalDateTime> setBeginTime(LocalDateTime beginTime) {
+            throw new UnsupportedOperationException("缓存的时间段不能修改");
+        }
+
+        @Override
+        public LocalDateTimeDivisionDomain<LocalDateTime> setEndTime(LocalDateTime endTime) {
+            throw new UnsupportedOperationException("缓存的时间段不能修改");
+        }
+
+        @Override
+        public LocalDateTimeDivisionDomain<LocalDateTime> setChinese(String chinese) {
+            throw new UnsupportedOperationException("缓存的时间段不能修改");
+        }
+
+        @Override
+        public LocalDateTimeDivisionDomain<LocalDateTime> setDateStr(String dateStr) {
+            throw new UnsupportedOperationException("缓存的时间段不能修改");
+        }
+    }
+}
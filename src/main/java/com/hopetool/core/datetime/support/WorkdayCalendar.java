@@ -0,0 +1,284 @@
+package com.hopetool.core.datetime.support;
+
+import com.hopetool.core.datetime.LocalDateTimeDivisionUtils;
+import com.hopetool.core.lang.AssertUtils;
+import com.hopetool.core.map.support.SafeConcurrentHashMap;
+import lombok.SneakyThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Year;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+/**
+ * 工作日日历
+ * <p>
+ * 默认周一至周五为工作日,可以设置法定节假日(休息)和调休(周末上班)。每年一个位图(按照一年中的第几天存放是否为工作日),
+ * 并预先计算每64天之前的工作日数量:
+ * <li>{@link #isWorkday(LocalDate)}为一次位运算</li>
+ * <li>{@link #workdaysBetween(LocalDate, LocalDate)}为前缀计数加一次popcount(跨年时每年累加一次)</li>
+ * <li>{@link #nthWorkdayAfter(LocalDate, int)}按照前缀计数定位到64天的区间,再在区间内逐个清除最低位</li>
+ * 没有设置的年份按照周一至周五计算并缓存。不可变,线程安全
+ * <p>
+ * 日历文件每行为一个日期或日期范围以及类型,#开头的行为注释,例如:
+ * <pre>
+ * # 2024年春节
+ * 2024-02-04 workday
+ * 2024-02-10~2024-02-17 holiday
+ * </pre>
+ * 类型为holiday(或休)、workday(或班)
+ *
+ * @author JunPzx
+ * @since 2024/1/25 10:00
+ */
+public final class WorkdayCalendar {
+
+    private static final int WORDS_PER_YEAR = 6;
+
+    /**
+     * 设置的日期,值为是否为工作日
+     */
+    private final Map<LocalDate, Boolean> overrides;
+
+    private final ConcurrentMap<Integer, YearBitmap> years = new SafeConcurrentHashMap<>();
+
+    private WorkdayCalendar(Map<LocalDate, Boolean> overrides) {
+        this.overrides = Collections.unmodifiableMap(new TreeMap<>(overrides));
+        this.overrides.keySet().stream().map(LocalDate::getYear).distinct().forEach(this::yearBitmap);
+    }
+
+    /**
+     * 只有周末休息的日历
+     *
+     * @return 工作日日历
+     */
+    public static WorkdayCalendar weekend() {
+        return new WorkdayCalendar(Collections.emptyMap());
+    }
+
+    /**
+     * 根据设置的日期创建日历
+     *
+     * @param overrides 设置的日期,值为是否为工作日(true为调休上班,false为节假日)
+     * @return 工作日日历
+     */
+    public static WorkdayCalendar of(Map<LocalDate, Boolean> overrides) {
+        AssertUtils.notNull(overrides, "日历设置不能为空");
+        return new WorkdayCalendar(overrides);
+    }
+
+    /**
+     * 从本地日历文件(UTF-8)加载日历
+     *
+     * @param file 日历文件
+     * @return 工作日日历
+     */
+    @SneakyThrows
+    public static WorkdayCalendar load(Path file) {
+        AssertUtils.notNull(file, "日历文件不能为空");
+        return parse(Files.readAllLines(file, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析日历文件内容
+     *
+     * @param lines 日历文件的每一行
+     * @return 工作日日历
+     */
+    public static WorkdayCalendar parse(List<String> lines) {
+        AssertUtils.notNull(lines, "日历内容不能为空");
+        Map<LocalDate, Boolean> overrides = new TreeMap<>();
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i) == null ? "" : lines.get(i).trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] parts = line.split("\\s+");
+            AssertUtils.isTrue(parts.length == 2, "日历第{}行格式不正确: {}", i + 1, line);
+            Boolean workday = parseType(parts[1]);
+            AssertUtils.notNull(workday, "日历第{}行类型不正确: {}", i + 1, line);
+            String[] range = parts[0].split("~");
+            AssertUtils.isTrue(range.length <= 2, "日历第{}行日期范围不正确: {}", i + 1, line);
+            LocalDate begin = LocalDate.parse(range[0]);
+            LocalDate end = range.length == 2 ? LocalDate.parse(range[1]) : begin;
+            AssertUtils.isFalse(end.isBefore(begin), "日历第{}行日期范围不正确: {}", i + 1, line);
+            for (LocalDate date = begin; !date.isAfter(end); date = date.plusDays(1)) {
+                overrides.put(date, workday);
+            }
+        }
+        return new WorkdayCalendar(overrides);
+    }
+
+    /**
+     * 是否为工作日
+     *
+     * @param date 日期
+     * @return 是否为工作日
+     */
+    public boolean isWorkday(LocalDate date) {
+        AssertUtils.notNull(date, "日期不能为空");
+        int index = date.getDayOfYear() - 1;
+        return (yearBitmap(date.getYear()).words[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * 两个日期之间(包含两个日期)的工作日数量
+     *
+     * @param begin 开始日期
+     * @param end   结束日期
+     * @return 工作日数量
+     */
+    public int workdaysBetween(LocalDate begin, LocalDate end) {
+        AssertUtils.notNull(begin, "开始日期不能为空");
+        AssertUtils.notNull(end, "结束日期不能为空");
+        AssertUtils.isFalse(end.isBefore(begin), "开始日期不能晚于结束日期");
+        int count = 0;
+        for (int year = begin.getYear(); year < end.getYear(); year++) {
+            count += yearBitmap(year).total();
+        }
+        return count + yearBitmap(end.getYear()).countThrough(end.getDayOfYear())
+                - yearBitmap(begin.getYear()).countThrough(begin.getDayOfYear() - 1);
+    }
+
+    /**
+     * 日期之后的第n个工作日(不包含该日期)
+     *
+     * @param date 日期
+     * @param n    第几个工作日(从1开始)
+     * @return 工作日
+     */
+    public LocalDate nthWorkdayAfter(LocalDate date, int n) {
+        AssertUtils.notNull(date, "日期不能为空");
+        AssertUtils.isTrue(n > 0, "工作日数量需要大于0");
+        int year = date.getYear();
+        long rank = (long) yearBitmap(year).countThrough(date.getDayOfYear()) + n;
+        YearBitmap bitmap = yearBitmap(year);
+        while (rank > bitmap.total()) {
+            rank -= bitmap.total();
+            AssertUtils.isTrue(year < Year.MAX_VALUE, "超出日期范围");
+            bitmap = yearBitmap(++year);
+        }
+        return LocalDate.ofYearDay(year, bitmap.select((int) rank));
+    }
+
+    /**
+     * 按天划分时间段并只保留工作日,时间段与{@link LocalDateTimeDivisionUtils#division}按照{@link DateTimeUnit#DAY}划分一致
+     *
+     * @param beginDateTime 开始时间
+     * @param endDateTime   结束时间
+     * @return 工作日的时间段
+     */
+    public List<LocalDateTimeDivisionDomain<LocalDateTime>> division(LocalDateTime beginDateTime, LocalDateTime endDateTime) {
+        return LocalDateTimeDivisionUtils.division(beginDateTime, endDateTime, DateTimeUnit.DAY).stream()
+                .filter(timeFrame -> isWorkday(timeFrame.getBeginTime().toLocalDate()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 设置的日期
+     *
+     * @return 只读的设置,值为是否为工作日
+     */
+    public Map<LocalDate, Boolean> getOverrides() {
+        return overrides;
+    }
+
+    private YearBitmap yearBitmap(int year) {
+        return years.computeIfAbsent(year, this::buildYearBitmap);
+    }
+
+    private YearBitmap buildYearBitmap(int year) {
+        long[] words = new long[WORDS_PER_YEAR];
+        LocalDate first = LocalDate.ofYearDay(year, 1);
+        int length = first.lengthOfYear();
+        // 周一为0
+        int dayOfWeek = first.getDayOfWeek().getValue() - 1;
+        for (int index = 0; index < length; index++) {
+            if ((dayOfWeek + index) % 7 < 5) {
+                words[index >>> 6] |= 1L << index;
+            }
+        }
+        overrides.forEach((date, workday) -> {
+            if (date.getYear() == year) {
+                int index = date.getDayOfYear() - 1;
+                if (workday) {
+                    words[index >>> 6] |= 1L << index;
+                } else {
+                    words[index >>> 6] &= ~(1L << index);
+                }
+            }
+        });
+        return new YearBitmap(words);
+    }
+
+    private static Boolean parseType(String type) {
+        if ("holiday".equalsIgnoreCase(type) || "休".equals(type)) {
+            return false;
+        }
+        if ("workday".equalsIgnoreCase(type) || "班".equals(type)) {
+            return true;
+        }
+        return null;
+    }
+
+    /**
+     * 一年的工作日位图,第index位(一年中的第index + 1天)为1表示工作日
+     */
+    private static final class YearBitmap {
+
+        private final long[] words;
+
+        /**
+         * 每个long之前的工作日数量,最后一个元素为全年的工作日数量
+         */
+        private final int[] prefix;
+
+        private YearBitmap(long[] words) {
+            this.words = words;
+            this.prefix = new int[words.length + 1];
+            for (int i = 0; i < words.length; i++) {
+                prefix[i + 1] = prefix[i] + Long.bitCount(words[i]);
+            }
+        }
+
+        private int total() {
+            return prefix[words.length];
+        }
+
+        /**
+         * 一年中前dayOfYear天的工作日数量
+         */
+        private int countThrough(int dayOfYear) {
+            if (dayOfYear <= 0) {
+                return 0;
+            }
+            int word = (dayOfYear - 1) >>> 6;
+            int bits = dayOfYear - (word << 6);
+            long mask = bits == 64 ? -1L : (1L << bits) - 1;
+            return prefix[word] + Long.bitCount(words[word] & mask);
+        }
+
+        /**
+         * 第rank个工作日是一年中的第几天
+         */
+        private int select(int rank) {
+            int word = 0;
+            while (prefix[word + 1] < rank) {
+                word++;
+            }
+            long bits = words[word];
+            for (int skip = rank - prefix[word] - 1; skip > 0; skip--) {
+                bits &= bits - 1;
+            }
+            return (word << 6) + Long.numberOfTrailingZeros(bits) + 1;
+        }
+    }
+}
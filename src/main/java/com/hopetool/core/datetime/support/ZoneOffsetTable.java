@@ -0,0 +1,126 @@
+package com.hopetool.core.datetime.support;
+
+import com.hopetool.core.lang.AssertUtils;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 时区偏移转换表
+ * <p>
+ * 预先计算时区在纪元毫秒范围内的所有偏移转换(夏令时切换等),范围内查询偏移只需要在转换表中二分查找,
+ * 固定偏移的时区直接返回偏移;范围外的查询回退到{@link ZoneRules}。不可变,线程安全
+ *
+ * @author JunPzx
+ * @since 2024/1/18 9:00
+ */
+public final class ZoneOffsetTable {
+
+    private final ZoneRules zoneRules;
+
+    private final long fromEpochMillis;
+
+    private final long toEpochMillis;
+
+    /**
+     * 偏移转换的纪元毫秒(第一个元素为范围开始),从该时间起使用对应的偏移
+     */
+    private final long[] transitionEpochMillis;
+
+    /**
+     * 偏移秒数
+     */
+    private final int[] offsetSeconds;
+
+    private ZoneOffsetTable(ZoneRules zoneRules, long fromEpochMillis, long toEpochMillis, long[] transitionEpochMillis, int[] offsetSeconds) {
+        this.zoneRules = zoneRules;
+        this.fromEpochMillis = fromEpochMillis;
+        this.toEpochMillis = toEpochMillis;
+        this.transitionEpochMillis = transitionEpochMillis;
+        this.offsetSeconds = offsetSeconds;
+    }
+
+    /**
+     * 计算时区在纪元毫秒范围内的偏移转换表
+     *
+     * @param zoneId          时区
+     * @param fromEpochMillis 开始纪元毫秒(包含)
+     * @param toEpochMillis   结束纪元毫秒(包含)
+     * @return 时区偏移转换表
+     */
+    public static ZoneOffsetTable of(ZoneId zoneId, long fromEpochMillis, long toEpochMillis) {
+        AssertUtils.notNull(zoneId, "时区不能为空");
+        AssertUtils.isTrue(fromEpochMillis <= toEpochMillis, "开始时间不能晚于结束时间");
+        ZoneRules zoneRules = zoneId.getRules();
+        List<Long> transitions = new ArrayList<>();
+        List<Integer> offsets = new ArrayList<>();
+        Instant from = Instant.ofEpochMilli(fromEpochMillis);
+        transitions.add(fromEpochMillis);
+        offsets.add(zoneRules.getOffset(from).getTotalSeconds());
+        if (!zoneRules.isFixedOffset()) {
+            ZoneOffsetTransition transition = zoneRules.nextTransition(from);
+            while (transition != null && transition.getInstant().toEpochMilli() <= toEpochMillis) {
+                transitions.add(transition.getInstant().toEpochMilli());
+                offsets.add(transition.getOffsetAfter().getTotalSeconds());
+                transition = zoneRules.nextTransition(transition.getInstant());
+            }
+        }
+        long[] transitionEpochMillis = new long[transitions.size()];
+        int[] offsetSeconds = new int[offsets.size()];
+        for (int i = 0; i < transitionEpochMillis.length; i++) {
+            transitionEpochMillis[i] = transitions.get(i);
+            offsetSeconds[i] = offsets.get(i);
+        }
+        return new ZoneOffsetTable(zoneRules, fromEpochMillis, toEpochMillis, transitionEpochMillis, offsetSeconds);
+    }
+
+    /**
+     * 纪元毫秒对应的时区偏移
+     *
+     * @param epochMillis 纪元毫秒
+     * @return 偏移秒数
+     */
+    public int getOffsetSeconds(long epochMillis) {
+        if (offsetSeconds.length == 1 && zoneRules.isFixedOffset()) {
+            return offsetSeconds[0];
+        }
+        if (epochMillis < fromEpochMillis || epochMillis > toEpochMillis) {
+            return zoneRules.getOffset(Instant.ofEpochMilli(epochMillis)).getTotalSeconds();
+        }
+        // 查找最后一个不晚于该时间的转换
+        int low = 0;
+        int high = transitionEpochMillis.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (transitionEpochMillis[mid] > epochMillis) {
+                high = mid - 1;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return offsetSeconds[high];
+    }
+
+    /**
+     * 纪元毫秒转换为本地毫秒(本地日期时间按照UTC计算的纪元毫秒)
+     *
+     * @param epochMillis 纪元毫秒
+     * @return 本地毫秒
+     */
+    public long toLocalMillis(long epochMillis) {
+        return epochMillis + getOffsetSeconds(epochMillis) * 1000L;
+    }
+
+    /**
+     * 范围内偏移转换的数量
+     *
+     * @return 转换数量
+     */
+    public int getTransitionCount() {
+        return transitionEpochMillis.length - 1;
+    }
+}
@@ -9,6 +9,7 @@ import com.hopetool.core.json.support.BigIntegerToStringSerializer;
 import com.hopetool.core.json.support.LongToStringSerializer;
 import lombok.SneakyThrows;
 
+import java.io.InputStream;
 import java.math.BigInteger;
 import java.text.SimpleDateFormat;
 import java.util.List;
@@ -81,6 +82,17 @@ public class JsonUtil {
         return OBJECT_MAPPER.readValue(jsonStr, javaType);
     }
 
+    /**
+     * 创建流式解析器(与对象转换使用相同的解析特性),用于逐个token读取大文档,不需要将整个文档读入内存
+     *
+     * @param inputStream 输入流
+     * @return 流式解析器
+     */
+    @SneakyThrows
+    public static JsonParser createParser(InputStream inputStream) {
+        return OBJECT_MAPPER.getFactory().createParser(inputStream);
+    }
+
 
     public static ObjectMapper instance() {
         ObjectMapper objectMapper = new ObjectMapper();
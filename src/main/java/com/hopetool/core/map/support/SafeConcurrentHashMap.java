@@ -1,7 +1,7 @@
 package com.hopetool.core.map.support;
 
 import com.hopetool.core.map.MapUtils;
-import com.hopetool.core.util.JdkUtil;
+import com.hopetool.core.util.JdkSupport;
 
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -72,10 +72,10 @@ public class SafeConcurrentHashMap<K, V> extends ConcurrentHashMap<K, V> {
 
     @Override
     public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
-        if (JdkUtil.IS_JDK8) {
-            return MapUtils.computeIfAbsentForJdk8(this, key, mappingFunction);
-        } else {
+        if (JdkSupport.isComputeIfAbsentSafe()) {
             return super.computeIfAbsent(key, mappingFunction);
+        } else {
+            return MapUtils.computeIfAbsentForJdk8(this, key, mappingFunction);
         }
     }
 }
\ No newline at end of file
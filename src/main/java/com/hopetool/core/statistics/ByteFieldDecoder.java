@@ -0,0 +1,254 @@
+package com.hopetool.core.statistics;
+
+import com.hopetool.core.datetime.support.Month;
+import com.hopetool.core.statistics.support.EventTimeFormatEnum;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.Year;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneRules;
+
+/**
+ * 字段字节解码器
+ * <p>
+ * 直接从ASCII字节中解析数值和事件时间,不创建字符串;时区偏移按照本地小时缓存,
+ * 每个解析线程持有一个实例(非线程安全)
+ *
+ * @author JunPzx
+ * @since 2024/1/14 10:00
+ */
+class ByteFieldDecoder {
+
+    /**
+     * 解析失败时返回的事件时间
+     */
+    static final long INVALID_TIME = Long.MIN_VALUE;
+
+    /**
+     * 可以精确表示的10的幂(double运算的结果为正确舍入)
+     */
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final ZoneRules zoneRules;
+
+    private long cachedLocalHour = Long.MIN_VALUE;
+
+    private int cachedOffsetSeconds;
+
+    ByteFieldDecoder(ZoneId zoneId) {
+        this.zoneRules = zoneId.getRules();
+        if (zoneRules.isFixedOffset()) {
+            this.cachedOffsetSeconds = zoneRules.getOffset(LocalDateTime.MIN).getTotalSeconds();
+        }
+    }
+
+    /**
+     * 解析浮点数,格式为[-+]数字[.数字]时直接计算,其它格式(科学计数法等)回退到{@link Double#parseDouble(String)}
+     *
+     * @return 数值,字段为空或格式错误时返回NaN
+     */
+    double parseDouble(byte[] bytes, int offset, int length) {
+        if (length <= 0) {
+            return Double.NaN;
+        }
+        int i = offset;
+        int end = offset + length;
+        boolean negative = false;
+        if (bytes[i] == '-' || bytes[i] == '+') {
+            negative = bytes[i] == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = 0;
+        boolean fraction = false;
+        for (; i < end; i++) {
+            byte b = bytes[i];
+            if (b >= '0' && b <= '9') {
+                mantissa = mantissa * 10 + (b - '0');
+                digits++;
+                if (fraction) {
+                    fractionDigits++;
+                }
+            } else if (b == '.' && !fraction) {
+                fraction = true;
+            } else {
+                return parseDoubleSlowly(bytes, offset, length);
+            }
+        }
+        if (digits == 0) {
+            return Double.NaN;
+        }
+        // 尾数超过2^53或者小数位数过多时无法保证正确舍入
+        if (digits > 15 || fractionDigits >= POWERS_OF_TEN.length) {
+            return parseDoubleSlowly(bytes, offset, length);
+        }
+        double value = fractionDigits == 0 ? mantissa : mantissa / POWERS_OF_TEN[fractionDigits];
+        return negative ? -value : value;
+    }
+
+    /**
+     * 解析长整数
+     *
+     * @return 数值,字段为空或格式错误时返回{@link #INVALID_TIME}
+     */
+    long parseLong(byte[] bytes, int offset, int length) {
+        if (length <= 0) {
+            return INVALID_TIME;
+        }
+        int i = offset;
+        int end = offset + length;
+        boolean negative = bytes[i] == '-';
+        if (negative || bytes[i] == '+') {
+            i++;
+        }
+        if (i == end || end - i > 18) {
+            return INVALID_TIME;
+        }
+        long value = 0;
+        for (; i < end; i++) {
+            byte b = bytes[i];
+            if (b < '0' || b > '9') {
+                return INVALID_TIME;
+            }
+            value = value * 10 + (b - '0');
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * 解析事件时间
+     *
+     * @return 纪元毫秒,解析失败时返回{@link #INVALID_TIME}
+     */
+    long parseEpochMillis(byte[] bytes, int offset, int length, EventTimeFormatEnum format) {
+        switch (format) {
+            case EPOCH_MILLIS:
+                return parseLong(bytes, offset, length);
+            case EPOCH_SECONDS:
+                long seconds = parseLong(bytes, offset, length);
+                return seconds == INVALID_TIME ? INVALID_TIME : seconds * 1000;
+            default:
+                return parseDateTime(bytes, offset, length);
+        }
+    }
+
+    /**
+     * 解析本地日期时间并按照时区转换为纪元毫秒
+     */
+    private long parseDateTime(byte[] bytes, int offset, int length) {
+        int end = offset + length;
+        // yyyy-MM-dd
+        if (length < 10 || !isDateSeparator(bytes[offset + 4]) || !isDateSeparator(bytes[offset + 7])) {
+            return INVALID_TIME;
+        }
+        int year = digits(bytes, offset, 4);
+        int month = digits(bytes, offset + 5, 2);
+        int day = digits(bytes, offset + 8, 2);
+        // 日需要在当月天数之内,否则会顺延到下个月(例如2024-02-31)
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > Month.getLastDay(month - 1, Year.isLeap(year))) {
+            return INVALID_TIME;
+        }
+        int hour = 0;
+        int minute = 0;
+        int second = 0;
+        int millis = 0;
+        int i = offset + 10;
+        if (i < end) {
+            // HH:mm[:ss[.SSS]]
+            if ((bytes[i] != ' ' && bytes[i] != 'T') || end - i < 6 || bytes[i + 3] != ':') {
+                return INVALID_TIME;
+            }
+            hour = digits(bytes, i + 1, 2);
+            minute = digits(bytes, i + 4, 2);
+            i += 6;
+            if (i < end) {
+                if (bytes[i] != ':' || end - i < 3) {
+                    return INVALID_TIME;
+                }
+                second = digits(bytes, i + 1, 2);
+                i += 3;
+                if (i < end) {
+                    if (bytes[i] != '.') {
+                        return INVALID_TIME;
+                    }
+                    int scale = 100;
+                    for (i++; i < end; i++) {
+                        int digit = bytes[i] - '0';
+                        if (digit < 0 || digit > 9) {
+                            return INVALID_TIME;
+                        }
+                        millis += digit * scale;
+                        scale /= 10;
+                    }
+                }
+            }
+            if (hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+                return INVALID_TIME;
+            }
+        }
+        long localSeconds = daysFromCivil(year, month, day) * 86400L + hour * 3600L + minute * 60L + second;
+        return (localSeconds - offsetSeconds(localSeconds)) * 1000 + millis;
+    }
+
+    /**
+     * 本地时间对应的时区偏移(按照本地小时缓存)
+     */
+    private int offsetSeconds(long localSeconds) {
+        if (zoneRules.isFixedOffset()) {
+            return cachedOffsetSeconds;
+        }
+        long localHour = Math.floorDiv(localSeconds, 3600L);
+        if (localHour != cachedLocalHour) {
+            cachedOffsetSeconds = zoneRules.getOffset(LocalDateTime.ofEpochSecond(localHour * 3600, 0, ZoneOffset.UTC)).getTotalSeconds();
+            cachedLocalHour = localHour;
+        }
+        return cachedOffsetSeconds;
+    }
+
+    /**
+     * 公历日期距离1970-01-01的天数
+     */
+    static long daysFromCivil(int year, int month, int day) {
+        long y = month <= 2 ? year - 1 : year;
+        long era = Math.floorDiv(y, 400L);
+        long yearOfEra = y - era * 400;
+        long dayOfYear = (153L * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    private static boolean isDateSeparator(byte b) {
+        return b == '-' || b == '/';
+    }
+
+    /**
+     * 解析定长数字
+     *
+     * @return 数字,存在非数字字符时返回-1
+     */
+    private static int digits(byte[] bytes, int offset, int length) {
+        int value = 0;
+        for (int i = offset; i < offset + length; i++) {
+            int digit = bytes[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static double parseDoubleSlowly(byte[] bytes, int offset, int length) {
+        try {
+            return Double.parseDouble(new String(bytes, offset, length, StandardCharsets.US_ASCII).trim());
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+}
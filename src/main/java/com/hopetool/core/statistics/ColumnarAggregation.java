@@ -0,0 +1,97 @@
+package com.hopetool.core.statistics;
+
+import com.hopetool.core.datetime.support.EpochMillisDivision;
+import com.hopetool.core.statistics.support.ColumnarStatisticsConfig;
+import com.hopetool.core.statistics.support.StatisticsAccumulator;
+
+/**
+ * 列式统计的部分聚合结果
+ * <p>
+ * 以[时间段下标][维度编码]保存累加器,通过{@link EpochMillisDivision}定位纪元毫秒所属时间段;并行扫描时每个线程持有一个部分聚合结果,
+ * 扫描完成后通过{@link #merge(ColumnarAggregation)}合并
+ *
+ * @author JunPzx
+ * @since 2024/1/14 9:30
+ */
+class ColumnarAggregation {
+
+    private final ColumnarStatisticsConfig config;
+
+    /**
+     * 时间段划分,为空时不区分时间段(总数统计)
+     */
+    private final EpochMillisDivision division;
+
+    /**
+     * 累加器[时间段下标][维度编码]
+     */
+    private final StatisticsAccumulator[][] accumulators;
+
+    ColumnarAggregation(ColumnarStatisticsConfig config, EpochMillisDivision division, int dimensionCount) {
+        this.config = config;
+        this.division = division;
+        this.accumulators = new StatisticsAccumulator[division == null ? 1 : division.size()][dimensionCount];
+    }
+
+    /**
+     * 累加一行数据
+     *
+     * @param epochMillis   事件时间(纪元毫秒)
+     * @param dimensionCode 维度编码
+     * @param value         数据值
+     * @param secondValue   第二数据值
+     */
+    void accept(long epochMillis, int dimensionCode, double value, double secondValue) {
+        if (division == null) {
+            accumulator(0, dimensionCode).acceptDouble(value, secondValue);
+            return;
+        }
+        if (division.isDisjoint()) {
+            int frameIndex = division.indexOf(epochMillis);
+            if (frameIndex >= 0) {
+                accumulator(frameIndex, dimensionCode).acceptDouble(value, secondValue);
+            }
+            return;
+        }
+        division.forEachIndex(epochMillis, frameIndex -> accumulator(frameIndex, dimensionCode).acceptDouble(value, secondValue));
+    }
+
+    /**
+     * 合并另一个部分聚合结果
+     *
+     * @param other 部分聚合结果(时间段和维度数量需要一致)
+     * @return 当前聚合结果
+     */
+    ColumnarAggregation merge(ColumnarAggregation other) {
+        for (int frameIndex = 0; frameIndex < accumulators.length; frameIndex++) {
+            for (int code = 0; code < accumulators[frameIndex].length; code++) {
+                StatisticsAccumulator otherAccumulator = other.accumulators[frameIndex][code];
+                if (otherAccumulator == null) {
+                    continue;
+                }
+                if (accumulators[frameIndex][code] == null) {
+                    accumulators[frameIndex][code] = otherAccumulator;
+                } else {
+                    accumulators[frameIndex][code].merge(otherAccumulator);
+                }
+            }
+        }
+        return this;
+    }
+
+    /**
+     * 累加器[时间段下标][维度编码]
+     */
+    StatisticsAccumulator[][] getAccumulators() {
+        return accumulators;
+    }
+
+    private StatisticsAccumulator accumulator(int frameIndex, int dimensionCode) {
+        StatisticsAccumulator accumulator = accumulators[frameIndex][dimensionCode];
+        if (accumulator == null) {
+            accumulator = new StatisticsAccumulator(config.getStatisticsMode(), config.getHistogramBins());
+            accumulators[frameIndex][dimensionCode] = accumulator;
+        }
+        return accumulator;
+    }
+}
@@ -0,0 +1,198 @@
+package com.hopetool.core.statistics;
+
+import com.hopetool.core.datetime.LocalDateTimeDivisionUtils;
+import com.hopetool.core.datetime.support.EpochMillisDivision;
+import com.hopetool.core.datetime.support.LocalDateTimeDivisionDomain;
+import com.hopetool.core.lang.AssertUtils;
+import com.hopetool.core.statistics.support.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 列式数据统计工具类
+ * <p>
+ * 直接扫描{@link StatisticsColumnStore}中的基本类型列进行统计,扫描过程中不创建数据对象和BigDecimal;
+ * 时间段按照配置的时区划分并以本地毫秒区间定位(与JVM默认时区无关,夏令时切换时正确),维度以字典编码作为数组下标定位累加器。统计结果的结构与{@link DataStatisticsUtils}一致
+ *
+ * @author JunPzx
+ * @since 2024/1/13 11:20
+ */
+public class ColumnarStatisticsUtils {
+
+    /**
+     * 列式周期统计
+     *
+     * @param store  列式存储
+     * @param config 列式统计配置
+     * @return 周期数据统计结果
+     */
+    public static CycleDataStatisticsResult cycleStatistics(StatisticsColumnStore store, ColumnarStatisticsConfig config) {
+        AssertUtils.notNull(store, "列式存储不能为空");
+        AssertUtils.notNull(config, "配置对象不能为空").checkCycle();
+        EpochMillisDivision division = division(config);
+        ColumnarAggregation aggregation = newAggregation(config, division, dimensionCount(store.getDictionary(), config));
+        scan(store, config, aggregation);
+        return buildCycleResult(division, aggregation, store.getDictionary(), config);
+    }
+
+
+    /**
+     * 列式总数统计
+     *
+     * @param store  列式存储
+     * @param config 列式统计配置
+     * @return 总数数据统计结果
+     */
+    public static TotalDataStatisticsResult totalStatistics(StatisticsColumnStore store, ColumnarStatisticsConfig config) {
+        AssertUtils.notNull(store, "列式存储不能为空");
+        AssertUtils.notNull(config, "配置对象不能为空").checkSelf();
+        ColumnarAggregation aggregation = newAggregation(config, null, dimensionCount(store.getDictionary(), config));
+        scan(store, config, aggregation);
+        return buildTotalResult(aggregation, store.getDictionary(), config);
+    }
+
+
+    /**
+     * 根据配置按照时区切割时间段
+     */
+    static EpochMillisDivision division(ColumnarStatisticsConfig config) {
+        return LocalDateTimeDivisionUtils.divisionEpochMillis(config.getBeginDateTime(), config.getEndDateTime(), config.getDateTimeUnit(), config.getZoneId());
+    }
+
+
+    /**
+     * 创建部分聚合结果
+     *
+     * @param division       时间段划分,为空时不区分时间段(总数统计)
+     * @param dimensionCount 维度数量
+     */
+    static ColumnarAggregation newAggregation(ColumnarStatisticsConfig config, EpochMillisDivision division, int dimensionCount) {
+        return new ColumnarAggregation(config, division, dimensionCount);
+    }
+
+
+    /**
+     * 维度数量(单维度时为1)
+     */
+    static int dimensionCount(StatisticsDictionary dictionary, ColumnarStatisticsConfig config) {
+        return Boolean.TRUE.equals(config.getIsMultidimensional()) ? dictionary.size() : 1;
+    }
+
+
+    /**
+     * 根据聚合结果构建周期统计结果
+     */
+    static CycleDataStatisticsResult buildCycleResult(EpochMillisDivision division, ColumnarAggregation aggregation,
+                                                      StatisticsDictionary dictionary, ColumnarStatisticsConfig config) {
+        List<LocalDateTimeDivisionDomain<LocalDateTime>> timeFrames = division.getTimeFrames();
+        StatisticsAccumulator[][] accumulators = aggregation.getAccumulators();
+        boolean sparse = Boolean.TRUE.equals(config.getSparse());
+        boolean[] existDimensions = existDimensions(accumulators, dictionary.size());
+        CycleDataStatisticsResult result = new CycleDataStatisticsResult();
+        for (int frameIndex = 0; frameIndex < timeFrames.size(); frameIndex++) {
+            LocalDateTimeDivisionDomain<LocalDateTime> timeFrame = timeFrames.get(frameIndex);
+            List<DataStatisticsItemDetail> details = buildDetails(accumulators[frameIndex], existDimensions, dictionary, config);
+            // 稀疏结果下没有任何数据的时间段不输出
+            if (sparse && details.isEmpty()) {
+                continue;
+            }
+            result.addDetail(new CycleStatisticsItemDetail().setDateStr(timeFrame.getDateStr()).setChineseDateStr(timeFrame.getChinese()).setDetails(details));
+        }
+        return result;
+    }
+
+
+    /**
+     * 根据聚合结果构建总数统计结果
+     */
+    static TotalDataStatisticsResult buildTotalResult(ColumnarAggregation aggregation, StatisticsDictionary dictionary, ColumnarStatisticsConfig config) {
+        StatisticsAccumulator[][] accumulators = aggregation.getAccumulators();
+        boolean[] existDimensions = existDimensions(accumulators, dictionary.size());
+        return new TotalDataStatisticsResult().addDetail(buildDetails(accumulators[0], existDimensions, dictionary, config));
+    }
+
+
+    /**
+     * 扫描列式存储,将数据累加到聚合结果中
+     */
+    private static void scan(StatisticsColumnStore store, ColumnarStatisticsConfig config, ColumnarAggregation aggregation) {
+        boolean multidimensional = Boolean.TRUE.equals(config.getIsMultidimensional());
+        int dimensionCount = dimensionCount(store.getDictionary(), config);
+        // 维度编码是否在标签备忘录中
+        boolean[] includedDimensions = new boolean[dimensionCount];
+        for (int code = 0; code < dimensionCount; code++) {
+            includedDimensions[code] = !multidimensional || config.getTagMemo().containsKey(store.getDictionary().valueOf(code));
+        }
+        for (int chunkIndex = 0; chunkIndex < store.getChunkCount(); chunkIndex++) {
+            int rows = store.getChunkRows(chunkIndex);
+            for (int row = 0; row < rows; row++) {
+                int dimensionCode = multidimensional ? store.getDimensionCode(chunkIndex, row) : 0;
+                if (dimensionCode < 0 || dimensionCode >= dimensionCount || !includedDimensions[dimensionCode]) {
+                    continue;
+                }
+                aggregation.accept(store.getEpochMillis(chunkIndex, row), dimensionCode, store.getValue(chunkIndex, row), store.getSecondValue(chunkIndex, row));
+            }
+        }
+    }
+
+
+    /**
+     * 出现过数据的维度编码
+     */
+    private static boolean[] existDimensions(StatisticsAccumulator[][] accumulators, int dictionarySize) {
+        boolean[] existDimensions = new boolean[Math.max(dictionarySize, 1)];
+        for (StatisticsAccumulator[] frameAccumulators : accumulators) {
+            for (int code = 0; code < frameAccumulators.length; code++) {
+                existDimensions[code] |= frameAccumulators[code] != null;
+            }
+        }
+        return existDimensions;
+    }
+
+
+    /**
+     * 按照{@link DataStatisticsUtils}的输出规则构建一个时间段的统计数据细节
+     */
+    private static List<DataStatisticsItemDetail> buildDetails(StatisticsAccumulator[] frameAccumulators, boolean[] existDimensions,
+                                                              StatisticsDictionary dictionary, ColumnarStatisticsConfig config) {
+        boolean sparse = Boolean.TRUE.equals(config.getSparse());
+        List<DataStatisticsItemDetail> details = new ArrayList<>();
+        if (!Boolean.TRUE.equals(config.getIsMultidimensional())) {
+            StatisticsAccumulator accumulator = frameAccumulators[0] == null ? emptyAccumulator(config) : frameAccumulators[0];
+            if (!sparse || !accumulator.isEmpty()) {
+                details.add(accumulator.toDetail(config.getSingleDimensional().getTagCode(), config.getSingleDimensional().getTagName()));
+            }
+            return details;
+        }
+        for (int code = 0; code < frameAccumulators.length; code++) {
+            if (!existDimensions[code]) {
+                continue;
+            }
+            StatisticsAccumulator accumulator = frameAccumulators[code] == null ? emptyAccumulator(config) : frameAccumulators[code];
+            // 稀疏结果下,当前时间段没有数据的维度不输出
+            if (sparse && accumulator.isEmpty()) {
+                continue;
+            }
+            String dimension = dictionary.valueOf(code);
+            details.add(accumulator.toDetail(dimension, config.getTagMemo().get(dimension)));
+        }
+        if (!sparse) {
+            // 补充标签备忘录中没有数据的维度
+            config.getTagMemo().forEach((dimension, tagName) -> {
+                int code = dictionary.find(dimension);
+                if (code < 0 || code >= existDimensions.length || !existDimensions[code]) {
+                    details.add(emptyAccumulator(config).toDetail(dimension, tagName));
+                }
+            });
+        }
+        return details;
+    }
+
+
+    private static StatisticsAccumulator emptyAccumulator(ColumnarStatisticsConfig config) {
+        return new StatisticsAccumulator(config.getStatisticsMode(), config.getHistogramBins());
+    }
+
+}
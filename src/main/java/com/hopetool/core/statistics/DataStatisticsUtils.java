@@ -5,18 +5,21 @@ import com.hopetool.core.collection.ListUtils;
 import com.hopetool.core.column.support.SFunction;
 import com.hopetool.core.datetime.LocalDateTimeDivisionUtils;
 import com.hopetool.core.datetime.LocalDateTimeUtils;
+import com.hopetool.core.datetime.support.EpochMillisDivision;
 import com.hopetool.core.datetime.support.LocalDateTimeDivisionDomain;
 import com.hopetool.core.lang.AssertUtils;
+import com.hopetool.core.map.MapUtils;
 import com.hopetool.core.set.SetUtils;
 import com.hopetool.core.statistics.support.*;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -29,6 +32,29 @@ import java.util.stream.Stream;
 @SuppressWarnings("DuplicatedCode")
 public class DataStatisticsUtils {
 
+    /**
+     * 统计执行度量扩展点,默认不采集度量数据
+     */
+    private static volatile StatisticsInstrumentation instrumentation = StatisticsInstrumentation.NOOP;
+
+    /**
+     * 设置统计执行度量扩展点(全局生效)
+     *
+     * @param instrumentation 度量扩展点,为空时恢复为不采集度量数据
+     */
+    public static void setInstrumentation(StatisticsInstrumentation instrumentation) {
+        DataStatisticsUtils.instrumentation = instrumentation == null ? StatisticsInstrumentation.NOOP : instrumentation;
+    }
+
+    /**
+     * 获取统计执行度量扩展点
+     *
+     * @return 度量扩展点
+     */
+    public static StatisticsInstrumentation getInstrumentation() {
+        return instrumentation;
+    }
+
     /**
      * 周期统计方法
      *
@@ -57,23 +83,31 @@ public class DataStatisticsUtils {
         // 校验配置对象
         AssertUtils.notNull(config, "配置对象不能为空").checkSelf();
         AssertUtils.isFalse(config.getIsMultidimensional(), "统计配置种维度配置有误,请确定维度配置是否为一维配置");
+        StatisticsRecorder recorder = StatisticsRecorder.start(instrumentation, "cycleSingleDimensionalStatistics");
+        // 纪元毫秒时间条件下,单次遍历数据并通过时区偏移转换表定位时间段
+        if (config.getEpochMillisGetFunction() != null) {
+            return cycleSingleDimensionalStatisticsByEpochMillis(config, recorder);
+        }
+        recorder.enter(StatisticsPhaseEnum.DIVISION);
         // 根据配置的起始时间和结束时间，将时间范围划分为多个时间段
-        List<LocalDateTimeDivisionDomain<LocalDateTime>> timeFrames = LocalDateTimeDivisionUtils.division(config.getBeginDateTime(), config.getEndDateTime(), config.getDateTimeUnit());
+        List<LocalDateTimeDivisionDomain<LocalDateTime>> timeFrames = timeFrames(config);
         // 创建周期数据统计结果对象
         CycleDataStatisticsResult result = new CycleDataStatisticsResult();
         // 遍历每个时间段
         timeFrames.forEach(timeFrame -> {
-            // 根据时间范围和配置的数据，筛选需要统计的数据
-            List<V> values = config.getData().stream().filter(data -> filterCycleStatisticalDataBasedOnTimeRange(timeFrame, data, config))
-                    // 根据配置的获取数值函数，获取数值并转换为BigDecimal类型
-                    .map(t -> config.getGetValueFunction().apply(t))
-                    // 将获取到的数值存储到列表中
-                    .collect(Collectors.toList());
-            // 根据统计模式计算数据
-            String cycleTotalExpenditure = calculateDataBasedOnStatisticalPatterns(values, config.getStatisticsMode());
+            // 根据时间范围和配置的数据，筛选需要统计的数据并根据统计模式累加
+            StatisticsAccumulator accumulator = filterAndAccumulate(config.getData().stream(), data -> filterCycleStatisticalDataBasedOnTimeRange(timeFrame, data, config),
+                    config, recorder);
+            recorder.addRows(config.getData().size(), accumulator.getCount());
+            recorder.enter(StatisticsPhaseEnum.RESULT_BUILD);
+            // 稀疏结果下,没有数据的时间段不输出
+            if (Boolean.TRUE.equals(config.getSparse()) && accumulator.isEmpty()) {
+                return;
+            }
             // 将周期统计结果添加到周期数据统计结果对象中
-            result.addDetail(CycleStatisticsItemDetail.instance(timeFrame.getDateStr(), timeFrame.getChinese(), new DataStatisticsItemDetail().setTagCode(config.getSingleDimensional().getTagCode()).setTagName(config.getSingleDimensional().getTagName()).setValue(cycleTotalExpenditure)));
+            result.addDetail(CycleStatisticsItemDetail.instance(timeFrame.getDateStr(), timeFrame.getChinese(), accumulator.toDetail(config.getSingleDimensional().getTagCode(), config.getSingleDimensional().getTagName())));
         });
+        recorder.finish(result);
         // 返回周期数据统计结果对象
         return result;
     }
@@ -89,46 +123,71 @@ public class DataStatisticsUtils {
         // 校验配置对象
         AssertUtils.notNull(config, "配置对象不能为空").checkSelf();
         AssertUtils.isTrue(config.getIsMultidimensional(), "统计配置中维度配置有误,请确定维度配置是否为多维配置");
+        StatisticsRecorder recorder = StatisticsRecorder.start(instrumentation, "cycleMultidimensionalStatistics");
+        recorder.enter(StatisticsPhaseEnum.DIVISION);
+        // 纪元毫秒时间条件下,按照时区划分时间段,单次遍历数据只保存累加器
+        if (config.getEpochMillisGetFunction() != null) {
+            EpochMillisDivision division = epochMillisDivision(config);
+            return cycleMultidimensionalStatisticsWithinBudget(config, division.getTimeFrames(), division, recorder);
+        }
         // 根据配置的起始时间、结束时间和时间单位，获取时间周期切割后的时间范围
-        List<LocalDateTimeDivisionDomain<LocalDateTime>> timeFrames = LocalDateTimeDivisionUtils.division(config.getBeginDateTime(), config.getEndDateTime(), config.getDateTimeUnit());
+        List<LocalDateTimeDivisionDomain<LocalDateTime>> timeFrames = timeFrames(config);
+        // 配置了内存预算时,只保存累加器,不再按维度分组保存数据
+        if (config.getMemoryBudgetBytes() != null) {
+            return cycleMultidimensionalStatisticsWithinBudget(config, timeFrames, null, recorder);
+        }
         // 创建周期统计数据结果对象
         CycleDataStatisticsResult result = new CycleDataStatisticsResult();
+        recorder.enter(StatisticsPhaseEnum.GROUPING);
+        // 根据多维度函数对数据进行分组(分组结果与时间段无关,只需分组一次)
+        Map<M, List<T>> dataGroupByMultidimensional = config.getData().stream().collect(Collectors.groupingBy(config.getMultidimensional().getMultidimensionalFunction()));
+        // 是否为稀疏结果
+        boolean sparse = Boolean.TRUE.equals(config.getSparse());
         // 遍历时间范围列表
         timeFrames.forEach(timeFrame -> {
             // 创建当前时间周期的统计数据细节对象
             CycleStatisticsItemDetail currTimeFrameStatisticsResult = new CycleStatisticsItemDetail().setDateStr(timeFrame.getDateStr()).setChineseDateStr(timeFrame.getChinese());
-            // 根据多维度函数对数据进行分组
-            Map<M, List<T>> dataGroupByMultidimensional = config.getData().stream().collect(Collectors.groupingBy(config.getMultidimensional().getMultidimensionalFunction()));
             // 创建统计数据细节列表
             List<DataStatisticsItemDetail> details = new ArrayList<>();
-            // 定义未处理标签备忘录
-            HashSet<M> unprocessedTagMemo = SetUtils.newHashSet(config.getMultidimensional().getTagMemo().keySet());
+            // 定义未处理标签备忘录(稀疏结果下不补充默认数据,无需记录)
+            HashSet<M> unprocessedTagMemo = sparse ? null : SetUtils.newHashSet(config.getMultidimensional().getTagMemo().keySet());
             // 遍历分组后的数据
             dataGroupByMultidimensional.forEach((dimensionCode, dimensionalData) -> {
                 // 如果配置中没有对应的标签Code，则跳过
                 if (!config.getMultidimensional().getTagMemo().containsKey(dimensionCode)) {
                     return;
                 }
-                // 根据时间范围过滤出需要统计的数据
-                List<V> values = dimensionalData.stream()
-                        .filter(data -> filterCycleStatisticalDataBasedOnTimeRange(timeFrame, data, config))
-                        .map(t -> config.getGetValueFunction().apply(t))
-                        .collect(Collectors.toList());
-                // 根据统计模式计算统计结果
-                String cycleTotalExpenditure = calculateDataBasedOnStatisticalPatterns(values, config.getStatisticsMode());
+                // 根据时间范围过滤出需要统计的数据并根据统计模式累加
+                StatisticsAccumulator accumulator = filterAndAccumulate(dimensionalData.stream(), data -> filterCycleStatisticalDataBasedOnTimeRange(timeFrame, data, config),
+                        config, recorder);
+                recorder.addRows(dimensionalData.size(), accumulator.getCount());
+                recorder.enter(StatisticsPhaseEnum.RESULT_BUILD);
+                // 稀疏结果下,当前时间段没有数据的维度不输出
+                if (sparse && accumulator.isEmpty()) {
+                    return;
+                }
                 // 创建统计数据细节对象并添加到细节列表中
-                details.add(new DataStatisticsItemDetail().setTagCode(dimensionCode.toString()).setTagName(config.getMultidimensional().getTagMemo().get(dimensionCode)).setValue(cycleTotalExpenditure));
-                unprocessedTagMemo.remove(dimensionCode);
+                details.add(accumulator.toDetail(dimensionCode.toString(), config.getMultidimensional().getTagMemo().get(dimensionCode)));
+                if (unprocessedTagMemo != null) {
+                    unprocessedTagMemo.remove(dimensionCode);
+                }
             });
+            // 稀疏结果下不补充默认数据,且没有任何数据的时间段不输出
+            if (sparse) {
+                if (!details.isEmpty()) {
+                    result.addDetail(currTimeFrameStatisticsResult.setDetails(details));
+                }
+                return;
+            }
             // 如果数据遍历完毕后,但是tagMemo中还存在对应的标签没有统计,那么则补充默认数据
             if (!unprocessedTagMemo.isEmpty()) {
                 unprocessedTagMemo.forEach(dimensionCode ->
-                        details.add(new DataStatisticsItemDetail().setTagCode(dimensionCode.toString())
-                                .setTagName(config.getMultidimensional().getTagMemo().get(dimensionCode)).setValue("0")));
+                        details.add(zeroDetail(dimensionCode.toString(), config.getMultidimensional().getTagMemo().get(dimensionCode), config)));
             }
             // 将统计数据细节列表添加到当前时间周期的统计数据结果对象中，并添加到结果对象中
             result.addDetail(currTimeFrameStatisticsResult.setDetails(details));
         });
+        recorder.finish(result);
         // 返回周期统计数据结果对象
         return result;
     }
@@ -153,50 +212,381 @@ public class DataStatisticsUtils {
         // 校验配置对象
         AssertUtils.notNull(config, "配置对象不能为空").checkSelf();
         AssertUtils.isFalse(config.getIsMultidimensional(), "统计配置种维度配置有误,请确定维度配置是否为一维配置");
-        // 获取需要统计的值
-        List<V> values = config.getData().stream()
-                .map(t -> config.getGetValueFunction().apply(t))
-                .collect(Collectors.toList());
-        String statisticsValue = calculateDataBasedOnStatisticalPatterns(values, config.getStatisticsMode());
-        return new TotalDataStatisticsResult()
-                .addDetail(new DataStatisticsItemDetail(config.getSingleDimensional().getTagCode(),
-                        config.getSingleDimensional().getTagName(), statisticsValue));
+        StatisticsRecorder recorder = StatisticsRecorder.start(instrumentation, "totalSingleDimensionalStatistics");
+        recorder.enter(StatisticsPhaseEnum.ACCUMULATE);
+        // 根据统计模式累加需要统计的值
+        StatisticsAccumulator accumulator = accumulate(config.getData().stream(), config,
+                config.getGetValueFunction(), config.getSecondValueFunction());
+        recorder.addRows(config.getData().size(), accumulator.getCount());
+        recorder.enter(StatisticsPhaseEnum.RESULT_BUILD);
+        TotalDataStatisticsResult result;
+        // 稀疏结果下,没有数据则不输出
+        if (Boolean.TRUE.equals(config.getSparse()) && accumulator.isEmpty()) {
+            result = new TotalDataStatisticsResult().setDetails(ListUtils.newArrayList());
+        } else {
+            result = new TotalDataStatisticsResult()
+                    .addDetail(accumulator.toDetail(config.getSingleDimensional().getTagCode(),
+                            config.getSingleDimensional().getTagName()));
+        }
+        recorder.finish(result);
+        return result;
     }
 
     public static <T, V, M> TotalDataStatisticsResult totalMultidimensionalStatistics(TotalStatisticsConfig<T, V, M> config) {
         // 校验配置对象
         AssertUtils.notNull(config, "配置对象不能为空").checkSelf();
         AssertUtils.isTrue(config.getIsMultidimensional(), "统计配置中维度配置有误,请确定维度配置是否为多维配置");
+        StatisticsRecorder recorder = StatisticsRecorder.start(instrumentation, "totalMultidimensionalStatistics");
+        // 配置了内存预算时,只保存累加器,不再按维度分组保存数据
+        if (config.getMemoryBudgetBytes() != null) {
+            return totalMultidimensionalStatisticsWithinBudget(config, recorder);
+        }
+        recorder.enter(StatisticsPhaseEnum.GROUPING);
         // 根据多维度函数对数据进行分组
         Map<M, List<T>> dataGroupByMultidimensional = config.getData().stream().collect(Collectors.groupingBy(config.getMultidimensional().getMultidimensionalFunction()));
         // 创建统计数据细节列表
         List<DataStatisticsItemDetail> details = new ArrayList<>();
-        // 定义未处理标签备忘录
-        HashSet<M> unprocessedTagMemo = SetUtils.newHashSet(config.getMultidimensional().getTagMemo().keySet());
+        // 定义未处理标签备忘录(稀疏结果下不补充默认数据,无需记录)
+        boolean sparse = Boolean.TRUE.equals(config.getSparse());
+        HashSet<M> unprocessedTagMemo = sparse ? null : SetUtils.newHashSet(config.getMultidimensional().getTagMemo().keySet());
         // 遍历分组后的数据
         dataGroupByMultidimensional.forEach((dimensionCode, dimensionalData) -> {
             // 如果配置中没有对应的标签名，则跳过
             if (!config.getMultidimensional().getTagMemo().containsKey(dimensionCode)) {
                 return;
             }
-            // 获取需要统计的值
-            List<V> values = dimensionalData.stream()
-                    .map(t -> config.getGetValueFunction().apply(t))
-                    .collect(Collectors.toList());
-            // 根据统计模式计算统计结果
-            String cycleTotalExpenditure = calculateDataBasedOnStatisticalPatterns(values, config.getStatisticsMode());
+            recorder.enter(StatisticsPhaseEnum.ACCUMULATE);
+            // 根据统计模式累加需要统计的值
+            StatisticsAccumulator accumulator = accumulate(dimensionalData.stream(), config,
+                    config.getGetValueFunction(), config.getSecondValueFunction());
+            recorder.addRows(dimensionalData.size(), accumulator.getCount());
+            recorder.enter(StatisticsPhaseEnum.RESULT_BUILD);
             // 创建统计数据细节对象并添加到细节列表中
-            details.add(new DataStatisticsItemDetail().setTagCode(dimensionCode.toString()).setTagName(config.getMultidimensional().getTagMemo().get(dimensionCode)).setValue(cycleTotalExpenditure));
-            unprocessedTagMemo.remove(dimensionCode);
+            details.add(accumulator.toDetail(dimensionCode.toString(), config.getMultidimensional().getTagMemo().get(dimensionCode)));
+            if (unprocessedTagMemo != null) {
+                unprocessedTagMemo.remove(dimensionCode);
+            }
         });
-        // 如果数据遍历完毕后,但是tagMemo中还存在对应的标签没有统计,那么则补充默认数据
-        if (!unprocessedTagMemo.isEmpty()) {
+        // 如果数据遍历完毕后,但是tagMemo中还存在对应的标签没有统计,那么则补充默认数据(稀疏结果下不补充)
+        if (!sparse && !unprocessedTagMemo.isEmpty()) {
             unprocessedTagMemo.forEach(dimensionCode -> {
-                details.add(new DataStatisticsItemDetail().setTagCode(dimensionCode.toString())
-                        .setTagName(config.getMultidimensional().getTagMemo().get(dimensionCode)).setValue("0"));
+                details.add(zeroDetail(dimensionCode.toString(), config.getMultidimensional().getTagMemo().get(dimensionCode), config));
+            });
+        }
+        TotalDataStatisticsResult result = new TotalDataStatisticsResult().addDetail(details);
+        recorder.finish(result);
+        return result;
+    }
+
+
+    /**
+     * 有内存预算的多维周期统计: 一次遍历数据,只保存(时间段, 维度)的累加器,超出预算时溢写到本地临时文件,结果与分组统计一致
+     * (纪元毫秒时间条件下同样使用该方式统计,没有配置内存预算时不限制内存)
+     *
+     * @param config        周期统计配置
+     * @param timeFrames    时间段
+     * @param epochDivision 纪元毫秒时间段划分(纪元毫秒时间条件时使用)
+     * @param recorder      统计执行记录器
+     * @return 周期统计数据结果
+     */
+    private static <T, V, M> CycleDataStatisticsResult cycleMultidimensionalStatisticsWithinBudget(CycleStatisticsConfig<T, V, M> config,
+                                                                                                   List<LocalDateTimeDivisionDomain<LocalDateTime>> timeFrames,
+                                                                                                   EpochMillisDivision epochDivision,
+                                                                                                   StatisticsRecorder recorder) {
+        Map<M, String> tagMemo = config.getMultidimensional().getTagMemo();
+        boolean sparse = Boolean.TRUE.equals(config.getSparse());
+        // 各时间段中存在数据的统计数据细节(合并累加器时直接输出)
+        List<List<DataStatisticsItemDetail>> frameDetails = new ArrayList<>(timeFrames.size());
+        timeFrames.forEach(timeFrame -> frameDetails.add(new ArrayList<>()));
+        // 时间段互不重叠时,通过二分查找定位数据所属时间段
+        boolean disjoint = isDisjoint(timeFrames);
+        recorder.enter(StatisticsPhaseEnum.ACCUMULATE);
+        long memoryBudgetBytes = config.getMemoryBudgetBytes() == null ? Long.MAX_VALUE : config.getMemoryBudgetBytes();
+        try (SpillableAccumulatorTable table = new SpillableAccumulatorTable(config.getStatisticsMode(), config.getHistogramBins(), memoryBudgetBytes)) {
+            for (T data : config.getData()) {
+                M dimensionCode = config.getMultidimensional().getMultidimensionalFunction().apply(data);
+                // 如果配置中没有对应的标签Code，则跳过
+                if (!tagMemo.containsKey(dimensionCode)) {
+                    continue;
+                }
+                if (epochDivision != null) {
+                    Long epochMillis = config.getEpochMillisGetFunction().apply(data);
+                    if (epochMillis != null) {
+                        epochDivision.forEachIndex(epochMillis, frameIndex -> acceptTable(table, frameIndex, dimensionCode, data, config));
+                    }
+                    continue;
+                }
+                if (disjoint && config.getDateTimeGetFunction().size() <= 1) {
+                    int frameIndex = searchTimeFrame(timeFrames, config.getDateTimeGetFunction().get(0).apply(data));
+                    if (frameIndex >= 0) {
+                        acceptTable(table, frameIndex, dimensionCode, data, config);
+                    }
+                    continue;
+                }
+                for (int frameIndex = 0; frameIndex < timeFrames.size(); frameIndex++) {
+                    if (filterCycleStatisticalDataBasedOnTimeRange(timeFrames.get(frameIndex), data, config)) {
+                        acceptTable(table, frameIndex, dimensionCode, data, config);
+                    }
+                }
+            }
+            recorder.enter(StatisticsPhaseEnum.RESULT_BUILD);
+            table.drain((frameIndex, dimensionKey, accumulator) -> {
+                recorder.addRows(0, accumulator.getCount());
+                // 稀疏结果下,当前时间段没有数据的维度不输出
+                if (!sparse || !accumulator.isEmpty()) {
+                    frameDetails.get(frameIndex).add(accumulator.toDetail(dimensionKey.toString(), tagMemo.get(dimensionKey)));
+                }
+            });
+        }
+        CycleDataStatisticsResult result = new CycleDataStatisticsResult();
+        for (int frameIndex = 0; frameIndex < timeFrames.size(); frameIndex++) {
+            LocalDateTimeDivisionDomain<LocalDateTime> timeFrame = timeFrames.get(frameIndex);
+            // 非稀疏结果下按照标签备忘录补齐当前时间段没有数据的维度
+            List<DataStatisticsItemDetail> details = sparse ? frameDetails.get(frameIndex) :
+                    paddingDetails(frameDetails.get(frameIndex), true, config.getSingleDimensional(), config.getMultidimensional(), config);
+            // 稀疏结果下没有任何数据的时间段不输出
+            if (sparse && details.isEmpty()) {
+                continue;
+            }
+            result.addDetail(new CycleStatisticsItemDetail().setDateStr(timeFrame.getDateStr()).setChineseDateStr(timeFrame.getChinese()).setDetails(details));
+        }
+        recorder.addRows(config.getData().size(), 0);
+        recorder.finish(result);
+        return result;
+    }
+
+
+    /**
+     * 纪元毫秒时间条件的单维周期统计: 单次遍历数据,通过时区偏移转换表定位数据所属时间段
+     *
+     * @param config   周期统计配置
+     * @param recorder 统计执行记录器
+     * @return 周期统计数据结果
+     */
+    private static <T, V, M> CycleDataStatisticsResult cycleSingleDimensionalStatisticsByEpochMillis(CycleStatisticsConfig<T, V, M> config, StatisticsRecorder recorder) {
+        recorder.enter(StatisticsPhaseEnum.DIVISION);
+        EpochMillisDivision division = epochMillisDivision(config);
+        recorder.enter(StatisticsPhaseEnum.ACCUMULATE);
+        StatisticsAccumulator[] accumulators = new StatisticsAccumulator[division.size()];
+        for (int frameIndex = 0; frameIndex < accumulators.length; frameIndex++) {
+            accumulators[frameIndex] = new StatisticsAccumulator(config.getStatisticsMode(), config.getHistogramBins());
+        }
+        boolean requireSecondValue = config.getStatisticsMode().isRequireSecondValue();
+        for (T data : config.getData()) {
+            Long epochMillis = config.getEpochMillisGetFunction().apply(data);
+            if (epochMillis == null) {
+                continue;
+            }
+            division.forEachIndex(epochMillis, frameIndex -> accumulators[frameIndex].accept(config.getGetValueFunction().apply(data),
+                    requireSecondValue ? config.getSecondValueFunction().apply(data) : null));
+        }
+        recorder.enter(StatisticsPhaseEnum.RESULT_BUILD);
+        CycleDataStatisticsResult result = new CycleDataStatisticsResult();
+        for (int frameIndex = 0; frameIndex < accumulators.length; frameIndex++) {
+            StatisticsAccumulator accumulator = accumulators[frameIndex];
+            recorder.addRows(0, accumulator.getCount());
+            // 稀疏结果下,没有数据的时间段不输出
+            if (Boolean.TRUE.equals(config.getSparse()) && accumulator.isEmpty()) {
+                continue;
+            }
+            LocalDateTimeDivisionDomain<LocalDateTime> timeFrame = division.getTimeFrames().get(frameIndex);
+            result.addDetail(CycleStatisticsItemDetail.instance(timeFrame.getDateStr(), timeFrame.getChinese(),
+                    accumulator.toDetail(config.getSingleDimensional().getTagCode(), config.getSingleDimensional().getTagName())));
+        }
+        recorder.addRows(config.getData().size(), 0);
+        recorder.finish(result);
+        return result;
+    }
+
+
+    /**
+     * 有内存预算的多维总数统计: 一次遍历数据,只保存各维度的累加器,超出预算时溢写到本地临时文件,结果与分组统计一致
+     *
+     * @param config   总数统计配置
+     * @param recorder 统计执行记录器
+     * @return 总数统计数据结果
+     */
+    private static <T, V, M> TotalDataStatisticsResult totalMultidimensionalStatisticsWithinBudget(TotalStatisticsConfig<T, V, M> config, StatisticsRecorder recorder) {
+        Map<M, String> tagMemo = config.getMultidimensional().getTagMemo();
+        // 存在数据的维度的统计数据细节(合并累加器时直接输出)
+        List<DataStatisticsItemDetail> details = new ArrayList<>();
+        recorder.enter(StatisticsPhaseEnum.ACCUMULATE);
+        try (SpillableAccumulatorTable table = new SpillableAccumulatorTable(config.getStatisticsMode(), config.getHistogramBins(), config.getMemoryBudgetBytes())) {
+            for (T data : config.getData()) {
+                M dimensionCode = config.getMultidimensional().getMultidimensionalFunction().apply(data);
+                if (!tagMemo.containsKey(dimensionCode)) {
+                    continue;
+                }
+                table.accept(0, dimensionCode, config.getGetValueFunction().apply(data),
+                        config.getStatisticsMode().isRequireSecondValue() ? config.getSecondValueFunction().apply(data) : null);
+            }
+            recorder.enter(StatisticsPhaseEnum.RESULT_BUILD);
+            table.drain((frameIndex, dimensionKey, accumulator) -> {
+                recorder.addRows(0, accumulator.getCount());
+                details.add(accumulator.toDetail(dimensionKey.toString(), tagMemo.get(dimensionKey)));
             });
         }
-        return new TotalDataStatisticsResult().addDetail(details);
+        // 总数统计的稀疏结果只省略没有数据的维度
+        TotalDataStatisticsResult result = new TotalDataStatisticsResult().addDetail(Boolean.TRUE.equals(config.getSparse()) ? details :
+                paddingDetails(details, true, config.getSingleDimensional(), config.getMultidimensional(), config));
+        recorder.addRows(config.getData().size(), 0);
+        recorder.finish(result);
+        return result;
+    }
+
+
+    /**
+     * 将数据累加到有内存预算的累加器表中
+     */
+    private static <T, V, M> void acceptTable(SpillableAccumulatorTable table, int frameIndex, M dimensionCode, T data, CycleStatisticsConfig<T, V, M> config) {
+        table.accept(frameIndex, dimensionCode, config.getGetValueFunction().apply(data),
+                config.getStatisticsMode().isRequireSecondValue() ? config.getSecondValueFunction().apply(data) : null);
+    }
+
+
+    /**
+     * 周期统计的时间段,设置了工作日日历时只保留工作日
+     */
+    private static <T, V, M> List<LocalDateTimeDivisionDomain<LocalDateTime>> timeFrames(CycleStatisticsConfig<T, V, M> config) {
+        if (config.getWorkdayCalendar() != null) {
+            return config.getWorkdayCalendar().division(config.getBeginDateTime(), config.getEndDateTime());
+        }
+        return LocalDateTimeDivisionUtils.division(config.getBeginDateTime(), config.getEndDateTime(), config.getDateTimeUnit());
+    }
+
+
+    /**
+     * 纪元毫秒时间条件下的时间段划分,设置了工作日日历时只保留工作日
+     */
+    private static <T, V, M> EpochMillisDivision epochMillisDivision(CycleStatisticsConfig<T, V, M> config) {
+        if (config.getWorkdayCalendar() != null) {
+            return EpochMillisDivision.of(timeFrames(config), config.getZoneId());
+        }
+        return LocalDateTimeDivisionUtils.divisionEpochMillis(config.getBeginDateTime(), config.getEndDateTime(), config.getDateTimeUnit(), config.getZoneId());
+    }
+
+
+    /**
+     * 时间段是否按开始时间排序且互不重叠
+     */
+    private static boolean isDisjoint(List<LocalDateTimeDivisionDomain<LocalDateTime>> timeFrames) {
+        for (int i = 1; i < timeFrames.size(); i++) {
+            if (!timeFrames.get(i - 1).getEndTime().isBefore(timeFrames.get(i).getBeginTime())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    /**
+     * 在互不重叠的时间段中二分查找时间所属时间段
+     *
+     * @return 时间段下标,不属于任何时间段时返回-1
+     */
+    private static int searchTimeFrame(List<LocalDateTimeDivisionDomain<LocalDateTime>> timeFrames, LocalDateTime dateTime) {
+        if (dateTime == null) {
+            return -1;
+        }
+        int low = 0;
+        int high = timeFrames.size() - 1;
+        // 查找最后一个开始时间不晚于该时间的时间段
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (timeFrames.get(mid).getBeginTime().isAfter(dateTime)) {
+                high = mid - 1;
+            } else {
+                low = mid + 1;
+            }
+        }
+        if (high < 0) {
+            return -1;
+        }
+        LocalDateTimeDivisionDomain<LocalDateTime> timeFrame = timeFrames.get(high);
+        return LocalDateTimeUtils.isBetween(dateTime, timeFrame.getBeginTime(), timeFrame.getEndTime()) ? high : -1;
+    }
+
+
+    /**
+     * 将稀疏周期统计结果转换为稠密结果(按照配置的时间段和标签备忘录补齐"0"),用于需要完整结构的调用方
+     *
+     * @param sparseResult 稀疏周期统计结果
+     * @param config       生成该结果的周期统计配置
+     * @return 稠密周期统计结果
+     */
+    public static <T, V, M> CycleDataStatisticsResult denseView(CycleDataStatisticsResult sparseResult, CycleStatisticsConfig<T, V, M> config) {
+        AssertUtils.notNull(sparseResult, "稀疏统计结果不能为空");
+        AssertUtils.notNull(config, "配置对象不能为空").checkSelf();
+        List<LocalDateTimeDivisionDomain<LocalDateTime>> timeFrames = timeFrames(config);
+        // 以日期为索引,记录稀疏结果中已存在的时间段
+        Map<String, CycleStatisticsItemDetail> sparseDetailsMemo = ListUtils.isEmpty(sparseResult.getDetails()) ? MapUtils.newHashMap() :
+                sparseResult.getDetails().stream().collect(Collectors.toMap(CycleStatisticsItemDetail::getDateStr, Function.identity()));
+        CycleDataStatisticsResult result = new CycleDataStatisticsResult();
+        timeFrames.forEach(timeFrame -> {
+            CycleStatisticsItemDetail sparseDetail = sparseDetailsMemo.get(timeFrame.getDateStr());
+            List<DataStatisticsItemDetail> existDetails = sparseDetail == null || sparseDetail.getDetails() == null ?
+                    ListUtils.empty() : sparseDetail.getDetails();
+            result.addDetail(new CycleStatisticsItemDetail().setDateStr(timeFrame.getDateStr()).setChineseDateStr(timeFrame.getChinese())
+                    .setDetails(paddingDetails(existDetails, config.getIsMultidimensional(), config.getSingleDimensional(), config.getMultidimensional(), config)));
+        });
+        return result;
+    }
+
+
+    /**
+     * 将稀疏总数统计结果转换为稠密结果(按照标签备忘录补齐"0")
+     *
+     * @param sparseResult 稀疏总数统计结果
+     * @param config       生成该结果的总数统计配置
+     * @return 稠密总数统计结果
+     */
+    public static <T, V, M> TotalDataStatisticsResult denseView(TotalDataStatisticsResult sparseResult, TotalStatisticsConfig<T, V, M> config) {
+        AssertUtils.notNull(sparseResult, "稀疏统计结果不能为空");
+        AssertUtils.notNull(config, "配置对象不能为空").checkSelf();
+        List<DataStatisticsItemDetail> existDetails = sparseResult.getDetails() == null ? ListUtils.empty() : sparseResult.getDetails();
+        return new TotalDataStatisticsResult().addDetail(paddingDetails(existDetails, config.getIsMultidimensional(), config.getSingleDimensional(), config.getMultidimensional(), config));
+    }
+
+
+    /**
+     * 按照维度配置补齐缺失的统计数据细节
+     *
+     * @param existDetails       已存在的统计数据细节
+     * @param isMultidimensional 是否为多维度
+     * @param singleDimensional  单维度配置
+     * @param multidimensional   多维度配置
+     * @param config             统计配置
+     * @return 补齐后的统计数据细节列表
+     */
+    private static <T, M> List<DataStatisticsItemDetail> paddingDetails(List<DataStatisticsItemDetail> existDetails, Boolean isMultidimensional,
+                                                                        SingleDimensional singleDimensional, Multidimensional<T, M> multidimensional,
+                                                                        AbstractStatisticsConfig<T> config) {
+        List<DataStatisticsItemDetail> details = ListUtils.newArrayList(existDetails);
+        if (!Boolean.TRUE.equals(isMultidimensional)) {
+            if (details.isEmpty()) {
+                details.add(zeroDetail(singleDimensional.getTagCode(), singleDimensional.getTagName(), config));
+            }
+            return details;
+        }
+        Set<String> existTagCodes = existDetails.stream().map(DataStatisticsItemDetail::getTagCode).collect(Collectors.toSet());
+        multidimensional.getTagMemo().forEach((dimensionCode, tagName) -> {
+            if (!existTagCodes.contains(dimensionCode.toString())) {
+                details.add(zeroDetail(dimensionCode.toString(), tagName, config));
+            }
+        });
+        return details;
+    }
+
+
+    /**
+     * 没有数据时补齐的统计数据细节,值为"0";直方图统计方式下各区间数据量也为0
+     */
+    private static <T> DataStatisticsItemDetail zeroDetail(String tagCode, String tagName, AbstractStatisticsConfig<T> config) {
+        DataStatisticsItemDetail detail = new DataStatisticsItemDetail(tagCode, tagName, "0");
+        if (DataValueStatisticsModeEnum.HISTOGRAM.equals(config.getStatisticsMode())) {
+            detail.setHistogram(new long[config.getHistogramBins().getBinCount()]);
+        }
+        return detail;
     }
 
 
@@ -229,37 +619,38 @@ public class DataStatisticsUtils {
 
 
     /**
-     * 根据统计模式计算数据
+     * 按时间段过滤数据并根据统计模式累加,过滤与累加在同一次遍历中完成,耗时计入{@link StatisticsPhaseEnum#ACCUMULATE}
      *
-     * @param values         数据值列表
-     * @param statisticsMode 数据值统计模式
-     * @return 计算后的数据
+     * @param data     需要统计的数据
+     * @param filter   时间段过滤条件
+     * @param config   周期统计配置
+     * @param recorder 统计执行记录器
+     * @return 统计累加器
      */
-    private static <V> String calculateDataBasedOnStatisticalPatterns(List<V> values, DataValueStatisticsModeEnum statisticsMode) {
-        if (ListUtils.isEmpty(values)) {
-            return "0";
-        }
-        switch (statisticsMode) {
-            case SUM:
-                return values.stream().map(DataCalculateUtils::newBigDecimal)
-                        .reduce(DataCalculateUtils::add)
-                        .orElse(new BigDecimal(0))
-                        .setScale(2, RoundingMode.HALF_UP)
-                        .stripTrailingZeros()
-                        .toPlainString();
-            case AVG:
-                BigDecimal sum = values.stream().map(DataCalculateUtils::newBigDecimal)
-                        .reduce(DataCalculateUtils::add)
-                        .orElse(new BigDecimal(0));
-                return DataCalculateUtils.divideIgnoreZero(sum, DataCalculateUtils.newBigDecimal(values.size()),
-                                2, RoundingMode.HALF_UP)
-                        .stripTrailingZeros().toPlainString();
-            case COUNT:
-                return String.valueOf(values.size());
-            case DISTINCT_COUNT:
-                return String.valueOf(values.stream().distinct().count());
+    private static <T, V, M> StatisticsAccumulator filterAndAccumulate(Stream<T> data, Predicate<T> filter, CycleStatisticsConfig<T, V, M> config, StatisticsRecorder recorder) {
+        recorder.enter(StatisticsPhaseEnum.ACCUMULATE);
+        return accumulate(data.filter(filter), config, config.getGetValueFunction(), config.getSecondValueFunction());
+    }
+
+
+    /**
+     * 根据统计模式在一次遍历中累加数据
+     *
+     * @param data                需要统计的数据
+     * @param config              统计配置(统计模式,直方图区间)
+     * @param getValueFunction    获取数据值的函数
+     * @param secondValueFunction 获取第二数据值的函数(比率、加权平均统计模式下使用)
+     * @return 统计累加器
+     */
+    private static <T, V> StatisticsAccumulator accumulate(Stream<T> data, AbstractStatisticsConfig<T> config,
+                                                           SFunction<T, V> getValueFunction, SFunction<T, ?> secondValueFunction) {
+        StatisticsAccumulator accumulator = new StatisticsAccumulator(config.getStatisticsMode(), config.getHistogramBins());
+        if (config.getStatisticsMode().isRequireSecondValue()) {
+            data.forEach(t -> accumulator.accept(getValueFunction.apply(t), secondValueFunction.apply(t)));
+        } else {
+            data.forEach(t -> accumulator.accept(getValueFunction.apply(t)));
         }
-        return "0";
+        return accumulator;
     }
 
 
@@ -0,0 +1,314 @@
+package com.hopetool.core.statistics;
+
+import com.hopetool.core.datetime.support.EpochMillisDivision;
+import com.hopetool.core.lang.AssertUtils;
+import com.hopetool.core.statistics.support.*;
+import lombok.SneakyThrows;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * 分隔符文件(CSV等)统计工具类
+ * <p>
+ * 以内存映射的方式读取文件,按行边界切分为多个分块并行解析,只解析配置的事件时间、数据值、维度列,
+ * 字段直接从字节解析为基本类型并累加到累加器中,不创建行对象和字符串;各分块的部分聚合结果最后合并。
+ * <p>
+ * 字段两端的双引号会被去除,但不支持字段内包含分隔符、换行符的转义写法;
+ * 事件时间、数据值无法解析或者维度不在标签备忘录中的行不参与统计
+ *
+ * @author JunPzx
+ * @since 2024/1/14 10:50
+ */
+public class DelimitedFileStatisticsUtils {
+
+    /**
+     * 单个分块的最大字节数(内存映射区域不能超过2GB)
+     */
+    private static final long MAX_CHUNK_BYTES = 256L * 1024 * 1024;
+
+    /**
+     * 分块的最小字节数,小文件不切分
+     */
+    private static final long MIN_CHUNK_BYTES = 1024 * 1024;
+
+    /**
+     * 分隔符文件周期统计
+     *
+     * @param source 文件数据源配置
+     * @param config 列式统计配置
+     * @return 周期数据统计结果
+     */
+    public static CycleDataStatisticsResult cycleStatistics(DelimitedFileSourceConfig source, ColumnarStatisticsConfig config) {
+        AssertUtils.notNull(config, "配置对象不能为空").checkCycle();
+        AssertUtils.notNull(source, "数据源配置不能为空").checkSelf(true, config.getIsMultidimensional(), config.getStatisticsMode().isRequireSecondValue());
+        EpochMillisDivision division = ColumnarStatisticsUtils.division(config);
+        StatisticsDictionary dictionary = dictionary(config);
+        ColumnarAggregation aggregation = parse(source, config, dictionary, division);
+        return ColumnarStatisticsUtils.buildCycleResult(division, aggregation, dictionary, config);
+    }
+
+
+    /**
+     * 分隔符文件总数统计
+     *
+     * @param source 文件数据源配置
+     * @param config 列式统计配置
+     * @return 总数数据统计结果
+     */
+    public static TotalDataStatisticsResult totalStatistics(DelimitedFileSourceConfig source, ColumnarStatisticsConfig config) {
+        AssertUtils.notNull(config, "配置对象不能为空").checkSelf();
+        AssertUtils.notNull(source, "数据源配置不能为空").checkSelf(false, config.getIsMultidimensional(), config.getStatisticsMode().isRequireSecondValue());
+        StatisticsDictionary dictionary = dictionary(config);
+        ColumnarAggregation aggregation = parse(source, config, dictionary, null);
+        return ColumnarStatisticsUtils.buildTotalResult(aggregation, dictionary, config);
+    }
+
+
+    /**
+     * 根据标签备忘录构建维度字典,只有标签备忘录中的维度参与统计,解析过程中字典不再变化
+     */
+    static StatisticsDictionary dictionary(ColumnarStatisticsConfig config) {
+        StatisticsDictionary dictionary = new StatisticsDictionary();
+        if (Boolean.TRUE.equals(config.getIsMultidimensional())) {
+            config.getTagMemo().keySet().forEach(dictionary::codeOf);
+        }
+        return dictionary;
+    }
+
+
+    /**
+     * 切分文件并解析各分块,合并部分聚合结果
+     */
+    @SneakyThrows
+    private static ColumnarAggregation parse(DelimitedFileSourceConfig source, ColumnarStatisticsConfig config, StatisticsDictionary dictionary,
+                                             EpochMillisDivision division) {
+        int dimensionCount = ColumnarStatisticsUtils.dimensionCount(dictionary, config);
+        try (FileChannel channel = FileChannel.open(source.getFile(), StandardOpenOption.READ)) {
+            long[] boundaries = chunkBoundaries(channel, source.isParallel());
+            IntStream chunks = IntStream.range(0, boundaries.length - 1);
+            if (source.isParallel()) {
+                chunks = chunks.parallel();
+            }
+            return chunks.mapToObj(chunkIndex -> {
+                        ColumnarAggregation aggregation = ColumnarStatisticsUtils.newAggregation(config, division, dimensionCount);
+                        new ChunkParser(source, config, dictionary, aggregation, division != null).parse(channel, boundaries[chunkIndex], boundaries[chunkIndex + 1],
+                                chunkIndex == 0 && source.isHeader());
+                        return aggregation;
+                    })
+                    .reduce(ColumnarAggregation::merge)
+                    .orElseGet(() -> ColumnarStatisticsUtils.newAggregation(config, division, dimensionCount));
+        }
+    }
+
+
+    /**
+     * 计算分块边界,除第一个分块外,每个分块都从一行的开头开始
+     *
+     * @return 分块边界(第一个为0,最后一个为文件大小)
+     */
+    @SneakyThrows
+    private static long[] chunkBoundaries(FileChannel channel, boolean parallel) {
+        long size = channel.size();
+        int chunkCount = (int) Math.max(1, (size + MAX_CHUNK_BYTES - 1) / MAX_CHUNK_BYTES);
+        if (parallel) {
+            chunkCount = (int) Math.max(chunkCount, Math.min(Runtime.getRuntime().availableProcessors(), size / MIN_CHUNK_BYTES));
+        }
+        long[] boundaries = new long[chunkCount + 1];
+        ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+        int count = 1;
+        for (int i = 1; i < chunkCount; i++) {
+            long position = Math.max(size * i / chunkCount, boundaries[count - 1]);
+            long lineStart = nextLineStart(channel, buffer, position);
+            if (lineStart > boundaries[count - 1] && lineStart < size) {
+                boundaries[count++] = lineStart;
+            }
+        }
+        boundaries[count++] = size;
+        return Arrays.copyOf(boundaries, count);
+    }
+
+
+    /**
+     * 查找position之后(包含)第一个换行符的下一个位置
+     */
+    @SneakyThrows
+    private static long nextLineStart(FileChannel channel, ByteBuffer buffer, long position) {
+        long size = channel.size();
+        while (position < size) {
+            ((Buffer) buffer).clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+
+    /**
+     * 分块解析器(每个分块一个实例)
+     */
+    private static final class ChunkParser {
+
+        private final DelimitedFileSourceConfig source;
+
+        private final StatisticsDictionary dictionary;
+
+        private final ColumnarAggregation aggregation;
+
+        private final ByteFieldDecoder decoder;
+
+        private final boolean multidimensional;
+
+        private final boolean requireSecondValue;
+
+        private final boolean cycle;
+
+        private final byte delimiter;
+
+        /**
+         * 需要解析的最大列下标,之后的列直接跳过
+         */
+        private final int maxColumn;
+
+        private byte[] line = new byte[256];
+
+        private ChunkParser(DelimitedFileSourceConfig source, ColumnarStatisticsConfig config, StatisticsDictionary dictionary, ColumnarAggregation aggregation,
+                            boolean cycle) {
+            this.source = source;
+            this.dictionary = dictionary;
+            this.aggregation = aggregation;
+            this.decoder = new ByteFieldDecoder(config.getZoneId());
+            this.multidimensional = Boolean.TRUE.equals(config.getIsMultidimensional());
+            this.requireSecondValue = config.getStatisticsMode().isRequireSecondValue();
+            this.cycle = cycle;
+            this.delimiter = (byte) source.getDelimiter();
+            int max = source.getValueColumn();
+            if (cycle) {
+                max = Math.max(max, source.getTimeColumn());
+            }
+            if (multidimensional) {
+                max = Math.max(max, source.getDimensionColumn());
+            }
+            if (requireSecondValue) {
+                max = Math.max(max, source.getSecondValueColumn());
+            }
+            this.maxColumn = max;
+        }
+
+        @SneakyThrows
+        private void parse(FileChannel channel, long begin, long end, boolean skipFirstLine) {
+            if (end <= begin) {
+                return;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, begin, end - begin);
+            int limit = buffer.limit();
+            int length = 0;
+            boolean skipping = skipFirstLine;
+            for (int i = 0; i < limit; i++) {
+                byte b = buffer.get(i);
+                if (b == '\n') {
+                    if (!skipping) {
+                        parseLine(length);
+                    }
+                    skipping = false;
+                    length = 0;
+                    continue;
+                }
+                if (skipping) {
+                    continue;
+                }
+                if (length == line.length) {
+                    line = Arrays.copyOf(line, line.length << 1);
+                }
+                line[length++] = b;
+            }
+            // 最后一行没有换行符
+            if (!skipping && length > 0) {
+                parseLine(length);
+            }
+        }
+
+        /**
+         * 解析一行数据并累加
+         */
+        private void parseLine(int length) {
+            if (length > 0 && line[length - 1] == '\r') {
+                length--;
+            }
+            if (length == 0) {
+                return;
+            }
+            int column = 0;
+            int fieldStart = 0;
+            int timeStart = -1, timeEnd = -1, valueStart = -1, valueEnd = -1;
+            int secondStart = -1, secondEnd = -1, dimensionStart = -1, dimensionEnd = -1;
+            for (int i = 0; i <= length && column <= maxColumn; i++) {
+                if (i < length && line[i] != delimiter) {
+                    continue;
+                }
+                int start = fieldStart;
+                int stop = i;
+                // 去除字段两端的双引号
+                if (stop - start >= 2 && line[start] == '"' && line[stop - 1] == '"') {
+                    start++;
+                    stop--;
+                }
+                if (column == source.getTimeColumn()) {
+                    timeStart = start;
+                    timeEnd = stop;
+                }
+                if (column == source.getValueColumn()) {
+                    valueStart = start;
+                    valueEnd = stop;
+                }
+                if (column == source.getSecondValueColumn()) {
+                    secondStart = start;
+                    secondEnd = stop;
+                }
+                if (column == source.getDimensionColumn()) {
+                    dimensionStart = start;
+                    dimensionEnd = stop;
+                }
+                column++;
+                fieldStart = i + 1;
+            }
+            // 列数不足的行不参与统计
+            if (column <= maxColumn) {
+                return;
+            }
+            int dimensionCode = 0;
+            if (multidimensional) {
+                dimensionCode = dictionary.find(line, dimensionStart, dimensionEnd - dimensionStart);
+                if (dimensionCode < 0) {
+                    return;
+                }
+            }
+            long epochMillis = 0;
+            if (cycle) {
+                epochMillis = decoder.parseEpochMillis(line, timeStart, timeEnd - timeStart, source.getTimeFormat());
+                if (epochMillis == ByteFieldDecoder.INVALID_TIME) {
+                    return;
+                }
+            }
+            double value = decoder.parseDouble(line, valueStart, valueEnd - valueStart);
+            double secondValue = requireSecondValue ? decoder.parseDouble(line, secondStart, secondEnd - secondStart) : 0;
+            if (Double.isNaN(value) || Double.isNaN(secondValue)) {
+                return;
+            }
+            aggregation.accept(epochMillis, dimensionCode, value, secondValue);
+        }
+    }
+}
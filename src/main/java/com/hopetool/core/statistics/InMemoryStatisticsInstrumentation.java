@@ -0,0 +1,215 @@
+package com.hopetool.core.statistics;
+
+import com.hopetool.core.lang.AssertUtils;
+import com.hopetool.core.statistics.support.StatisticsExecutionMetrics;
+import com.hopetool.core.statistics.support.StatisticsInstrumentation;
+import com.hopetool.core.statistics.support.StatisticsPhaseEnum;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 内存中的统计执行度量收集器
+ * <p>
+ * 各阶段耗时按照2的幂分桶记录为直方图(桶i记录[2^(i-1), 2^i)纳秒的耗时),百分位数返回所在桶的上界;
+ * 行数、时间段数量、维度数量以及分配字节数累计求和。线程安全
+ *
+ * @author JunPzx
+ * @since 2024/1/16 10:00
+ */
+public class InMemoryStatisticsInstrumentation implements StatisticsInstrumentation {
+
+    private static final int BUCKET_COUNT = 64;
+
+    private static final StatisticsPhaseEnum[] PHASES = StatisticsPhaseEnum.values();
+
+    private final LongAdder executionCount = new LongAdder();
+
+    private final LongAdder rowsScanned = new LongAdder();
+
+    private final LongAdder rowsMatched = new LongAdder();
+
+    private final LongAdder buckets = new LongAdder();
+
+    private final LongAdder dimensions = new LongAdder();
+
+    private final PhaseHistogram[] phaseHistograms = new PhaseHistogram[PHASES.length];
+
+    public InMemoryStatisticsInstrumentation() {
+        for (int i = 0; i < phaseHistograms.length; i++) {
+            phaseHistograms[i] = new PhaseHistogram();
+        }
+    }
+
+    @Override
+    public void record(StatisticsExecutionMetrics metrics) {
+        executionCount.increment();
+        rowsScanned.add(metrics.getRowsScanned());
+        rowsMatched.add(metrics.getRowsMatched());
+        buckets.add(metrics.getBuckets());
+        dimensions.add(metrics.getDimensions());
+        for (StatisticsPhaseEnum phase : PHASES) {
+            long nanos = metrics.getPhaseNanos(phase);
+            // 没有执行的阶段不记录
+            if (nanos > 0) {
+                phaseHistograms[phase.ordinal()].record(nanos, metrics.getAllocatedBytes(phase));
+            }
+        }
+    }
+
+    /**
+     * 记录的统计执行次数
+     *
+     * @return 执行次数
+     */
+    public long getExecutionCount() {
+        return executionCount.sum();
+    }
+
+    /**
+     * 累计遍历的数据行数
+     *
+     * @return 数据行数
+     */
+    public long getRowsScanned() {
+        return rowsScanned.sum();
+    }
+
+    /**
+     * 累计参与累加的数据行数
+     *
+     * @return 数据行数
+     */
+    public long getRowsMatched() {
+        return rowsMatched.sum();
+    }
+
+    /**
+     * 累计输出的时间段数量
+     *
+     * @return 时间段数量
+     */
+    public long getBuckets() {
+        return buckets.sum();
+    }
+
+    /**
+     * 累计输出的维度数量
+     *
+     * @return 维度数量
+     */
+    public long getDimensions() {
+        return dimensions.sum();
+    }
+
+    /**
+     * 阶段的记录次数
+     *
+     * @param phase 统计执行阶段
+     * @return 记录次数
+     */
+    public long getCount(StatisticsPhaseEnum phase) {
+        return phaseHistograms[phase.ordinal()].count.sum();
+    }
+
+    /**
+     * 阶段的累计耗时
+     *
+     * @param phase 统计执行阶段
+     * @return 耗时纳秒
+     */
+    public long getTotalNanos(StatisticsPhaseEnum phase) {
+        return phaseHistograms[phase.ordinal()].totalNanos.sum();
+    }
+
+    /**
+     * 阶段的最大耗时
+     *
+     * @param phase 统计执行阶段
+     * @return 耗时纳秒
+     */
+    public long getMaxNanos(StatisticsPhaseEnum phase) {
+        return phaseHistograms[phase.ordinal()].maxNanos.get();
+    }
+
+    /**
+     * 阶段内累计分配的字节数
+     *
+     * @param phase 统计执行阶段
+     * @return 分配的字节数,JVM不支持统计时为0
+     */
+    public long getAllocatedBytes(StatisticsPhaseEnum phase) {
+        return phaseHistograms[phase.ordinal()].allocatedBytes.sum();
+    }
+
+    /**
+     * 阶段耗时的百分位数(所在直方图桶的上界)
+     *
+     * @param phase      统计执行阶段
+     * @param percentile 百分位(0,100]
+     * @return 耗时纳秒,没有记录时为0
+     */
+    public long getPercentileNanos(StatisticsPhaseEnum phase, double percentile) {
+        AssertUtils.isTrue(percentile > 0 && percentile <= 100, "百分位需要在(0,100]之间");
+        PhaseHistogram histogram = phaseHistograms[phase.ordinal()];
+        long count = 0;
+        long[] bucketCounts = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            bucketCounts[i] = histogram.buckets.get(i);
+            count += bucketCounts[i];
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(count * percentile / 100);
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += bucketCounts[i];
+            if (seen >= rank) {
+                return Math.min(i == BUCKET_COUNT - 1 ? Long.MAX_VALUE : (1L << i) - 1, histogram.maxNanos.get());
+            }
+        }
+        return histogram.maxNanos.get();
+    }
+
+    /**
+     * 清空所有记录
+     */
+    public void reset() {
+        executionCount.reset();
+        rowsScanned.reset();
+        rowsMatched.reset();
+        buckets.reset();
+        dimensions.reset();
+        for (int i = 0; i < phaseHistograms.length; i++) {
+            phaseHistograms[i] = new PhaseHistogram();
+        }
+    }
+
+    /**
+     * 单个阶段的耗时直方图
+     */
+    private static final class PhaseHistogram {
+
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+
+        private final LongAdder count = new LongAdder();
+
+        private final LongAdder totalNanos = new LongAdder();
+
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        private final LongAdder allocatedBytes = new LongAdder();
+
+        private void record(long nanos, long bytes) {
+            buckets.incrementAndGet(BUCKET_COUNT - Long.numberOfLeadingZeros(nanos));
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+            if (bytes > 0) {
+                allocatedBytes.add(bytes);
+            }
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.hopetool.core.statistics;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.hopetool.core.datetime.support.EpochMillisDivision;
+import com.hopetool.core.json.JsonUtil;
+import com.hopetool.core.lang.AssertUtils;
+import com.hopetool.core.statistics.support.*;
+import lombok.SneakyThrows;
+
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * JSON流统计工具类
+ * <p>
+ * 以流式解析器逐个token读取JSON数组(或者每行一个JSON对象的NDJSON),只提取配置的事件时间、数据值、维度字段,
+ * 直接累加到累加器中,不创建数据对象,内存占用与文档大小无关;其它字段(包括嵌套的对象、数组)直接跳过。
+ * <p>
+ * 字段值可以是数值或者字符串,缺少字段、字段值为null或无法解析、维度不在标签备忘录中的对象不参与统计;
+ * 输入流由调用方关闭
+ *
+ * @author JunPzx
+ * @since 2024/1/15 10:00
+ */
+public class JsonStreamStatisticsUtils {
+
+    /**
+     * JSON流周期统计
+     *
+     * @param inputStream JSON输入流
+     * @param source      JSON流数据源配置
+     * @param config      列式统计配置
+     * @return 周期数据统计结果
+     */
+    public static CycleDataStatisticsResult cycleStatistics(InputStream inputStream, JsonStreamSourceConfig source, ColumnarStatisticsConfig config) {
+        AssertUtils.notNull(inputStream, "输入流不能为空");
+        AssertUtils.notNull(config, "配置对象不能为空").checkCycle();
+        AssertUtils.notNull(source, "数据源配置不能为空").checkSelf(true, config.getIsMultidimensional(), config.getStatisticsMode().isRequireSecondValue());
+        EpochMillisDivision division = ColumnarStatisticsUtils.division(config);
+        StatisticsDictionary dictionary = DelimitedFileStatisticsUtils.dictionary(config);
+        ColumnarAggregation aggregation = parse(inputStream, source, config, dictionary, division);
+        return ColumnarStatisticsUtils.buildCycleResult(division, aggregation, dictionary, config);
+    }
+
+
+    /**
+     * JSON流总数统计
+     *
+     * @param inputStream JSON输入流
+     * @param source      JSON流数据源配置
+     * @param config      列式统计配置
+     * @return 总数数据统计结果
+     */
+    public static TotalDataStatisticsResult totalStatistics(InputStream inputStream, JsonStreamSourceConfig source, ColumnarStatisticsConfig config) {
+        AssertUtils.notNull(inputStream, "输入流不能为空");
+        AssertUtils.notNull(config, "配置对象不能为空").checkSelf();
+        AssertUtils.notNull(source, "数据源配置不能为空").checkSelf(false, config.getIsMultidimensional(), config.getStatisticsMode().isRequireSecondValue());
+        StatisticsDictionary dictionary = DelimitedFileStatisticsUtils.dictionary(config);
+        ColumnarAggregation aggregation = parse(inputStream, source, config, dictionary, null);
+        return ColumnarStatisticsUtils.buildTotalResult(aggregation, dictionary, config);
+    }
+
+
+    /**
+     * 解析JSON流,根元素为数组时解析数组中的对象,否则解析根级别的对象序列
+     */
+    @SneakyThrows
+    private static ColumnarAggregation parse(InputStream inputStream, JsonStreamSourceConfig source, ColumnarStatisticsConfig config,
+                                             StatisticsDictionary dictionary, EpochMillisDivision division) {
+        ColumnarAggregation aggregation = ColumnarStatisticsUtils.newAggregation(config, division, ColumnarStatisticsUtils.dimensionCount(dictionary, config));
+        try (JsonParser parser = JsonUtil.createParser(inputStream)) {
+            parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+            ObjectParser objectParser = new ObjectParser(parser, source, config, dictionary, aggregation, division != null);
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.START_ARRAY) {
+                while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+                    objectParser.parse(token);
+                }
+            } else {
+                while (token != null) {
+                    objectParser.parse(token);
+                    token = parser.nextToken();
+                }
+            }
+        }
+        return aggregation;
+    }
+
+
+    /**
+     * 对象解析器,逐个字段读取对象并累加
+     */
+    private static final class ObjectParser {
+
+        private final JsonParser parser;
+
+        private final JsonStreamSourceConfig source;
+
+        private final StatisticsDictionary dictionary;
+
+        private final ColumnarAggregation aggregation;
+
+        private final ByteFieldDecoder decoder;
+
+        private final boolean multidimensional;
+
+        private final boolean requireSecondValue;
+
+        private final boolean cycle;
+
+        /**
+         * 字符串字段值的UTF-8编码缓冲区
+         */
+        private byte[] bytes = new byte[64];
+
+        private long epochMillis;
+
+        private double value;
+
+        private double secondValue;
+
+        private int dimensionCode;
+
+        private ObjectParser(JsonParser parser, JsonStreamSourceConfig source, ColumnarStatisticsConfig config, StatisticsDictionary dictionary,
+                             ColumnarAggregation aggregation, boolean cycle) {
+            this.parser = parser;
+            this.source = source;
+            this.dictionary = dictionary;
+            this.aggregation = aggregation;
+            this.decoder = new ByteFieldDecoder(config.getZoneId());
+            this.multidimensional = Boolean.TRUE.equals(config.getIsMultidimensional());
+            this.requireSecondValue = config.getStatisticsMode().isRequireSecondValue();
+            this.cycle = cycle;
+        }
+
+        /**
+         * 解析当前元素,不是对象的元素直接跳过
+         */
+        @SneakyThrows
+        private void parse(JsonToken token) {
+            if (token != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                return;
+            }
+            epochMillis = ByteFieldDecoder.INVALID_TIME;
+            value = Double.NaN;
+            secondValue = requireSecondValue ? Double.NaN : 0;
+            dimensionCode = -1;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.getCurrentName();
+                JsonToken valueToken = parser.nextToken();
+                if (valueToken == JsonToken.START_OBJECT || valueToken == JsonToken.START_ARRAY) {
+                    parser.skipChildren();
+                    continue;
+                }
+                // 同一个字段可以同时作为多个配置字段
+                if (cycle && name.equals(source.getTimeField())) {
+                    epochMillis = readEpochMillis(valueToken);
+                }
+                if (name.equals(source.getValueField())) {
+                    value = readDouble(valueToken);
+                }
+                if (requireSecondValue && name.equals(source.getSecondValueField())) {
+                    secondValue = readDouble(valueToken);
+                }
+                if (multidimensional && name.equals(source.getDimensionField())) {
+                    dimensionCode = readDimensionCode(valueToken);
+                }
+            }
+            if ((cycle && epochMillis == ByteFieldDecoder.INVALID_TIME) || (multidimensional && dimensionCode < 0)
+                    || Double.isNaN(value) || Double.isNaN(secondValue)) {
+                return;
+            }
+            aggregation.accept(epochMillis, multidimensional ? dimensionCode : 0, value, secondValue);
+        }
+
+        @SneakyThrows
+        private long readEpochMillis(JsonToken token) {
+            if (token == JsonToken.VALUE_NUMBER_INT) {
+                long time = parser.getLongValue();
+                return source.getTimeFormat() == EventTimeFormatEnum.EPOCH_SECONDS ? time * 1000 : time;
+            }
+            if (token == JsonToken.VALUE_STRING) {
+                int length = encodeText();
+                return decoder.parseEpochMillis(bytes, 0, length, source.getTimeFormat());
+            }
+            return ByteFieldDecoder.INVALID_TIME;
+        }
+
+        @SneakyThrows
+        private double readDouble(JsonToken token) {
+            if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+                return parser.getDoubleValue();
+            }
+            if (token == JsonToken.VALUE_STRING) {
+                int length = encodeText();
+                return decoder.parseDouble(bytes, 0, length);
+            }
+            return Double.NaN;
+        }
+
+        @SneakyThrows
+        private int readDimensionCode(JsonToken token) {
+            if (token == JsonToken.VALUE_STRING) {
+                int length = encodeText();
+                return dictionary.find(bytes, 0, length);
+            }
+            if (token == JsonToken.VALUE_NULL) {
+                return -1;
+            }
+            // 数值、布尔类型的维度按照文本查找
+            return dictionary.find(parser.getText());
+        }
+
+        /**
+         * 将当前字符串token按照UTF-8编码到缓冲区,不创建字符串
+         *
+         * @return 编码后的字节数
+         */
+        @SneakyThrows
+        private int encodeText() {
+            char[] chars = parser.getTextCharacters();
+            int offset = parser.getTextOffset();
+            int end = offset + parser.getTextLength();
+            if (bytes.length < (end - offset) * 3) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length << 1, (end - offset) * 3));
+            }
+            int length = 0;
+            for (int i = offset; i < end; i++) {
+                char c = chars[i];
+                if (c < 0x80) {
+                    bytes[length++] = (byte) c;
+                } else if (c < 0x800) {
+                    bytes[length++] = (byte) (0xC0 | (c >> 6));
+                    bytes[length++] = (byte) (0x80 | (c & 0x3F));
+                } else if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(chars[i + 1])) {
+                    int codePoint = Character.toCodePoint(c, chars[++i]);
+                    bytes[length++] = (byte) (0xF0 | (codePoint >> 18));
+                    bytes[length++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                    bytes[length++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                    bytes[length++] = (byte) (0x80 | (codePoint & 0x3F));
+                } else if (Character.isSurrogate(c)) {
+                    bytes[length++] = '?';
+                } else {
+                    bytes[length++] = (byte) (0xE0 | (c >> 12));
+                    bytes[length++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                    bytes[length++] = (byte) (0x80 | (c & 0x3F));
+                }
+            }
+            return length;
+        }
+    }
+}
@@ -0,0 +1,370 @@
+package com.hopetool.core.statistics;
+
+import com.hopetool.core.lang.AssertUtils;
+import com.hopetool.core.map.MapUtils;
+import com.hopetool.core.statistics.support.DataValueStatisticsModeEnum;
+import com.hopetool.core.statistics.support.HistogramBins;
+import com.hopetool.core.statistics.support.StatisticsAccumulator;
+import lombok.Getter;
+import lombok.SneakyThrows;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * 有内存预算的累加器表
+ * <p>
+ * 以(时间段下标, 维度)为键保存统计累加器,不保存数据本身;累加器估算占用超过内存预算时,
+ * 按照键的哈希值分区,将当前全部累加器的中间状态追加写入对应分区的本地临时文件并清空内存,
+ * 最后逐个分区读取并合并,同一个键只会落在同一个分区中,因此每次只需要在内存中合并一个分区。
+ * 合并分区时同样检查内存预算,超出时按照哈希值的下一组位将该分区再次分区并逐个合并,
+ * 直到哈希值的位用完(哈希值完全相同的键以及单个键无法再拆分)
+ *
+ * @author JunPzx
+ * @since 2024/1/12 9:40
+ */
+public class SpillableAccumulatorTable implements Closeable {
+
+    /**
+     * 每一层的溢写分区数量
+     */
+    private static final int PARTITION_COUNT = 16;
+
+    /**
+     * 每一层分区使用的哈希值位数
+     */
+    private static final int PARTITION_BITS = 4;
+
+    /**
+     * 最多的分区层数(32位哈希值每层使用4位)
+     */
+    private static final int MAX_PARTITION_LEVEL = Integer.SIZE / PARTITION_BITS - 1;
+
+    /**
+     * 单个累加器的估算占用(哈希表节点、键、累加器以及两个BigDecimal)
+     */
+    private static final long ACCUMULATOR_BYTES = 256;
+
+    /**
+     * 去重统计时单个去重值的估算占用
+     */
+    private static final long DISTINCT_VALUE_BYTES = 64;
+
+    private final DataValueStatisticsModeEnum statisticsMode;
+
+    private final HistogramBins histogramBins;
+
+    private final long memoryBudgetBytes;
+
+    private final Map<Key, StatisticsAccumulator> accumulators = MapUtils.newHashMap();
+
+    /**
+     * 当前内存中累加器的估算占用
+     */
+    @Getter
+    private long estimatedBytes;
+
+    /**
+     * 内存中累加器估算占用的峰值(包括合并分区时)
+     */
+    @Getter
+    private long peakEstimatedBytes;
+
+    /**
+     * 溢写次数
+     */
+    @Getter
+    private int spillCount;
+
+    /**
+     * 合并时超出预算而再次分区的次数
+     */
+    @Getter
+    private int repartitionCount;
+
+    /**
+     * 溢写临时目录
+     */
+    private Path spillDirectory;
+
+    public SpillableAccumulatorTable(DataValueStatisticsModeEnum statisticsMode, HistogramBins histogramBins, long memoryBudgetBytes) {
+        AssertUtils.notNull(statisticsMode, "统计方式不能为空");
+        AssertUtils.isTrue(memoryBudgetBytes > 0, "内存预算需要大于0");
+        this.statisticsMode = statisticsMode;
+        this.histogramBins = histogramBins;
+        this.memoryBudgetBytes = memoryBudgetBytes;
+    }
+
+    /**
+     * 累加一个数据值
+     *
+     * @param frameIndex   时间段下标(总数统计时为0)
+     * @param dimensionKey 维度
+     * @param value        数据值
+     * @param secondValue  第二数据值(比率、加权平均统计方式下使用)
+     */
+    public void accept(int frameIndex, Object dimensionKey, Object value, Object secondValue) {
+        Key key = new Key(frameIndex, dimensionKey);
+        StatisticsAccumulator accumulator = accumulators.get(key);
+        long before = 0;
+        if (accumulator == null) {
+            accumulator = new StatisticsAccumulator(statisticsMode, histogramBins);
+            accumulators.put(key, accumulator);
+        } else {
+            before = estimate(accumulator);
+        }
+        accumulator.accept(value, secondValue);
+        estimatedBytes += estimate(accumulator) - before;
+        peakEstimatedBytes = Math.max(peakEstimatedBytes, estimatedBytes);
+        if (estimatedBytes > memoryBudgetBytes) {
+            spill();
+        }
+    }
+
+    /**
+     * 合并全部累加器(包括已溢写的分区),逐个输出合并后的累加器
+     *
+     * @param consumer 合并后的累加器消费者
+     */
+    @SneakyThrows
+    public void drain(EntryConsumer consumer) {
+        if (spillDirectory == null) {
+            accumulators.forEach((key, accumulator) -> consumer.accept(key.frameIndex, key.dimensionKey, accumulator));
+            accumulators.clear();
+            estimatedBytes = 0;
+            return;
+        }
+        spill();
+        for (int partition = 0; partition < PARTITION_COUNT; partition++) {
+            drainPartition(partitionFile(partition), 0, consumer);
+        }
+    }
+
+    /**
+     * 合并一个分区文件并输出,超出内存预算时按照下一层哈希值位将剩余内容再次分区后逐个合并
+     *
+     * @param partitionFile 分区文件
+     * @param level         分区文件所在的层数(第一次溢写为0)
+     * @param consumer      合并后的累加器消费者
+     */
+    private void drainPartition(Path partitionFile, int level, EntryConsumer consumer) throws IOException {
+        if (!Files.exists(partitionFile)) {
+            return;
+        }
+        Map<Key, StatisticsAccumulator> merged = new HashMap<>();
+        long mergedBytes = 0;
+        boolean repartitioned = false;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(partitionFile)))) {
+            int frameIndex;
+            while ((frameIndex = readFrameIndex(in)) >= 0) {
+                Key key = new Key(frameIndex, StatisticsCheckpointUtils.readObject(in));
+                StatisticsAccumulator accumulator = StatisticsAccumulator.readFrom(in, histogramBins);
+                StatisticsAccumulator exist = merged.get(key);
+                if (exist == null) {
+                    merged.put(key, accumulator);
+                    mergedBytes += estimate(accumulator);
+                } else {
+                    long before = estimate(exist);
+                    exist.merge(accumulator);
+                    mergedBytes += estimate(exist) - before;
+                }
+                peakEstimatedBytes = Math.max(peakEstimatedBytes, mergedBytes);
+                if (mergedBytes > memoryBudgetBytes && level < MAX_PARTITION_LEVEL) {
+                    // 已合并的累加器以及剩余内容写入下一层分区,同一个键仍然只会落在同一个下一层分区中
+                    repartition(merged, in, partitionFile, level + 1);
+                    merged.clear();
+                    repartitioned = true;
+                    break;
+                }
+            }
+        }
+        Files.delete(partitionFile);
+        if (repartitioned) {
+            repartitionCount++;
+            for (int partition = 0; partition < PARTITION_COUNT; partition++) {
+                drainPartition(subPartitionFile(partitionFile, partition), level + 1, consumer);
+            }
+            return;
+        }
+        merged.forEach((key, accumulator) -> consumer.accept(key.frameIndex, key.dimensionKey, accumulator));
+    }
+
+    /**
+     * 将已合并的累加器以及分区文件的剩余内容按照指定层的哈希值位写入下一层分区文件
+     */
+    private void repartition(Map<Key, StatisticsAccumulator> merged, DataInputStream in, Path partitionFile, int level) throws IOException {
+        DataOutputStream[] outs = new DataOutputStream[PARTITION_COUNT];
+        try {
+            for (Map.Entry<Key, StatisticsAccumulator> entry : merged.entrySet()) {
+                write(outs, partitionFile, level, entry.getKey(), entry.getValue());
+            }
+            int frameIndex;
+            while ((frameIndex = readFrameIndex(in)) >= 0) {
+                Key key = new Key(frameIndex, StatisticsCheckpointUtils.readObject(in));
+                write(outs, partitionFile, level, key, StatisticsAccumulator.readFrom(in, histogramBins));
+            }
+        } finally {
+            closeAll(outs);
+        }
+    }
+
+    /**
+     * 删除溢写临时文件
+     */
+    @Override
+    @SneakyThrows
+    public void close() {
+        accumulators.clear();
+        if (spillDirectory == null) {
+            return;
+        }
+        // 包括合并中断时残留的下一层分区文件
+        try (Stream<Path> files = Files.list(spillDirectory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.deleteIfExists(file);
+            }
+        }
+        Files.deleteIfExists(spillDirectory);
+        spillDirectory = null;
+    }
+
+    /**
+     * 将内存中的累加器按照分区追加写入临时文件并清空内存
+     */
+    @SneakyThrows
+    private void spill() {
+        if (accumulators.isEmpty()) {
+            return;
+        }
+        if (spillDirectory == null) {
+            spillDirectory = Files.createTempDirectory("hopetool-statistics-spill");
+        }
+        DataOutputStream[] outs = new DataOutputStream[PARTITION_COUNT];
+        try {
+            for (Map.Entry<Key, StatisticsAccumulator> entry : accumulators.entrySet()) {
+                write(outs, null, 0, entry.getKey(), entry.getValue());
+            }
+        } finally {
+            closeAll(outs);
+        }
+        accumulators.clear();
+        estimatedBytes = 0;
+        spillCount++;
+    }
+
+    /**
+     * 按照指定层的哈希值位将累加器追加写入分区文件
+     *
+     * @param outs          各分区的输出流(按需打开)
+     * @param partitionFile 上一层分区文件,第一层时为null
+     * @param level         分区层数
+     */
+    private void write(DataOutputStream[] outs, Path partitionFile, int level, Key key, StatisticsAccumulator accumulator) throws IOException {
+        int partition = partition(key, level);
+        if (outs[partition] == null) {
+            Path file = partitionFile == null ? partitionFile(partition) : subPartitionFile(partitionFile, partition);
+            outs[partition] = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file.toFile(), true)));
+        }
+        outs[partition].writeInt(key.frameIndex);
+        StatisticsCheckpointUtils.writeObject(outs[partition], key.dimensionKey);
+        accumulator.writeTo(outs[partition]);
+    }
+
+    /**
+     * 键在指定层的分区,每一层使用扰动后哈希值的不同位
+     */
+    private static int partition(Key key, int level) {
+        int hash = key.hashCode() * 0x9E3779B9;
+        hash ^= hash >>> 16;
+        return (hash >>> (level * PARTITION_BITS)) & (PARTITION_COUNT - 1);
+    }
+
+    /**
+     * 单个累加器的估算占用
+     */
+    private static long estimate(StatisticsAccumulator accumulator) {
+        return ACCUMULATOR_BYTES
+                + (accumulator.getHistogram() == null ? 0 : accumulator.getHistogram().length * 8L)
+                + (accumulator.getDistinctValues() == null ? 0 : accumulator.getDistinctValues().size() * DISTINCT_VALUE_BYTES);
+    }
+
+    private static void closeAll(DataOutputStream[] outs) throws IOException {
+        for (DataOutputStream out : outs) {
+            if (out != null) {
+                out.close();
+            }
+        }
+    }
+
+    private Path partitionFile(int partition) {
+        return spillDirectory.resolve("partition-" + partition);
+    }
+
+    private static Path subPartitionFile(Path partitionFile, int partition) {
+        return partitionFile.resolveSibling(partitionFile.getFileName() + "-" + partition);
+    }
+
+    /**
+     * 读取时间段下标,文件结束时返回-1
+     */
+    private static int readFrameIndex(DataInputStream in) throws IOException {
+        try {
+            return in.readInt();
+        } catch (EOFException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * 合并后的累加器消费者
+     */
+    @FunctionalInterface
+    public interface EntryConsumer {
+
+        /**
+         * 消费合并后的累加器
+         *
+         * @param frameIndex   时间段下标
+         * @param dimensionKey 维度
+         * @param accumulator  累加器
+         */
+        void accept(int frameIndex, Object dimensionKey, StatisticsAccumulator accumulator);
+    }
+
+    /**
+     * 累加器键
+     */
+    private static final class Key {
+
+        private final int frameIndex;
+
+        private final Object dimensionKey;
+
+        private Key(int frameIndex, Object dimensionKey) {
+            this.frameIndex = frameIndex;
+            this.dimensionKey = dimensionKey;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return frameIndex == key.frameIndex && Objects.equals(dimensionKey, key.dimensionKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Objects.hashCode(dimensionKey) + frameIndex;
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.hopetool.core.statistics;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * 统计状态二进制读写工具类
+ * <p>
+ * 用于统计累加器状态的紧凑二进制快照(检查点、溢写文件),常见类型使用类型标记+定长/变长编码写入,
+ * 其它类型使用Java序列化写入(需要实现{@link Serializable})
+ *
+ * @author JunPzx
+ * @since 2024/1/11 10:20
+ */
+public class StatisticsCheckpointUtils {
+
+    private static final byte TYPE_NULL = 0;
+    private static final byte TYPE_STRING = 1;
+    private static final byte TYPE_INTEGER = 2;
+    private static final byte TYPE_LONG = 3;
+    private static final byte TYPE_DOUBLE = 4;
+    private static final byte TYPE_BIG_DECIMAL = 5;
+    private static final byte TYPE_BOOLEAN = 6;
+    private static final byte TYPE_LOCAL_DATE_TIME = 7;
+    private static final byte TYPE_SERIALIZABLE = 9;
+
+    /**
+     * 原子性地写入文件: 先写入同目录下的临时文件并刷盘,再原子移动覆盖目标文件,
+     * 保证目标文件要么是旧的完整快照,要么是新的完整快照
+     *
+     * @param file    目标文件
+     * @param content 文件内容
+     * @throws IOException 写入失败
+     */
+    public static void writeAtomically(Path file, byte[] content) throws IOException {
+        Path absoluteFile = file.toAbsolutePath();
+        Path directory = absoluteFile.getParent();
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+        Path tempFile = Files.createTempFile(directory, absoluteFile.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buffer = ByteBuffer.wrap(content);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            try {
+                Files.move(tempFile, absoluteFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, absoluteFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * 写入BigDecimal(精度+非标度值)
+     */
+    public static void writeBigDecimal(DataOutput out, BigDecimal value) throws IOException {
+        out.writeInt(value.scale());
+        byte[] unscaledValue = value.unscaledValue().toByteArray();
+        out.writeInt(unscaledValue.length);
+        out.write(unscaledValue);
+    }
+
+    /**
+     * 读取BigDecimal
+     */
+    public static BigDecimal readBigDecimal(DataInput in) throws IOException {
+        int scale = in.readInt();
+        byte[] unscaledValue = new byte[in.readInt()];
+        in.readFully(unscaledValue);
+        return new BigDecimal(new BigInteger(unscaledValue), scale);
+    }
+
+    /**
+     * 写入LocalDateTime(纪元日+当天纳秒)
+     */
+    public static void writeLocalDateTime(DataOutput out, LocalDateTime value) throws IOException {
+        out.writeLong(value.toLocalDate().toEpochDay());
+        out.writeLong(value.toLocalTime().toNanoOfDay());
+    }
+
+    /**
+     * 读取LocalDateTime
+     */
+    public static LocalDateTime readLocalDateTime(DataInput in) throws IOException {
+        LocalDate date = LocalDate.ofEpochDay(in.readLong());
+        return LocalDateTime.of(date, LocalTime.ofNanoOfDay(in.readLong()));
+    }
+
+    /**
+     * 写入对象(类型标记+值)
+     *
+     * @param out   输出
+     * @param value 对象
+     * @throws IOException 写入失败,或对象类型不支持序列化
+     */
+    public static void writeObject(DataOutput out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(TYPE_NULL);
+        } else if (value instanceof String) {
+            out.writeByte(TYPE_STRING);
+            writeString(out, (String) value);
+        } else if (value instanceof Integer) {
+            out.writeByte(TYPE_INTEGER);
+            out.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            out.writeByte(TYPE_LONG);
+            out.writeLong((Long) value);
+        } else if (value instanceof Double) {
+            out.writeByte(TYPE_DOUBLE);
+            out.writeDouble((Double) value);
+        } else if (value instanceof BigDecimal) {
+            out.writeByte(TYPE_BIG_DECIMAL);
+            writeBigDecimal(out, (BigDecimal) value);
+        } else if (value instanceof Boolean) {
+            out.writeByte(TYPE_BOOLEAN);
+            out.writeBoolean((Boolean) value);
+        } else if (value instanceof LocalDateTime) {
+            out.writeByte(TYPE_LOCAL_DATE_TIME);
+            writeLocalDateTime(out, (LocalDateTime) value);
+        } else if (value instanceof Serializable) {
+            out.writeByte(TYPE_SERIALIZABLE);
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream objectOut = new ObjectOutputStream(bytes)) {
+                objectOut.writeObject(value);
+            }
+            out.writeInt(bytes.size());
+            out.write(bytes.toByteArray());
+        } else {
+            throw new NotSerializableException(value.getClass().getName());
+        }
+    }
+
+    /**
+     * 读取对象
+     *
+     * @param in 输入
+     * @return 对象
+     * @throws IOException 读取失败
+     */
+    public static Object readObject(DataInput in) throws IOException {
+        byte type = in.readByte();
+        switch (type) {
+            case TYPE_NULL:
+                return null;
+            case TYPE_STRING:
+                return readString(in);
+            case TYPE_INTEGER:
+                return in.readInt();
+            case TYPE_LONG:
+                return in.readLong();
+            case TYPE_DOUBLE:
+                return in.readDouble();
+            case TYPE_BIG_DECIMAL:
+                return readBigDecimal(in);
+            case TYPE_BOOLEAN:
+                return in.readBoolean();
+            case TYPE_LOCAL_DATE_TIME:
+                return readLocalDateTime(in);
+            case TYPE_SERIALIZABLE:
+                byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                try (ObjectInputStream objectIn = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+                    return objectIn.readObject();
+                } catch (ClassNotFoundException e) {
+                    throw new InvalidClassException(e.getMessage());
+                }
+            default:
+                throw new StreamCorruptedException("UNKNOWN TYPE: " + type);
+        }
+    }
+
+    /**
+     * 写入字符串(不受{@link DataOutput#writeUTF(String)} 64KB长度限制)
+     */
+    private static void writeString(DataOutput out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * 读取字符串
+     */
+    private static String readString(DataInput in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
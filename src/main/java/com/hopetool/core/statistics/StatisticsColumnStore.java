@@ -0,0 +1,211 @@
+package com.hopetool.core.statistics;
+
+import com.hopetool.core.collection.ListUtils;
+import com.hopetool.core.lang.AssertUtils;
+import lombok.Getter;
+import lombok.SneakyThrows;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * 堆外列式统计数据存储
+ * <p>
+ * 统计数据按列保存在堆外的直接内存或内存映射文件中: 事件时间(纪元毫秒,long)、数据值(double)、
+ * 第二数据值(double)、维度编码(int,由{@link StatisticsDictionary}分配),Java堆中只保留分块的引用,
+ * 数据量增长不会增加GC的扫描和复制压力。
+ * <p>
+ * 数据按块追加,每块{@link #CHUNK_ROWS}行,块内按列连续存放;只支持单线程追加,追加完成后可以多线程只读扫描
+ *
+ * @author JunPzx
+ * @since 2024/1/13 10:20
+ */
+public class StatisticsColumnStore implements Closeable {
+
+    /**
+     * 每块的行数
+     */
+    public static final int CHUNK_ROWS = 1 << 16;
+
+    /**
+     * 每行占用的字节数: 事件时间8 + 数据值8 + 第二数据值8 + 维度编码4
+     */
+    private static final int ROW_BYTES = 28;
+
+    private static final int VALUE_OFFSET = CHUNK_ROWS * 8;
+
+    private static final int SECOND_VALUE_OFFSET = CHUNK_ROWS * 16;
+
+    private static final int DIMENSION_OFFSET = CHUNK_ROWS * 24;
+
+    /**
+     * 维度字典
+     */
+    @Getter
+    private final StatisticsDictionary dictionary;
+
+    /**
+     * 内存映射文件目录,为空时使用直接内存
+     */
+    private final Path mappedDirectory;
+
+    private final List<ByteBuffer> chunks = ListUtils.newArrayList();
+
+    /**
+     * 内存映射模式下各分块的映射文件(每个存储单独创建,同一目录下的多个存储互不影响)
+     */
+    private final List<Path> chunkFiles = ListUtils.newArrayList();
+
+    /**
+     * 总行数
+     */
+    @Getter
+    private long size;
+
+    private StatisticsColumnStore(StatisticsDictionary dictionary, Path mappedDirectory) {
+        this.dictionary = AssertUtils.notNull(dictionary, "维度字典不能为空");
+        this.mappedDirectory = mappedDirectory;
+    }
+
+    /**
+     * 创建使用直接内存的列式存储
+     *
+     * @return 列式存储
+     */
+    public static StatisticsColumnStore allocateDirect() {
+        return new StatisticsColumnStore(new StatisticsDictionary(), null);
+    }
+
+    /**
+     * 创建使用内存映射文件的列式存储(数据量超过物理内存时由操作系统换页)
+     *
+     * @param directory 映射文件目录
+     * @return 列式存储
+     */
+    @SneakyThrows
+    public static StatisticsColumnStore mapped(Path directory) {
+        AssertUtils.notNull(directory, "映射文件目录不能为空");
+        Files.createDirectories(directory);
+        return new StatisticsColumnStore(new StatisticsDictionary(), directory);
+    }
+
+    /**
+     * 追加一行数据
+     *
+     * @param epochMillis   事件时间(纪元毫秒)
+     * @param value         数据值
+     * @param secondValue   第二数据值(比率的分母,加权平均的权重,不需要时传0)
+     * @param dimensionCode 维度编码(单维度时传0)
+     */
+    public void append(long epochMillis, double value, double secondValue, int dimensionCode) {
+        int row = (int) (size & (CHUNK_ROWS - 1));
+        if (row == 0) {
+            chunks.add(allocateChunk(chunks.size()));
+        }
+        ByteBuffer chunk = chunks.get(chunks.size() - 1);
+        chunk.putLong(row << 3, epochMillis);
+        chunk.putDouble(VALUE_OFFSET + (row << 3), value);
+        chunk.putDouble(SECOND_VALUE_OFFSET + (row << 3), secondValue);
+        chunk.putInt(DIMENSION_OFFSET + (row << 2), dimensionCode);
+        size++;
+    }
+
+    /**
+     * 追加一行数据,维度值通过字典编码
+     *
+     * @param epochMillis 事件时间(纪元毫秒)
+     * @param value       数据值
+     * @param secondValue 第二数据值
+     * @param dimension   维度值
+     */
+    public void append(long epochMillis, double value, double secondValue, String dimension) {
+        append(epochMillis, value, secondValue, dictionary.codeOf(dimension));
+    }
+
+    /**
+     * 块数量
+     *
+     * @return 块数量
+     */
+    public int getChunkCount() {
+        return chunks.size();
+    }
+
+    /**
+     * 块中的行数
+     *
+     * @param chunkIndex 块下标
+     * @return 行数
+     */
+    public int getChunkRows(int chunkIndex) {
+        return chunkIndex < chunks.size() - 1 ? CHUNK_ROWS : (int) (size - (long) chunkIndex * CHUNK_ROWS);
+    }
+
+    /**
+     * 获取事件时间(纪元毫秒)
+     */
+    public long getEpochMillis(int chunkIndex, int row) {
+        return chunks.get(chunkIndex).getLong(row << 3);
+    }
+
+    /**
+     * 获取数据值
+     */
+    public double getValue(int chunkIndex, int row) {
+        return chunks.get(chunkIndex).getDouble(VALUE_OFFSET + (row << 3));
+    }
+
+    /**
+     * 获取第二数据值
+     */
+    public double getSecondValue(int chunkIndex, int row) {
+        return chunks.get(chunkIndex).getDouble(SECOND_VALUE_OFFSET + (row << 3));
+    }
+
+    /**
+     * 获取维度编码
+     */
+    public int getDimensionCode(int chunkIndex, int row) {
+        return chunks.get(chunkIndex).getInt(DIMENSION_OFFSET + (row << 2));
+    }
+
+    /**
+     * 释放分块引用,内存映射模式下删除映射文件
+     */
+    @Override
+    public void close() {
+        chunks.clear();
+        size = 0;
+        for (Path chunkFile : chunkFiles) {
+            // 部分平台上映射未被回收前无法删除文件,删除失败时由目录的清理策略处理
+            try {
+                Files.deleteIfExists(chunkFile);
+            } catch (IOException ignored) {
+            }
+        }
+        chunkFiles.clear();
+    }
+
+    /**
+     * 分配一个块
+     */
+    @SneakyThrows
+    private ByteBuffer allocateChunk(int chunkIndex) {
+        if (mappedDirectory == null) {
+            return ByteBuffer.allocateDirect(CHUNK_ROWS * ROW_BYTES).order(ByteOrder.nativeOrder());
+        }
+        // 文件名唯一,不会映射到其他存储(或之前未关闭的存储)的文件
+        Path chunkFile = Files.createTempFile(mappedDirectory, "chunk-" + chunkIndex + "-", ".col");
+        chunkFiles.add(chunkFile);
+        try (FileChannel channel = FileChannel.open(chunkFile, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) CHUNK_ROWS * ROW_BYTES).order(ByteOrder.nativeOrder());
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.hopetool.core.statistics;
+
+import com.hopetool.core.collection.ListUtils;
+import com.hopetool.core.map.MapUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * 统计维度字典
+ * <p>
+ * 将维度值编码为从0开始连续的int编码,列式存储中只保存编码,统计时以编码作为数组下标定位累加器;
+ * 解析文件时可以通过{@link #find(byte[], int, int)}直接以UTF-8字节查找编码,不需要为每行数据创建字符串
+ *
+ * @author JunPzx
+ * @since 2024/1/13 10:05
+ */
+public class StatisticsDictionary {
+
+    /**
+     * 维度值 -> 编码
+     */
+    private final HashMap<String, Integer> codes = MapUtils.newHashMap();
+
+    /**
+     * 编码 -> 维度值
+     */
+    private final List<String> values = ListUtils.newArrayList();
+
+    /**
+     * 已编码的维度值数量
+     */
+    private volatile int size;
+
+    /**
+     * 字节查找索引(按需重建,重建后只读,可以无锁并发查找)
+     */
+    private volatile ByteIndex byteIndex;
+
+    /**
+     * 获取维度值的编码,不存在时分配新的编码
+     *
+     * @param value 维度值
+     * @return 编码
+     */
+    public synchronized int codeOf(String value) {
+        Integer code = codes.get(value);
+        if (code == null) {
+            code = values.size();
+            codes.put(value, code);
+            values.add(value);
+            size = values.size();
+        }
+        return code;
+    }
+
+    /**
+     * 查找维度值的编码(不分配新的编码)
+     *
+     * @param value 维度值
+     * @return 编码,不存在时返回-1
+     */
+    public synchronized int find(String value) {
+        Integer code = codes.get(value);
+        return code == null ? -1 : code;
+    }
+
+    /**
+     * 获取编码对应的维度值
+     *
+     * @param code 编码
+     * @return 维度值
+     */
+    public synchronized String valueOf(int code) {
+        return values.get(code);
+    }
+
+    /**
+     * 字典大小
+     *
+     * @return 已编码的维度值数量
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 以UTF-8字节查找维度值的编码(不分配新的编码,不创建字符串)
+     *
+     * @param bytes  字节数组
+     * @param offset 维度值开始位置
+     * @param length 维度值字节长度
+     * @return 编码,不存在时返回-1
+     */
+    public int find(byte[] bytes, int offset, int length) {
+        ByteIndex index = byteIndex;
+        if (index == null || index.size != size) {
+            index = rebuildByteIndex();
+        }
+        int mask = index.table.length - 1;
+        int slot = hash(bytes, offset, length) & mask;
+        while (true) {
+            int code = index.table[slot] - 1;
+            if (code < 0) {
+                return -1;
+            }
+            if (equals(index.encodedValues[code], bytes, offset, length)) {
+                return code;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * 重建字节查找索引(开放寻址,负载因子不超过0.5)
+     */
+    private synchronized ByteIndex rebuildByteIndex() {
+        ByteIndex index = byteIndex;
+        if (index != null && index.size == size) {
+            return index;
+        }
+        int capacity = Integer.highestOneBit(Math.max(values.size(), 1) * 4 - 1) << 1;
+        int[] table = new int[capacity];
+        byte[][] encodedValues = new byte[values.size()][];
+        for (int code = 0; code < values.size(); code++) {
+            byte[] encoded = values.get(code).getBytes(StandardCharsets.UTF_8);
+            encodedValues[code] = encoded;
+            int slot = hash(encoded, 0, encoded.length) & (capacity - 1);
+            while (table[slot] != 0) {
+                slot = (slot + 1) & (capacity - 1);
+            }
+            table[slot] = code + 1;
+        }
+        index = new ByteIndex(values.size(), table, encodedValues);
+        byteIndex = index;
+        return index;
+    }
+
+    private static int hash(byte[] bytes, int offset, int length) {
+        int hash = 0x811c9dc5;
+        for (int i = offset; i < offset + length; i++) {
+            hash = (hash ^ bytes[i]) * 0x01000193;
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    private static boolean equals(byte[] encoded, byte[] bytes, int offset, int length) {
+        if (encoded.length != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (encoded[i] != bytes[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 字节查找索引
+     */
+    private static final class ByteIndex {
+
+        private final int size;
+
+        /**
+         * 开放寻址表,值为编码+1,0表示空槽
+         */
+        private final int[] table;
+
+        private final byte[][] encodedValues;
+
+        private ByteIndex(int size, int[] table, byte[][] encodedValues) {
+            this.size = size;
+            this.table = table;
+            this.encodedValues = encodedValues;
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package com.hopetool.core.statistics;
+
+import com.hopetool.core.lang.AssertUtils;
+import com.hopetool.core.map.MapUtils;
+import com.hopetool.core.statistics.support.StatisticsAccumulator;
+import com.hopetool.core.util.JdkUtil;
+import lombok.SneakyThrows;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+
+/**
+ * 统计任务执行器
+ * <p>
+ * 统计数据来自多个较慢的数据源(例如每个店铺、每个租户一个数据源)时,每个数据源一个任务读取并累加,再合并部分结果。
+ * JDK21及以上使用虚拟线程(每个任务一个虚拟线程,阻塞读取不占用平台线程),否则使用有界的平台线程池。
+ * <p>
+ * 一次调用中的任务构成一个作用域:任一任务失败时中断其余任务,等待全部任务结束后抛出第一个异常;
+ * 全部成功时按照数据源顺序合并结果,调用返回时不存在仍在运行的任务。
+ * 平台线程池中的任务不应再次调用同一个执行器(可能因线程耗尽而死锁)
+ *
+ * @author JunPzx
+ * @since 2024/1/19 16:00
+ */
+public final class StatisticsExecutor implements AutoCloseable {
+
+    private static final AtomicInteger THREAD_NUMBER = new AtomicInteger();
+
+    private final ExecutorService executorService;
+
+    private final boolean virtual;
+
+    private StatisticsExecutor(ExecutorService executorService, boolean virtual) {
+        this.executorService = executorService;
+        this.virtual = virtual;
+    }
+
+    /**
+     * 创建执行器,平台线程池的线程数为处理器数量
+     *
+     * @return 统计任务执行器
+     */
+    public static StatisticsExecutor create() {
+        return create(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * 创建执行器,JDK21及以上使用虚拟线程,否则使用有界的平台线程池
+     *
+     * @param maxThreads 平台线程池的最大线程数(使用虚拟线程时不限制)
+     * @return 统计任务执行器
+     */
+    public static StatisticsExecutor create(int maxThreads) {
+        AssertUtils.isTrue(maxThreads > 0, "最大线程数需要大于0");
+        ExecutorService virtualExecutor = newVirtualThreadExecutor();
+        if (virtualExecutor != null) {
+            return new StatisticsExecutor(virtualExecutor, true);
+        }
+        return createPlatform(maxThreads);
+    }
+
+    /**
+     * 创建使用有界平台线程池的执行器(空闲线程60秒后回收)
+     *
+     * @param maxThreads 最大线程数
+     * @return 统计任务执行器
+     */
+    public static StatisticsExecutor createPlatform(int maxThreads) {
+        AssertUtils.isTrue(maxThreads > 0, "最大线程数需要大于0");
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(maxThreads, maxThreads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "statistics-executor-" + THREAD_NUMBER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        pool.allowCoreThreadTimeOut(true);
+        return new StatisticsExecutor(pool, false);
+    }
+
+    /**
+     * 每个数据源执行一个任务,按照数据源顺序返回结果
+     *
+     * @param sources 数据源
+     * @param task    任务(读取数据源并统计)
+     * @return 任务结果
+     */
+    @SneakyThrows
+    public <S, R> List<R> invokeAll(Collection<? extends S> sources, Function<? super S, ? extends R> task) {
+        AssertUtils.notNull(sources, "数据源不能为空");
+        AssertUtils.notNull(task, "任务不能为空");
+        Scope<S, R> scope = new Scope<>(sources, task);
+        scope.fork(executorService);
+        scope.join();
+        Throwable failure = scope.failure.get();
+        if (failure != null) {
+            throw failure;
+        }
+        return Arrays.asList(scope.results);
+    }
+
+    /**
+     * 每个数据源执行一个任务,按照数据源顺序合并结果
+     *
+     * @param sources  数据源
+     * @param task     任务(读取数据源并统计)
+     * @param combiner 结果合并方法
+     * @return 合并后的结果,数据源为空时返回null
+     */
+    public <S, R> R invokeAll(Collection<? extends S> sources, Function<? super S, ? extends R> task, BinaryOperator<R> combiner) {
+        AssertUtils.notNull(combiner, "合并方法不能为空");
+        R combined = null;
+        for (R result : invokeAll(sources, task)) {
+            combined = combined == null ? result : combiner.apply(combined, result);
+        }
+        return combined;
+    }
+
+    /**
+     * 每个数据源执行一个任务,任务返回按照维度(或时间段等)分组的部分累加器,合并相同键的累加器
+     *
+     * @param sources 数据源
+     * @param task    任务(读取数据源并累加)
+     * @return 合并后的累加器
+     */
+    public <S, K> Map<K, StatisticsAccumulator> invokeAllAndMerge(Collection<? extends S> sources,
+                                                                 Function<? super S, ? extends Map<K, StatisticsAccumulator>> task) {
+        Map<K, StatisticsAccumulator> merged = MapUtils.newHashMap();
+        for (Map<K, StatisticsAccumulator> partial : invokeAll(sources, task)) {
+            if (partial != null) {
+                partial.forEach((key, accumulator) -> merged.merge(key, accumulator, StatisticsAccumulator::merge));
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * 是否使用虚拟线程
+     *
+     * @return 是否使用虚拟线程
+     */
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    /**
+     * 关闭执行器,已经开始的调用不受影响
+     */
+    @Override
+    public void close() {
+        executorService.shutdown();
+    }
+
+    /**
+     * JDK21及以上通过反射创建虚拟线程执行器(基础实现以JDK8编译),不支持时返回null
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        if (JdkUtil.JVM_VERSION < 21) {
+            return null;
+        }
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 一次调用的任务作用域
+     */
+    private static final class Scope<S, R> {
+
+        private final List<Subtask> subtasks;
+
+        private final R[] results;
+
+        private final Function<? super S, ? extends R> task;
+
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        private final CountDownLatch latch;
+
+        @SuppressWarnings("unchecked")
+        private Scope(Collection<? extends S> sources, Function<? super S, ? extends R> task) {
+            this.task = task;
+            this.subtasks = new ArrayList<>(sources.size());
+            for (S source : sources) {
+                subtasks.add(new Subtask(subtasks.size(), source));
+            }
+            this.results = (R[]) new Object[subtasks.size()];
+            this.latch = new CountDownLatch(subtasks.size());
+        }
+
+        private void fork(ExecutorService executorService) {
+            for (int i = 0; i < subtasks.size(); i++) {
+                try {
+                    executorService.execute(subtasks.get(i));
+                } catch (RejectedExecutionException e) {
+                    fail(e);
+                    for (int j = i; j < subtasks.size(); j++) {
+                        latch.countDown();
+                    }
+                    return;
+                }
+            }
+        }
+
+        /**
+         * 等待全部任务结束,调用线程被中断时中断全部任务,等待结束后恢复中断状态
+         */
+        private void join() {
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    latch.await();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                    fail(e);
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        /**
+         * 记录第一个异常并中断其余正在运行的任务,尚未开始的任务不再执行
+         */
+        private void fail(Throwable throwable) {
+            if (failure.compareAndSet(null, throwable)) {
+                subtasks.forEach(Subtask::interrupt);
+            }
+        }
+
+        private final class Subtask implements Runnable {
+
+            private final int index;
+
+            private final S source;
+
+            private Thread runner;
+
+            private Subtask(int index, S source) {
+                this.index = index;
+                this.source = source;
+            }
+
+            @Override
+            public void run() {
+                try {
+                    synchronized (this) {
+                        if (failure.get() != null) {
+                            return;
+                        }
+                        runner = Thread.currentThread();
+                    }
+                    results[index] = task.apply(source);
+                } catch (Throwable e) {
+                    fail(e);
+                } finally {
+                    synchronized (this) {
+                        if (runner != null) {
+                            runner = null;
+                            // 清除作用域取消时设置的中断状态,避免影响线程池中的下一个任务
+                            Thread.interrupted();
+                        }
+                    }
+                    latch.countDown();
+                }
+            }
+
+            private synchronized void interrupt() {
+                if (runner != null) {
+                    runner.interrupt();
+                }
+            }
+        }
+    }
+}
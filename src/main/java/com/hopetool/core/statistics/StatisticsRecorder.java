@@ -0,0 +1,152 @@
+package com.hopetool.core.statistics;
+
+import com.hopetool.core.collection.ListUtils;
+import com.hopetool.core.statistics.support.*;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * 统计执行记录器
+ * <p>
+ * 各阶段互斥,进入下一个阶段时结束上一个阶段的计时;没有配置度量扩展点时使用不记录任何数据的共享实例,
+ * 所有方法直接返回,不调用{@link System#nanoTime()}也不创建对象。每次统计执行一个实例(非线程安全)
+ *
+ * @author JunPzx
+ * @since 2024/1/16 9:30
+ */
+final class StatisticsRecorder {
+
+    /**
+     * 不记录任何数据的实例
+     */
+    private static final StatisticsRecorder DISABLED = new StatisticsRecorder(null, null);
+
+    /**
+     * 支持统计线程分配字节数的线程管理接口,不支持时为空
+     */
+    private static final com.sun.management.ThreadMXBean ALLOCATION_MX_BEAN = allocationMxBean();
+
+    private static final StatisticsPhaseEnum[] PHASES = StatisticsPhaseEnum.values();
+
+    private final StatisticsInstrumentation instrumentation;
+
+    private final String operation;
+
+    private final long[] phaseNanos;
+
+    private final long[] phaseAllocatedBytes;
+
+    private StatisticsPhaseEnum currentPhase;
+
+    private long phaseBeginNanos;
+
+    private long phaseBeginBytes;
+
+    private long rowsScanned;
+
+    private long rowsMatched;
+
+    private StatisticsRecorder(StatisticsInstrumentation instrumentation, String operation) {
+        this.instrumentation = instrumentation;
+        this.operation = operation;
+        this.phaseNanos = instrumentation == null ? null : new long[PHASES.length];
+        this.phaseAllocatedBytes = instrumentation == null || ALLOCATION_MX_BEAN == null ? null : new long[PHASES.length];
+    }
+
+    /**
+     * 开始记录一次统计执行
+     *
+     * @param instrumentation 度量扩展点
+     * @param operation       统计方法名
+     * @return 统计执行记录器
+     */
+    static StatisticsRecorder start(StatisticsInstrumentation instrumentation, String operation) {
+        if (instrumentation == null || instrumentation == StatisticsInstrumentation.NOOP) {
+            return DISABLED;
+        }
+        return new StatisticsRecorder(instrumentation, operation);
+    }
+
+    /**
+     * 进入阶段(结束当前阶段的计时)
+     *
+     * @param phase 统计执行阶段,为空时只结束当前阶段
+     */
+    void enter(StatisticsPhaseEnum phase) {
+        if (instrumentation == null) {
+            return;
+        }
+        long nanos = System.nanoTime();
+        long bytes = phaseAllocatedBytes == null ? 0 : ALLOCATION_MX_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+        if (currentPhase != null) {
+            phaseNanos[currentPhase.ordinal()] += nanos - phaseBeginNanos;
+            if (phaseAllocatedBytes != null) {
+                phaseAllocatedBytes[currentPhase.ordinal()] += bytes - phaseBeginBytes;
+            }
+        }
+        currentPhase = phase;
+        phaseBeginNanos = nanos;
+        phaseBeginBytes = bytes;
+    }
+
+    /**
+     * 累计数据行数
+     *
+     * @param scanned 遍历的数据行数
+     * @param matched 参与累加的数据行数
+     */
+    void addRows(long scanned, long matched) {
+        rowsScanned += scanned;
+        rowsMatched += matched;
+    }
+
+    /**
+     * 结束周期统计执行并回调度量扩展点
+     *
+     * @param result 周期统计结果
+     */
+    void finish(CycleDataStatisticsResult result) {
+        if (instrumentation == null) {
+            return;
+        }
+        long dimensions = 0;
+        if (!ListUtils.isEmpty(result.getDetails())) {
+            for (CycleStatisticsItemDetail detail : result.getDetails()) {
+                dimensions = Math.max(dimensions, detail.getDetails() == null ? 0 : detail.getDetails().size());
+            }
+        }
+        finish(ListUtils.isEmpty(result.getDetails()) ? 0 : result.getDetails().size(), dimensions);
+    }
+
+    /**
+     * 结束总数统计执行并回调度量扩展点
+     *
+     * @param result 总数统计结果
+     */
+    void finish(TotalDataStatisticsResult result) {
+        if (instrumentation == null) {
+            return;
+        }
+        finish(1, ListUtils.isEmpty(result.getDetails()) ? 0 : result.getDetails().size());
+    }
+
+    private void finish(long buckets, long dimensions) {
+        enter(null);
+        instrumentation.record(new StatisticsExecutionMetrics(operation, phaseNanos, phaseAllocatedBytes, rowsScanned, rowsMatched, buckets, dimensions));
+    }
+
+    private static com.sun.management.ThreadMXBean allocationMxBean() {
+        try {
+            java.lang.management.ThreadMXBean threadMxBean = ManagementFactory.getThreadMXBean();
+            if (threadMxBean instanceof com.sun.management.ThreadMXBean) {
+                com.sun.management.ThreadMXBean allocationMxBean = (com.sun.management.ThreadMXBean) threadMxBean;
+                if (allocationMxBean.isThreadAllocatedMemorySupported() && allocationMxBean.isThreadAllocatedMemoryEnabled()) {
+                    return allocationMxBean;
+                }
+            }
+        } catch (LinkageError | UnsupportedOperationException e) {
+            // 非HotSpot虚拟机不支持统计线程分配字节数
+        }
+        return null;
+    }
+}
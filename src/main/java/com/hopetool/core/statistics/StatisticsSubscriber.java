@@ -0,0 +1,211 @@
+package com.hopetool.core.statistics;
+
+import com.hopetool.core.lang.AssertUtils;
+import com.hopetool.core.statistics.support.CycleStatisticsItemDetail;
+import com.hopetool.core.statistics.support.StreamingStatisticsConfig;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+/**
+ * 响应式流统计订阅者
+ * <p>
+ * 方法与Reactive Streams/{@code java.util.concurrent.Flow}的Subscriber一致,但不依赖任何响应式库,
+ * 通过方法引用适配上游的订阅,例如:
+ * <pre>{@code
+ * // Flow.Subscriber或Reactor的BaseSubscriber中
+ * public void onSubscribe(Subscription s) {
+ *     statisticsSubscriber.onSubscribe(s::request, s::cancel);
+ * }
+ * }</pre>
+ * 数据由{@link StreamingStatisticsAggregator}按照事件时间聚合,时间段关闭时同步输出到下游,不缓存数据;
+ * 每次向上游请求{@code prefetch}条数据,消费其中的四分之三后再补充请求,下游处理缓慢时上游的请求随之变慢(背压)。
+ * 处理数据或输出时出现异常会取消上游订阅并通知下游错误;上游完成时关闭全部未关闭的时间段后通知下游完成
+ *
+ * @author JunPzx
+ * @since 2024/1/19 9:30
+ */
+public class StatisticsSubscriber<T, V, M> {
+
+    /**
+     * 默认的预取数量
+     */
+    public static final int DEFAULT_PREFETCH = 256;
+
+    /**
+     * 流式统计聚合器
+     */
+    @Getter
+    private final StreamingStatisticsAggregator<T, V, M> aggregator;
+
+    private final Downstream downstream;
+
+    private final int prefetch;
+
+    /**
+     * 补充请求的阈值
+     */
+    private final int limit;
+
+    private LongConsumer request;
+
+    private Runnable cancel;
+
+    /**
+     * 本批次已消费的数据条数
+     */
+    private int consumed;
+
+    private volatile boolean done;
+
+    public StatisticsSubscriber(StreamingStatisticsConfig<T, V, M> config, Downstream downstream) {
+        this(config, DEFAULT_PREFETCH, downstream, null);
+    }
+
+    /**
+     * @param config     流式统计配置
+     * @param prefetch   预取数量
+     * @param downstream 下游
+     * @param sideOutput 迟到数据的侧输出(可为空)
+     */
+    public StatisticsSubscriber(StreamingStatisticsConfig<T, V, M> config, int prefetch, Downstream downstream, Consumer<T> sideOutput) {
+        AssertUtils.isTrue(prefetch > 0, "预取数量需要大于0");
+        this.downstream = AssertUtils.notNull(downstream, "下游不能为空");
+        this.aggregator = new StreamingStatisticsAggregator<>(config, downstream::onNext, sideOutput);
+        this.prefetch = prefetch;
+        this.limit = prefetch - (prefetch >> 2);
+    }
+
+    /**
+     * 建立订阅并请求第一批数据(重复订阅时取消新的订阅)
+     *
+     * @param request 请求数据的方法(对应Subscription#request)
+     * @param cancel  取消订阅的方法(对应Subscription#cancel)
+     */
+    public void onSubscribe(LongConsumer request, Runnable cancel) {
+        AssertUtils.notNull(request, "请求数据的方法不能为空");
+        AssertUtils.notNull(cancel, "取消订阅的方法不能为空");
+        if (this.request != null || done) {
+            cancel.run();
+            return;
+        }
+        this.request = request;
+        this.cancel = cancel;
+        request.accept(prefetch);
+    }
+
+    /**
+     * 接收一条数据
+     *
+     * @param data 数据
+     */
+    public void onNext(T data) {
+        if (done) {
+            return;
+        }
+        try {
+            aggregator.accept(data);
+        } catch (Throwable e) {
+            fail(e);
+            return;
+        }
+        if (++consumed == limit) {
+            consumed = 0;
+            request.accept(limit);
+        }
+    }
+
+    /**
+     * 上游出现错误,未关闭的时间段不再输出
+     *
+     * @param throwable 错误
+     */
+    public void onError(Throwable throwable) {
+        if (done) {
+            return;
+        }
+        done = true;
+        downstream.onError(throwable);
+    }
+
+    /**
+     * 上游完成,关闭并输出全部未关闭的时间段
+     */
+    public void onComplete() {
+        if (done) {
+            return;
+        }
+        done = true;
+        try {
+            aggregator.flush();
+        } catch (Throwable e) {
+            downstream.onError(e);
+            return;
+        }
+        downstream.onComplete();
+    }
+
+    /**
+     * 推进水位线(上游长时间没有数据时,由定时任务调用以关闭已经结束的时间段)
+     *
+     * @param watermark 新的水位线
+     */
+    public void advanceWatermark(LocalDateTime watermark) {
+        if (done) {
+            return;
+        }
+        try {
+            aggregator.advanceWatermark(watermark);
+        } catch (Throwable e) {
+            fail(e);
+        }
+    }
+
+    /**
+     * 取消上游订阅,未关闭的时间段不再输出
+     */
+    public void cancel() {
+        done = true;
+        if (cancel != null) {
+            cancel.run();
+        }
+    }
+
+    /**
+     * 取消上游订阅并通知下游错误
+     */
+    private void fail(Throwable throwable) {
+        cancel();
+        downstream.onError(throwable);
+    }
+
+    /**
+     * 统计结果下游
+     */
+    @FunctionalInterface
+    public interface Downstream {
+
+        /**
+         * 时间段关闭(或修正)时输出
+         *
+         * @param detail 时间段统计结果
+         */
+        void onNext(CycleStatisticsItemDetail detail);
+
+        /**
+         * 出现错误
+         *
+         * @param throwable 错误
+         */
+        default void onError(Throwable throwable) {
+        }
+
+        /**
+         * 全部时间段输出完成
+         */
+        default void onComplete() {
+        }
+    }
+}
@@ -0,0 +1,373 @@
+package com.hopetool.core.statistics;
+
+import com.hopetool.core.datetime.LocalDateTimeUtils;
+import com.hopetool.core.datetime.support.DateTimeUnit;
+import com.hopetool.core.lang.AssertUtils;
+import com.hopetool.core.statistics.support.*;
+import lombok.Getter;
+import lombok.SneakyThrows;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * 基于事件时间的流式周期统计
+ * <p>
+ * 数据按照{@link DateTimeUnit}划分到时间段中,未关闭的时间段保存在内存中;
+ * 水位线(已到达数据的最大事件时间 - 允许的乱序时长)越过时间段的结束时间后,关闭该时间段并以{@link CycleStatisticsItemDetail}输出,
+ * 内存占用只与未关闭的时间段数量有关,与历史数据量无关。
+ * <p>
+ * 输出结果为稀疏结果(只包含存在数据的维度);迟到数据按照{@link LateDataPolicyEnum}处理
+ * <p>
+ * 通过{@link #checkpoint(Path, long)}将未关闭时间段的累加器、水位线以及数据源读取位置原子性地写入快照文件,
+ * 进程重启后通过{@link #restore(Path)}恢复状态并从返回的读取位置继续消费,无需从头重放数据。
+ * 快照之后、重启之前已经输出的时间段在恢复后可能会被再次输出(至少一次语义),下游需要按照时间段覆盖写入
+ *
+ * @author JunPzx
+ * @since 2024/1/10 15:30
+ */
+public class StreamingStatisticsAggregator<T, V, M> {
+
+    /**
+     * 快照文件魔数
+     */
+    private static final int CHECKPOINT_MAGIC = 0x48545343;
+
+    /**
+     * 快照文件格式版本
+     */
+    private static final int CHECKPOINT_VERSION = 1;
+
+    /**
+     * 流式统计配置
+     */
+    @Getter
+    private final StreamingStatisticsConfig<T, V, M> config;
+
+    /**
+     * 时间段关闭(或修正)时的输出
+     */
+    private final Consumer<CycleStatisticsItemDetail> emitter;
+
+    /**
+     * 迟到数据的侧输出
+     */
+    private final Consumer<T> sideOutput;
+
+    /**
+     * 未关闭的时间段,以时间段开始时间排序
+     */
+    private final TreeMap<LocalDateTime, Bucket> openBuckets = new TreeMap<>();
+
+    /**
+     * 迟到数据修正策略下保留的已关闭时间段
+     */
+    private final LinkedHashMap<LocalDateTime, Bucket> closedBuckets;
+
+    /**
+     * 当前水位线
+     */
+    @Getter
+    private LocalDateTime watermark;
+
+    /**
+     * 迟到数据条数
+     */
+    @Getter
+    private long lateCount;
+
+    public StreamingStatisticsAggregator(StreamingStatisticsConfig<T, V, M> config, Consumer<CycleStatisticsItemDetail> emitter) {
+        this(config, emitter, null);
+    }
+
+    public StreamingStatisticsAggregator(StreamingStatisticsConfig<T, V, M> config, Consumer<CycleStatisticsItemDetail> emitter, Consumer<T> sideOutput) {
+        AssertUtils.notNull(config, "配置对象不能为空").checkSelf();
+        AssertUtils.notNull(emitter, "统计结果输出不能为空");
+        this.config = config;
+        this.emitter = emitter;
+        this.sideOutput = sideOutput;
+        int amendRetention = config.getAmendRetention();
+        this.closedBuckets = new LinkedHashMap<LocalDateTime, Bucket>() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<LocalDateTime, Bucket> eldest) {
+                return size() > amendRetention;
+            }
+        };
+    }
+
+    /**
+     * 接收一条数据
+     *
+     * @param data 数据
+     */
+    public synchronized void accept(T data) {
+        LocalDateTime eventTime = config.getEventTimeGetFunction().apply(data);
+        if (eventTime == null) {
+            return;
+        }
+        Object dimensionKey = dimensionKey(data);
+        // 不在标签备忘录中的维度数据不参与统计
+        if (dimensionKey == null) {
+            return;
+        }
+        LocalDateTime bucketBeginTime = LocalDateTimeUtils.beginTimeByDateTimeUnit(eventTime, config.getDateTimeUnit());
+        Bucket bucket = openBuckets.get(bucketBeginTime);
+        if (bucket == null) {
+            LocalDateTime bucketEndTime = LocalDateTimeUtils.endTimeByDateTimeUnit(eventTime, config.getDateTimeUnit());
+            if (watermark != null && watermark.isAfter(bucketEndTime)) {
+                // 时间段已经关闭,按照迟到数据处理
+                handleLateData(data, bucketBeginTime, dimensionKey);
+                return;
+            }
+            bucket = new Bucket(bucketBeginTime, bucketEndTime);
+            openBuckets.put(bucketBeginTime, bucket);
+        }
+        accumulate(bucket, dimensionKey, data);
+        // 根据事件时间推进水位线
+        advanceWatermark(eventTime.minus(config.getAllowedLateness()));
+    }
+
+    /**
+     * 推进水位线,关闭并输出结束时间早于水位线的时间段(水位线只能前进)
+     *
+     * @param newWatermark 新的水位线
+     */
+    public synchronized void advanceWatermark(LocalDateTime newWatermark) {
+        if (newWatermark == null || (watermark != null && !newWatermark.isAfter(watermark))) {
+            return;
+        }
+        watermark = newWatermark;
+        while (!openBuckets.isEmpty() && watermark.isAfter(openBuckets.firstEntry().getValue().getEndTime())) {
+            closeBucket(openBuckets.pollFirstEntry().getValue());
+        }
+    }
+
+    /**
+     * 关闭并输出全部未关闭的时间段(例如数据流结束时)
+     */
+    public synchronized void flush() {
+        while (!openBuckets.isEmpty()) {
+            closeBucket(openBuckets.pollFirstEntry().getValue());
+        }
+    }
+
+    /**
+     * 未关闭的时间段数量
+     *
+     * @return 未关闭的时间段数量
+     */
+    public synchronized int getOpenBucketCount() {
+        return openBuckets.size();
+    }
+
+    /**
+     * 将当前状态(未关闭的时间段、保留的已关闭时间段、水位线、迟到数据条数)以及数据源读取位置写入快照文件,
+     * 写入过程是原子的,写入失败时保留上一次的完整快照
+     *
+     * @param file     快照文件
+     * @param position 数据源读取位置(例如行号、字节偏移量、消息偏移量),快照包含该位置之前的全部数据
+     */
+    @SneakyThrows
+    public synchronized void checkpoint(Path file, long position) {
+        AssertUtils.notNull(file, "快照文件不能为空");
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(CHECKPOINT_MAGIC);
+            out.writeInt(CHECKPOINT_VERSION);
+            out.writeUTF(config.getStatisticsMode().name());
+            out.writeLong(position);
+            out.writeBoolean(watermark != null);
+            if (watermark != null) {
+                StatisticsCheckpointUtils.writeLocalDateTime(out, watermark);
+            }
+            out.writeLong(lateCount);
+            writeBuckets(out, openBuckets.values());
+            writeBuckets(out, closedBuckets.values());
+        }
+        StatisticsCheckpointUtils.writeAtomically(file, bytes.toByteArray());
+    }
+
+    /**
+     * 从快照文件中恢复状态,恢复后当前的状态会被快照中的状态替换
+     *
+     * @param file 快照文件
+     * @return 快照对应的数据源读取位置,快照文件不存在时返回-1(需要从头消费)
+     */
+    @SneakyThrows
+    public synchronized long restore(Path file) {
+        AssertUtils.notNull(file, "快照文件不能为空");
+        if (!Files.exists(file)) {
+            return -1;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            AssertUtils.isTrue(in.readInt() == CHECKPOINT_MAGIC, "不是流式统计快照文件");
+            AssertUtils.isTrue(in.readInt() == CHECKPOINT_VERSION, "不支持的快照文件版本");
+            AssertUtils.isTrue(config.getStatisticsMode().name().equals(in.readUTF()), "快照文件的统计方式与当前配置不一致");
+            long position = in.readLong();
+            LocalDateTime restoredWatermark = in.readBoolean() ? StatisticsCheckpointUtils.readLocalDateTime(in) : null;
+            long restoredLateCount = in.readLong();
+            List<Bucket> restoredOpenBuckets = readBuckets(in);
+            List<Bucket> restoredClosedBuckets = readBuckets(in);
+            watermark = restoredWatermark;
+            lateCount = restoredLateCount;
+            openBuckets.clear();
+            restoredOpenBuckets.forEach(bucket -> openBuckets.put(bucket.getBeginTime(), bucket));
+            closedBuckets.clear();
+            restoredClosedBuckets.forEach(bucket -> closedBuckets.put(bucket.getBeginTime(), bucket));
+            return position;
+        }
+    }
+
+    /**
+     * 写入时间段集合
+     */
+    private void writeBuckets(DataOutput out, Collection<Bucket> buckets) throws IOException {
+        out.writeInt(buckets.size());
+        for (Bucket bucket : buckets) {
+            StatisticsCheckpointUtils.writeLocalDateTime(out, bucket.getBeginTime());
+            StatisticsCheckpointUtils.writeLocalDateTime(out, bucket.getEndTime());
+            out.writeInt(bucket.getAccumulators().size());
+            for (Map.Entry<Object, StatisticsAccumulator> entry : bucket.getAccumulators().entrySet()) {
+                StatisticsCheckpointUtils.writeObject(out, entry.getKey());
+                entry.getValue().writeTo(out);
+            }
+        }
+    }
+
+    /**
+     * 读取时间段集合
+     */
+    private List<Bucket> readBuckets(DataInput in) throws IOException {
+        int size = in.readInt();
+        List<Bucket> buckets = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Bucket bucket = new Bucket(StatisticsCheckpointUtils.readLocalDateTime(in), StatisticsCheckpointUtils.readLocalDateTime(in));
+            int accumulatorSize = in.readInt();
+            for (int j = 0; j < accumulatorSize; j++) {
+                Object dimensionKey = StatisticsCheckpointUtils.readObject(in);
+                bucket.getAccumulators().put(dimensionKey, StatisticsAccumulator.readFrom(in, config.getHistogramBins()));
+            }
+            buckets.add(bucket);
+        }
+        return buckets;
+    }
+
+    /**
+     * 处理迟到数据
+     *
+     * @param data            迟到数据
+     * @param bucketBeginTime 数据所属时间段的开始时间
+     * @param dimensionKey    数据所属维度
+     */
+    private void handleLateData(T data, LocalDateTime bucketBeginTime, Object dimensionKey) {
+        lateCount++;
+        switch (config.getLateDataPolicy()) {
+            case AMEND:
+                Bucket closedBucket = closedBuckets.get(bucketBeginTime);
+                if (closedBucket != null) {
+                    // 修正已关闭的时间段并重新输出
+                    accumulate(closedBucket, dimensionKey, data);
+                    emitter.accept(closedBucket.toDetail());
+                    return;
+                }
+                // 已经超出保留范围的时间段无法修正,输出到侧输出
+                if (sideOutput != null) {
+                    sideOutput.accept(data);
+                }
+                return;
+            case SIDE_OUTPUT:
+                if (sideOutput != null) {
+                    sideOutput.accept(data);
+                }
+                return;
+            default:
+        }
+    }
+
+    /**
+     * 关闭并输出时间段
+     *
+     * @param bucket 时间段
+     */
+    private void closeBucket(Bucket bucket) {
+        emitter.accept(bucket.toDetail());
+        if (LateDataPolicyEnum.AMEND.equals(config.getLateDataPolicy()) && config.getAmendRetention() > 0) {
+            closedBuckets.put(bucket.getBeginTime(), bucket);
+        }
+    }
+
+    /**
+     * 获取数据所属维度
+     *
+     * @param data 数据
+     * @return 维度(单维度时为单维度标签Code,多维度数据不在标签备忘录中时返回null)
+     */
+    private Object dimensionKey(T data) {
+        if (!Boolean.TRUE.equals(config.getIsMultidimensional())) {
+            return config.getSingleDimensional().getTagCode();
+        }
+        M dimensionCode = config.getMultidimensional().getMultidimensionalFunction().apply(data);
+        return config.getMultidimensional().getTagMemo().containsKey(dimensionCode) ? dimensionCode : null;
+    }
+
+    /**
+     * 将数据累加到时间段对应维度的累加器中
+     */
+    private void accumulate(Bucket bucket, Object dimensionKey, T data) {
+        StatisticsAccumulator accumulator = bucket.getAccumulators().computeIfAbsent(dimensionKey,
+                key -> new StatisticsAccumulator(config.getStatisticsMode(), config.getHistogramBins()));
+        if (config.getStatisticsMode().isRequireSecondValue()) {
+            accumulator.accept(config.getGetValueFunction().apply(data), config.getSecondValueFunction().apply(data));
+        } else {
+            accumulator.accept(config.getGetValueFunction().apply(data));
+        }
+    }
+
+    /**
+     * 获取维度标签名称
+     */
+    private String tagName(Object dimensionKey) {
+        if (!Boolean.TRUE.equals(config.getIsMultidimensional())) {
+            return config.getSingleDimensional().getTagName();
+        }
+        return config.getMultidimensional().getTagMemo().get(dimensionKey);
+    }
+
+    /**
+     * 时间段以及其中各维度的累加器
+     */
+    @Getter
+    private class Bucket {
+
+        private final LocalDateTime beginTime;
+
+        private final LocalDateTime endTime;
+
+        private final Map<Object, StatisticsAccumulator> accumulators = new LinkedHashMap<>();
+
+        Bucket(LocalDateTime beginTime, LocalDateTime endTime) {
+            this.beginTime = beginTime;
+            this.endTime = endTime;
+        }
+
+        CycleStatisticsItemDetail toDetail() {
+            DateTimeUnit dateTimeUnit = config.getDateTimeUnit();
+            List<DataStatisticsItemDetail> details = new ArrayList<>(accumulators.size());
+            accumulators.forEach((dimensionKey, accumulator) -> details.add(accumulator.toDetail(dimensionKey.toString(), tagName(dimensionKey))));
+            return new CycleStatisticsItemDetail().setDateStr(dateTimeUnit.getDateStr(beginTime))
+                    .setChineseDateStr(dateTimeUnit.getChineseName(beginTime))
+                    .setDetails(details);
+        }
+    }
+}
@@ -19,14 +19,36 @@ public abstract class AbstractStatisticsConfig<T> {
      */
     private DataValueStatisticsModeEnum statisticsMode;
 
+    /**
+     * 直方图区间配置(统计方式为直方图时使用)
+     */
+    private HistogramBins histogramBins;
+
     /**
      * 需要统计的数据
      */
     private List<T> data;
 
+    /**
+     * 是否为稀疏结果(稀疏结果只输出存在数据的时间段和维度,不再使用"0"补齐,需要补齐时可通过{@link com.hopetool.core.statistics.DataStatisticsUtils#denseView}转换)
+     */
+    private Boolean sparse = false;
+
+    /**
+     * 多维度统计时的内存预算(字节),为空时不限制;设置后不再按维度分组保存数据,只保存累加器,
+     * 累加器估算占用超过预算时按维度哈希分区溢写到本地临时文件,最后逐个分区合并(合并时超出预算的分区再次分区)
+     */
+    private Long memoryBudgetBytes;
+
 
     public void checkSelf() {
         AssertUtils.notNull(statisticsMode, "统计方式不能为空");
         AssertUtils.notNull(data, "统计数据不能为空");
+        if (DataValueStatisticsModeEnum.HISTOGRAM.equals(statisticsMode)) {
+            AssertUtils.notNull(histogramBins, "直方图区间配置不能为空");
+        }
+        if (memoryBudgetBytes != null) {
+            AssertUtils.isTrue(memoryBudgetBytes > 0, "内存预算需要大于0");
+        }
     }
 }
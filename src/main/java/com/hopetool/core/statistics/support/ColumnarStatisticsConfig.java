@@ -0,0 +1,190 @@
+package com.hopetool.core.statistics.support;
+
+import com.hopetool.core.datetime.support.DateTimeUnit;
+import com.hopetool.core.lang.AssertUtils;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+
+/**
+ * 列式统计配置(统计数据来自{@link com.hopetool.core.statistics.StatisticsColumnStore})
+ *
+ * @author JunPzx
+ * @since 2024/1/13 11:00
+ */
+@SuppressWarnings("UnusedReturnValue")
+@Getter
+@NoArgsConstructor
+public class ColumnarStatisticsConfig {
+
+    /**
+     * 统计方式
+     */
+    private DataValueStatisticsModeEnum statisticsMode;
+
+    /**
+     * 直方图区间配置(统计方式为直方图时使用)
+     */
+    private HistogramBins histogramBins;
+
+    /**
+     * 周期统计-数据分割单位
+     */
+    private DateTimeUnit dateTimeUnit;
+
+    /**
+     * 开始时间
+     */
+    private LocalDateTime beginDateTime;
+
+    /**
+     * 结束时间
+     */
+    private LocalDateTime endDateTime;
+
+    /**
+     * 纪元毫秒与本地时间转换使用的时区
+     */
+    private ZoneId zoneId = ZoneId.systemDefault();
+
+    /**
+     * 是否是多维度的
+     */
+    private Boolean isMultidimensional = false;
+
+    /**
+     * 单维度信息
+     */
+    private SingleDimensional singleDimensional;
+
+    /**
+     * 多维度标签备忘录(维度值 -> 标签名)
+     */
+    private Map<String, String> tagMemo;
+
+    /**
+     * 是否为稀疏结果
+     */
+    private Boolean sparse = false;
+
+
+    /**
+     * 构建统计方式
+     *
+     * @param statisticsModeEnum 统计模式
+     * @return 列式统计配置对象
+     */
+    public ColumnarStatisticsConfig buildStatisticsMode(DataValueStatisticsModeEnum statisticsModeEnum) {
+        this.statisticsMode = statisticsModeEnum;
+        return this;
+    }
+
+
+    /**
+     * 构建直方图统计配置(统计方式需要为直方图)
+     *
+     * @param histogramBins 直方图区间配置
+     * @return 列式统计配置对象
+     */
+    public ColumnarStatisticsConfig buildHistogramBins(HistogramBins histogramBins) {
+        this.histogramBins = histogramBins;
+        return this;
+    }
+
+
+    /**
+     * 构建周期统计的时间范围(总数统计时不需要)
+     *
+     * @param dateTimeUnit  日期时间单位
+     * @param beginDateTime 开始日期时间
+     * @param endDateTime   结束日期时间
+     * @return 列式统计配置对象
+     */
+    public ColumnarStatisticsConfig buildStatisticsDateTime(DateTimeUnit dateTimeUnit, LocalDateTime beginDateTime, LocalDateTime endDateTime) {
+        this.dateTimeUnit = dateTimeUnit;
+        this.beginDateTime = beginDateTime;
+        this.endDateTime = endDateTime;
+        return this;
+    }
+
+
+    /**
+     * 构建纪元毫秒与本地时间转换使用的时区
+     *
+     * @param zoneId 时区
+     * @return 列式统计配置对象
+     */
+    public ColumnarStatisticsConfig buildZoneId(ZoneId zoneId) {
+        this.zoneId = zoneId;
+        return this;
+    }
+
+
+    /**
+     * 构建单维的统计配置
+     *
+     * @param tagName        标签名
+     * @param tagChineseName 标签中文名
+     * @return 列式统计配置对象
+     */
+    public ColumnarStatisticsConfig buildSingleDimensional(String tagName, String tagChineseName) {
+        this.isMultidimensional = false;
+        this.tagMemo = null;
+        this.singleDimensional = new SingleDimensional(tagName, tagChineseName);
+        return this;
+    }
+
+
+    /**
+     * 构建多维统计配置(维度值为列式存储字典中的维度值,不在标签备忘录中的维度数据不参与统计)
+     *
+     * @param tagMemo 标签备忘录
+     * @return 列式统计配置对象
+     */
+    public ColumnarStatisticsConfig buildMultidimensional(Map<String, String> tagMemo) {
+        this.isMultidimensional = true;
+        this.singleDimensional = null;
+        this.tagMemo = tagMemo;
+        return this;
+    }
+
+
+    /**
+     * 构建稀疏结果配置(只输出存在数据的单元格,不补齐"0")
+     *
+     * @param sparse 是否为稀疏结果
+     * @return 列式统计配置对象
+     */
+    public ColumnarStatisticsConfig buildSparse(boolean sparse) {
+        this.sparse = sparse;
+        return this;
+    }
+
+
+    public void checkSelf() {
+        AssertUtils.notNull(statisticsMode, "统计方式不能为空");
+        AssertUtils.notNull(zoneId, "时区不能为空");
+        if (DataValueStatisticsModeEnum.HISTOGRAM.equals(statisticsMode)) {
+            AssertUtils.notNull(histogramBins, "直方图区间配置不能为空");
+        }
+        if (isMultidimensional) {
+            AssertUtils.notEmpty(tagMemo, "多维度统计标签名和中文名不能为空");
+        } else {
+            AssertUtils.notNull(singleDimensional, "单维度统计配置不能为空");
+        }
+    }
+
+
+    /**
+     * 校验周期统计配置
+     */
+    public void checkCycle() {
+        checkSelf();
+        AssertUtils.notNull(dateTimeUnit, "时间单位不能为空");
+        AssertUtils.notNull(beginDateTime, "开始时间不能为空");
+        AssertUtils.notNull(endDateTime, "结束时间不能为空");
+    }
+}
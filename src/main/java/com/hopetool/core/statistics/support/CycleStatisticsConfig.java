@@ -3,12 +3,14 @@ package com.hopetool.core.statistics.support;
 import com.hopetool.core.column.support.SFunction;
 import com.hopetool.core.datetime.LocalDateTimeUtils;
 import com.hopetool.core.datetime.support.DateTimeUnit;
+import com.hopetool.core.datetime.support.WorkdayCalendar;
 import com.hopetool.core.lang.AssertUtils;
 import com.hopetool.core.statistics.DataStatisticsUtils;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -53,11 +55,26 @@ public class CycleStatisticsConfig<T, V, M> extends AbstractStatisticsConfig<T>
      */
     private List<SFunction<T, LocalDateTime>> dateTimeGetFunction;
 
+    /**
+     * 统计时,统计范围纪元毫秒时间参数的getFunction(与dateTimeGetFunction二选一)
+     */
+    private SFunction<T, Long> epochMillisGetFunction;
+
+    /**
+     * 纪元毫秒时间参数划分时间段使用的时区
+     */
+    private ZoneId zoneId;
+
     /**
      * 需要统计的数据值的get方法
      */
     private SFunction<T, V> getValueFunction;
 
+    /**
+     * 需要统计的第二数据值的get方法(比率统计时为分母,加权平均统计时为权重)
+     */
+    private SFunction<T, ?> secondValueFunction;
+
     /**
      * 是否是多维度的
      */
@@ -73,6 +90,11 @@ public class CycleStatisticsConfig<T, V, M> extends AbstractStatisticsConfig<T>
      */
     private Multidimensional<T, M> multidimensional;
 
+    /**
+     * 工作日日历,设置后按天统计时只输出工作日的时间段
+     */
+    private WorkdayCalendar workdayCalendar;
+
 
     /**
      * 根据指定的日期时间单位构建统计配置
@@ -118,6 +140,22 @@ public class CycleStatisticsConfig<T, V, M> extends AbstractStatisticsConfig<T>
     }
 
 
+    /**
+     * 根据指定数据构建需要两个数据值的统计配置(比率、加权平均)
+     *
+     * @param data                数据列表
+     * @param statisticsModeEnum  统计模式
+     * @param getValueFunction    获取值的函数(比率的分子,加权平均的数据值)
+     * @param secondValueFunction 获取第二数据值的函数(比率的分母,加权平均的权重)
+     * @return 统计配置对象
+     */
+    public CycleStatisticsConfig<T, V, M> buildStatisticsData(List<T> data, DataValueStatisticsModeEnum statisticsModeEnum, SFunction<T, V> getValueFunction, SFunction<T, ?> secondValueFunction) {
+        buildStatisticsData(data, statisticsModeEnum, getValueFunction);
+        this.secondValueFunction = secondValueFunction;
+        return this;
+    }
+
+
     /**
      * 根据指定的统计条件构建统计配置
      *
@@ -128,6 +166,7 @@ public class CycleStatisticsConfig<T, V, M> extends AbstractStatisticsConfig<T>
     public CycleStatisticsConfig<T, V, M> buildStatisticsCondition(StatisticsArgumentMatchEnum argumentMatchEnum, List<SFunction<T, LocalDateTime>> dateTimeGetFunction) {
         this.argumentMatchEnum = argumentMatchEnum;
         this.dateTimeGetFunction = dateTimeGetFunction;
+        this.epochMillisGetFunction = null;
         return this;
     }
 
@@ -141,6 +180,24 @@ public class CycleStatisticsConfig<T, V, M> extends AbstractStatisticsConfig<T>
     public CycleStatisticsConfig<T, V, M> buildStatisticsCondition(StatisticsArgumentMatchEnum argumentMatchEnum, SFunction<T, LocalDateTime> dateTimeGetFunction) {
         this.argumentMatchEnum = argumentMatchEnum;
         this.dateTimeGetFunction = Collections.singletonList(dateTimeGetFunction);
+        this.epochMillisGetFunction = null;
+        return this;
+    }
+
+
+    /**
+     * 根据纪元毫秒时间参数构建统计条件: 时间段按照指定时区划分,数据所属时间段通过时区偏移转换表计算,
+     * 结果与JVM默认时区无关,夏令时切换时也正确;单次遍历数据完成统计
+     *
+     * @param zoneId                 时区
+     * @param epochMillisGetFunction 获取纪元毫秒的函数
+     * @return 统计配置对象
+     */
+    public CycleStatisticsConfig<T, V, M> buildEpochMillisCondition(ZoneId zoneId, SFunction<T, Long> epochMillisGetFunction) {
+        this.zoneId = zoneId;
+        this.epochMillisGetFunction = epochMillisGetFunction;
+        this.argumentMatchEnum = null;
+        this.dateTimeGetFunction = null;
         return this;
     }
 
@@ -175,14 +232,72 @@ public class CycleStatisticsConfig<T, V, M> extends AbstractStatisticsConfig<T>
     }
 
 
+    /**
+     * 构建直方图统计配置(统计方式需要为直方图)
+     *
+     * @param histogramBins 直方图区间配置
+     * @return 统计配置对象
+     */
+    public CycleStatisticsConfig<T, V, M> buildHistogramBins(HistogramBins histogramBins) {
+        super.setHistogramBins(histogramBins);
+        return this;
+    }
+
+
+    /**
+     * 构建稀疏结果配置(只输出存在数据的单元格,不补齐"0")
+     *
+     * @param sparse 是否为稀疏结果
+     * @return 统计配置对象
+     */
+    public CycleStatisticsConfig<T, V, M> buildSparse(boolean sparse) {
+        super.setSparse(sparse);
+        return this;
+    }
+
+
+    /**
+     * 构建多维度统计的内存预算配置(超出预算时溢写到本地临时文件)
+     *
+     * @param memoryBudgetBytes 内存预算(字节)
+     * @return 统计配置对象
+     */
+    public CycleStatisticsConfig<T, V, M> buildMemoryBudget(long memoryBudgetBytes) {
+        super.setMemoryBudgetBytes(memoryBudgetBytes);
+        return this;
+    }
+
+
+    /**
+     * 构建按工作日统计配置(时间单位需要为{@link DateTimeUnit#DAY},只输出工作日的时间段)
+     *
+     * @param workdayCalendar 工作日日历
+     * @return 统计配置对象
+     */
+    public CycleStatisticsConfig<T, V, M> buildWorkdayCalendar(WorkdayCalendar workdayCalendar) {
+        this.workdayCalendar = workdayCalendar;
+        return this;
+    }
+
+
     public void checkSelf() {
         super.checkSelf();
         AssertUtils.notNull(dateTimeUnit, "时间单位不能为空");
         AssertUtils.notNull(beginDateTime, "开始时间不能为空");
         AssertUtils.notNull(endDateTime, "结束时间不能为空");
-        AssertUtils.notNull(argumentMatchEnum, "统计参数匹配类型不能为空");
-        AssertUtils.notNull(dateTimeGetFunction, "统计参数获取函数不能为空");
+        if (workdayCalendar != null) {
+            AssertUtils.isTrue(DateTimeUnit.DAY.equals(dateTimeUnit), "按工作日统计时时间单位需要为DAY");
+        }
+        if (epochMillisGetFunction != null) {
+            AssertUtils.notNull(zoneId, "时区不能为空");
+        } else {
+            AssertUtils.notNull(argumentMatchEnum, "统计参数匹配类型不能为空");
+            AssertUtils.notNull(dateTimeGetFunction, "统计参数获取函数不能为空");
+        }
         AssertUtils.notNull(getValueFunction, "统计值获取函数不能为空");
+        if (getStatisticsMode().isRequireSecondValue()) {
+            AssertUtils.notNull(secondValueFunction, "第二统计值获取函数不能为空");
+        }
         if (isMultidimensional) {
             AssertUtils.notNull(multidimensional, "多维度统计配置不能为空");
             AssertUtils.notNull(multidimensional.getMultidimensionalFunction(), "多维度统计方法不能为空");
@@ -1,5 +1,6 @@
 package com.hopetool.core.statistics.support;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -31,4 +32,16 @@ public class DataStatisticsItemDetail {
      * 统计值
      */
     private String value;
+
+    /**
+     * 直方图各区间数据量(仅直方图统计方式下存在,区间见{@link HistogramBins};其他统计方式下为空,不参与序列化)
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private long[] histogram;
+
+    public DataStatisticsItemDetail(String tagCode, String tagName, String value) {
+        this.tagCode = tagCode;
+        this.tagName = tagName;
+        this.value = value;
+    }
 }
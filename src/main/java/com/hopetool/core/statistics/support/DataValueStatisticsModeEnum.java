@@ -27,5 +27,26 @@ public enum DataValueStatisticsModeEnum {
     /**
      * 平均值
      */
-    AVG
+    AVG,
+    /**
+     * 比率,sum(数据值)/sum(第二数据值),例如转化率
+     */
+    RATIO,
+    /**
+     * 加权平均值,Σ(权重·数据值)/Σ权重,第二数据值为权重
+     */
+    WEIGHTED_AVG,
+    /**
+     * 直方图,按照直方图区间统计各区间数据量,统计值为落入区间的数据总数
+     */
+    HISTOGRAM;
+
+    /**
+     * 当前统计方式是否需要第二数据值
+     *
+     * @return 是否需要第二数据值
+     */
+    public boolean isRequireSecondValue() {
+        return RATIO.equals(this) || WEIGHTED_AVG.equals(this);
+    }
 }
@@ -0,0 +1,168 @@
+package com.hopetool.core.statistics.support;
+
+import com.hopetool.core.lang.AssertUtils;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.nio.file.Path;
+
+/**
+ * 分隔符文件(CSV等)数据源配置,列下标从0开始
+ *
+ * @author JunPzx
+ * @since 2024/1/14 10:30
+ */
+@SuppressWarnings("UnusedReturnValue")
+@Getter
+@NoArgsConstructor
+public class DelimitedFileSourceConfig {
+
+    /**
+     * 数据文件
+     */
+    private Path file;
+
+    /**
+     * 字段分隔符(单字节字符)
+     */
+    private char delimiter = ',';
+
+    /**
+     * 第一行是否为表头
+     */
+    private boolean header;
+
+    /**
+     * 事件时间列下标(周期统计时需要)
+     */
+    private int timeColumn = -1;
+
+    /**
+     * 事件时间格式
+     */
+    private EventTimeFormatEnum timeFormat = EventTimeFormatEnum.DATE_TIME;
+
+    /**
+     * 数据值列下标
+     */
+    private int valueColumn = -1;
+
+    /**
+     * 第二数据值列下标(比率的分母,加权平均的权重)
+     */
+    private int secondValueColumn = -1;
+
+    /**
+     * 维度列下标(多维度统计时需要)
+     */
+    private int dimensionColumn = -1;
+
+    /**
+     * 是否按行边界切分文件并行解析
+     */
+    private boolean parallel = true;
+
+
+    /**
+     * 构建数据文件配置
+     *
+     * @param file      数据文件
+     * @param delimiter 字段分隔符
+     * @param header    第一行是否为表头
+     * @return 数据源配置对象
+     */
+    public DelimitedFileSourceConfig buildFile(Path file, char delimiter, boolean header) {
+        this.file = file;
+        this.delimiter = delimiter;
+        this.header = header;
+        return this;
+    }
+
+
+    /**
+     * 构建事件时间列配置
+     *
+     * @param timeColumn 事件时间列下标
+     * @param timeFormat 事件时间格式
+     * @return 数据源配置对象
+     */
+    public DelimitedFileSourceConfig buildTimeColumn(int timeColumn, EventTimeFormatEnum timeFormat) {
+        this.timeColumn = timeColumn;
+        this.timeFormat = timeFormat;
+        return this;
+    }
+
+
+    /**
+     * 构建数据值列配置
+     *
+     * @param valueColumn 数据值列下标
+     * @return 数据源配置对象
+     */
+    public DelimitedFileSourceConfig buildValueColumn(int valueColumn) {
+        this.valueColumn = valueColumn;
+        return this;
+    }
+
+
+    /**
+     * 构建需要两个数据值的列配置(比率、加权平均)
+     *
+     * @param valueColumn       数据值列下标
+     * @param secondValueColumn 第二数据值列下标
+     * @return 数据源配置对象
+     */
+    public DelimitedFileSourceConfig buildValueColumn(int valueColumn, int secondValueColumn) {
+        this.valueColumn = valueColumn;
+        this.secondValueColumn = secondValueColumn;
+        return this;
+    }
+
+
+    /**
+     * 构建维度列配置
+     *
+     * @param dimensionColumn 维度列下标
+     * @return 数据源配置对象
+     */
+    public DelimitedFileSourceConfig buildDimensionColumn(int dimensionColumn) {
+        this.dimensionColumn = dimensionColumn;
+        return this;
+    }
+
+
+    /**
+     * 构建是否并行解析
+     *
+     * @param parallel 是否并行解析
+     * @return 数据源配置对象
+     */
+    public DelimitedFileSourceConfig buildParallel(boolean parallel) {
+        this.parallel = parallel;
+        return this;
+    }
+
+
+    /**
+     * 校验数据源配置
+     *
+     * @param cycle              是否为周期统计
+     * @param multidimensional   是否为多维度统计
+     * @param requireSecondValue 是否需要第二数据值
+     */
+    public void checkSelf(boolean cycle, boolean multidimensional, boolean requireSecondValue) {
+        AssertUtils.notNull(file, "数据文件不能为空");
+        AssertUtils.isTrue(delimiter < 128 && delimiter != '\n' && delimiter != '\r', "字段分隔符需要为单字节字符且不能为换行符");
+        AssertUtils.isTrue(valueColumn >= 0, "数据值列下标不能为空");
+        if (cycle) {
+            AssertUtils.isTrue(timeColumn >= 0, "事件时间列下标不能为空");
+            AssertUtils.notNull(timeFormat, "事件时间格式不能为空");
+        }
+        if (multidimensional) {
+            AssertUtils.isTrue(dimensionColumn >= 0, "维度列下标不能为空");
+        }
+        if (requireSecondValue) {
+            AssertUtils.isTrue(secondValueColumn >= 0, "第二数据值列下标不能为空");
+        }
+    }
+}
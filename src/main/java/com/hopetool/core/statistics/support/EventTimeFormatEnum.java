@@ -0,0 +1,23 @@
+package com.hopetool.core.statistics.support;
+
+/**
+ * 文件数据源中事件时间字段的格式
+ *
+ * @author JunPzx
+ * @since 2024/1/14 9:50
+ */
+public enum EventTimeFormatEnum {
+    /**
+     * 纪元毫秒
+     */
+    EPOCH_MILLIS,
+    /**
+     * 纪元秒
+     */
+    EPOCH_SECONDS,
+    /**
+     * 本地日期时间: yyyy-MM-dd、yyyy-MM-dd HH:mm、yyyy-MM-dd HH:mm:ss、yyyy-MM-dd HH:mm:ss.SSS,
+     * 日期分隔符也可以为'/',日期与时间的分隔符也可以为'T',按照统计配置中的时区转换为纪元毫秒
+     */
+    DATE_TIME
+}
@@ -0,0 +1,198 @@
+package com.hopetool.core.statistics.support;
+
+import com.hopetool.core.lang.AssertUtils;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+/**
+ * 直方图区间配置
+ * <p>
+ * 区间为左闭右开 [edges[i], edges[i+1]),最后一个区间为闭区间,超出范围的数据值不参与统计;
+ * 等宽、对数区间通过算术直接计算区间下标,自定义区间通过二分查找计算区间下标
+ *
+ * @author JunPzx
+ * @since 2024/1/9 14:20
+ */
+public class HistogramBins {
+
+    /**
+     * 区间类型
+     */
+    private enum BinsType {
+        /**
+         * 自定义区间边界
+         */
+        CUSTOM,
+        /**
+         * 等宽区间
+         */
+        EQUI_WIDTH,
+        /**
+         * 对数区间
+         */
+        LOG_SCALE
+    }
+
+    private final BinsType binsType;
+
+    /**
+     * 区间边界(升序)
+     */
+    @Getter
+    private final double[] edges;
+
+    /**
+     * 等宽区间的宽度,对数区间为对数宽度
+     */
+    private final double width;
+
+    private HistogramBins(BinsType binsType, double[] edges, double width) {
+        this.binsType = binsType;
+        this.edges = edges;
+        this.width = width;
+    }
+
+    /**
+     * 根据区间边界构建直方图区间,例如 600,620,640 表示 [600,620) [620,640]
+     *
+     * @param edges 区间边界(严格升序,至少两个)
+     * @return 直方图区间
+     */
+    public static HistogramBins ofEdges(double... edges) {
+        AssertUtils.isTrue(edges != null && edges.length >= 2, "直方图区间边界至少需要两个");
+        for (int i = 1; i < edges.length; i++) {
+            AssertUtils.isTrue(edges[i - 1] < edges[i], "直方图区间边界需要严格升序");
+        }
+        return new HistogramBins(BinsType.CUSTOM, edges.clone(), 0);
+    }
+
+    /**
+     * 构建等宽直方图区间
+     *
+     * @param min      最小值(包含)
+     * @param max      最大值(包含)
+     * @param binCount 区间数量
+     * @return 直方图区间
+     */
+    public static HistogramBins equiWidth(double min, double max, int binCount) {
+        AssertUtils.isTrue(min < max, "直方图最小值需要小于最大值");
+        AssertUtils.isTrue(binCount > 0, "直方图区间数量需要大于0");
+        double width = (max - min) / binCount;
+        double[] edges = new double[binCount + 1];
+        for (int i = 0; i < binCount; i++) {
+            edges[i] = min + width * i;
+        }
+        edges[binCount] = max;
+        return new HistogramBins(BinsType.EQUI_WIDTH, edges, width);
+    }
+
+    /**
+     * 构建对数直方图区间(区间边界按对数等分)
+     *
+     * @param min      最小值(包含,需要大于0)
+     * @param max      最大值(包含)
+     * @param binCount 区间数量
+     * @return 直方图区间
+     */
+    public static HistogramBins logScale(double min, double max, int binCount) {
+        AssertUtils.isTrue(min > 0, "对数直方图最小值需要大于0");
+        AssertUtils.isTrue(min < max, "直方图最小值需要小于最大值");
+        AssertUtils.isTrue(binCount > 0, "直方图区间数量需要大于0");
+        double logMin = Math.log(min);
+        double logWidth = (Math.log(max) - logMin) / binCount;
+        double[] edges = new double[binCount + 1];
+        edges[0] = min;
+        for (int i = 1; i < binCount; i++) {
+            edges[i] = Math.exp(logMin + logWidth * i);
+        }
+        edges[binCount] = max;
+        return new HistogramBins(BinsType.LOG_SCALE, edges, logWidth);
+    }
+
+    /**
+     * 区间数量
+     *
+     * @return 区间数量
+     */
+    public int getBinCount() {
+        return edges.length - 1;
+    }
+
+    /**
+     * 计算数据值所在的区间下标
+     *
+     * @param value 数据值
+     * @return 区间下标,超出范围(或为NaN)时返回-1
+     */
+    public int indexOf(double value) {
+        int lastBin = edges.length - 2;
+        // 超出范围,NaN 也在此处返回
+        if (!(value >= edges[0] && value <= edges[lastBin + 1])) {
+            return -1;
+        }
+        int index;
+        switch (binsType) {
+            case EQUI_WIDTH:
+                index = (int) ((value - edges[0]) / width);
+                break;
+            case LOG_SCALE:
+                index = (int) ((Math.log(value) - Math.log(edges[0])) / width);
+                break;
+            default:
+                int searchIndex = Arrays.binarySearch(edges, value);
+                return Math.min(searchIndex >= 0 ? searchIndex : -searchIndex - 2, lastBin);
+        }
+        // 修正浮点运算误差,保证结果与区间边界一致
+        index = Math.max(0, Math.min(index, lastBin));
+        while (index > 0 && value < edges[index]) {
+            index--;
+        }
+        while (index < lastBin && value >= edges[index + 1]) {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * 获取区间标签,例如 600-620
+     *
+     * @param index 区间下标
+     * @return 区间标签
+     */
+    public String getLabel(int index) {
+        return BigDecimal.valueOf(edges[index]).stripTrailingZeros().toPlainString() + "-"
+                + BigDecimal.valueOf(edges[index + 1]).stripTrailingZeros().toPlainString();
+    }
+
+    /**
+     * 获取全部区间标签
+     *
+     * @return 区间标签
+     */
+    public String[] getLabels() {
+        String[] labels = new String[getBinCount()];
+        for (int i = 0; i < labels.length; i++) {
+            labels[i] = getLabel(i);
+        }
+        return labels;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof HistogramBins)) {
+            return false;
+        }
+        HistogramBins that = (HistogramBins) o;
+        return binsType == that.binsType && Arrays.equals(edges, that.edges);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * binsType.hashCode() + Arrays.hashCode(edges);
+    }
+}
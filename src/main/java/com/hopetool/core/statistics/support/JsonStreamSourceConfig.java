@@ -0,0 +1,117 @@
+package com.hopetool.core.statistics.support;
+
+import com.hopetool.core.lang.AssertUtils;
+import com.hopetool.core.text.StrUtils;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * JSON流数据源配置(JSON数组或者每行一个JSON对象的NDJSON),字段为对象第一层的字段名
+ *
+ * @author JunPzx
+ * @since 2024/1/15 9:40
+ */
+@SuppressWarnings("UnusedReturnValue")
+@Getter
+@NoArgsConstructor
+public class JsonStreamSourceConfig {
+
+    /**
+     * 事件时间字段名(周期统计时需要)
+     */
+    private String timeField;
+
+    /**
+     * 事件时间格式(字段为数值时按照纪元毫秒或纪元秒解析)
+     */
+    private EventTimeFormatEnum timeFormat = EventTimeFormatEnum.DATE_TIME;
+
+    /**
+     * 数据值字段名
+     */
+    private String valueField;
+
+    /**
+     * 第二数据值字段名(比率的分母,加权平均的权重)
+     */
+    private String secondValueField;
+
+    /**
+     * 维度字段名(多维度统计时需要)
+     */
+    private String dimensionField;
+
+
+    /**
+     * 构建事件时间字段配置
+     *
+     * @param timeField  事件时间字段名
+     * @param timeFormat 事件时间格式
+     * @return 数据源配置对象
+     */
+    public JsonStreamSourceConfig buildTimeField(String timeField, EventTimeFormatEnum timeFormat) {
+        this.timeField = timeField;
+        this.timeFormat = timeFormat;
+        return this;
+    }
+
+
+    /**
+     * 构建数据值字段配置
+     *
+     * @param valueField 数据值字段名
+     * @return 数据源配置对象
+     */
+    public JsonStreamSourceConfig buildValueField(String valueField) {
+        this.valueField = valueField;
+        return this;
+    }
+
+
+    /**
+     * 构建需要两个数据值的字段配置(比率、加权平均)
+     *
+     * @param valueField       数据值字段名
+     * @param secondValueField 第二数据值字段名
+     * @return 数据源配置对象
+     */
+    public JsonStreamSourceConfig buildValueField(String valueField, String secondValueField) {
+        this.valueField = valueField;
+        this.secondValueField = secondValueField;
+        return this;
+    }
+
+
+    /**
+     * 构建维度字段配置
+     *
+     * @param dimensionField 维度字段名
+     * @return 数据源配置对象
+     */
+    public JsonStreamSourceConfig buildDimensionField(String dimensionField) {
+        this.dimensionField = dimensionField;
+        return this;
+    }
+
+
+    /**
+     * 校验数据源配置
+     *
+     * @param cycle              是否为周期统计
+     * @param multidimensional   是否为多维度统计
+     * @param requireSecondValue 是否需要第二数据值
+     */
+    public void checkSelf(boolean cycle, boolean multidimensional, boolean requireSecondValue) {
+        AssertUtils.isTrue(StrUtils.isNotBlank(valueField), "数据值字段名不能为空");
+        if (cycle) {
+            AssertUtils.isTrue(StrUtils.isNotBlank(timeField), "事件时间字段名不能为空");
+            AssertUtils.notNull(timeFormat, "事件时间格式不能为空");
+        }
+        if (multidimensional) {
+            AssertUtils.isTrue(StrUtils.isNotBlank(dimensionField), "维度字段名不能为空");
+        }
+        if (requireSecondValue) {
+            AssertUtils.isTrue(StrUtils.isNotBlank(secondValueField), "第二数据值字段名不能为空");
+        }
+    }
+}
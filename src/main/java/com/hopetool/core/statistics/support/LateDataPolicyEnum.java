@@ -0,0 +1,24 @@
+package com.hopetool.core.statistics.support;
+
+/**
+ * 流式统计迟到数据处理策略
+ * <p>
+ * 迟到数据: 数据所属时间段的结束时间已经早于水位线,该时间段已经关闭并输出
+ *
+ * @author JunPzx
+ * @since 2024/1/10 15:02
+ */
+public enum LateDataPolicyEnum {
+    /**
+     * 丢弃迟到数据
+     */
+    DROP,
+    /**
+     * 将迟到数据输出到侧输出
+     */
+    SIDE_OUTPUT,
+    /**
+     * 修正已关闭的时间段并重新输出(只保留最近若干个已关闭时间段,更早的迟到数据输出到侧输出)
+     */
+    AMEND
+}
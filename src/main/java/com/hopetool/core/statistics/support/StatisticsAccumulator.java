@@ -0,0 +1,384 @@
+package com.hopetool.core.statistics.support;
+
+import com.hopetool.core.lang.AssertUtils;
+import com.hopetool.core.set.SetUtils;
+import com.hopetool.core.statistics.DataCalculateUtils;
+import com.hopetool.core.statistics.StatisticsCheckpointUtils;
+import com.hopetool.core.util.JdkSupport;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Set;
+
+/**
+ * 统计累加器
+ * <p>
+ * 按照统计方式在一次遍历中累加数据,只保留计算结果所需的中间状态(计数,总和,第二总和,去重值,直方图),
+ * 不再保存全部数据值;相同统计方式的累加器之间可以通过{@link #merge(StatisticsAccumulator)}合并,
+ * 用于跨时间段、跨分区合并部分统计结果
+ *
+ * @author JunPzx
+ * @since 2024/1/8 10:12
+ */
+@Getter
+public class StatisticsAccumulator {
+
+    /**
+     * 统计方式
+     */
+    private final DataValueStatisticsModeEnum statisticsMode;
+
+    /**
+     * 累加的数据条数
+     */
+    private long count;
+
+    /**
+     * 数据值总和(加权平均时为 Σ(w·x))
+     */
+    private BigDecimal sum = BigDecimal.ZERO;
+
+    /**
+     * 第二数据值总和(比率时为分母总和,加权平均时为权重总和 Σw)
+     */
+    private BigDecimal secondSum = BigDecimal.ZERO;
+
+    /**
+     * 基本类型累加时的数据值总和以及Kahan补偿值(列式统计使用,避免逐条创建BigDecimal)
+     */
+    @Getter(AccessLevel.NONE)
+    private double primitiveSum;
+
+    @Getter(AccessLevel.NONE)
+    private double primitiveSumCompensation;
+
+    /**
+     * 基本类型累加时的第二数据值总和以及Kahan补偿值
+     */
+    @Getter(AccessLevel.NONE)
+    private double primitiveSecondSum;
+
+    @Getter(AccessLevel.NONE)
+    private double primitiveSecondSumCompensation;
+
+    /**
+     * 去重统计时的去重值
+     */
+    private Set<Object> distinctValues;
+
+    /**
+     * 直方图统计时的区间配置
+     */
+    private final HistogramBins histogramBins;
+
+    /**
+     * 直方图统计时各区间的数据量
+     */
+    private long[] histogram;
+
+    public StatisticsAccumulator(DataValueStatisticsModeEnum statisticsMode) {
+        this(statisticsMode, null);
+    }
+
+    public StatisticsAccumulator(DataValueStatisticsModeEnum statisticsMode, HistogramBins histogramBins) {
+        AssertUtils.notNull(statisticsMode, "统计方式不能为空");
+        this.statisticsMode = statisticsMode;
+        this.histogramBins = histogramBins;
+        if (DataValueStatisticsModeEnum.DISTINCT_COUNT.equals(statisticsMode)) {
+            this.distinctValues = SetUtils.newHashSet();
+        }
+        if (DataValueStatisticsModeEnum.HISTOGRAM.equals(statisticsMode)) {
+            AssertUtils.notNull(histogramBins, "直方图区间配置不能为空");
+            this.histogram = new long[histogramBins.getBinCount()];
+        }
+    }
+
+    /**
+     * 累加一个数据值
+     *
+     * @param value 数据值
+     */
+    public void accept(Object value) {
+        accept(value, null);
+    }
+
+    /**
+     * 累加一个数据值以及第二数据值(第二数据值只在比率、加权平均统计方式下使用)
+     *
+     * @param value       数据值
+     * @param secondValue 第二数据值(比率的分母,加权平均的权重)
+     */
+    public void accept(Object value, Object secondValue) {
+        if (DataValueStatisticsModeEnum.HISTOGRAM.equals(statisticsMode)) {
+            acceptHistogram(value);
+            return;
+        }
+        count++;
+        switch (statisticsMode) {
+            case SUM:
+            case AVG:
+                sum = sum.add(DataCalculateUtils.newBigDecimal(value));
+                break;
+            case DISTINCT_COUNT:
+                distinctValues.add(value);
+                break;
+            case RATIO:
+                sum = sum.add(DataCalculateUtils.newBigDecimal(value));
+                secondSum = secondSum.add(DataCalculateUtils.newBigDecimal(secondValue));
+                break;
+            case WEIGHTED_AVG:
+                BigDecimal weight = DataCalculateUtils.newBigDecimal(secondValue);
+                sum = sum.add(DataCalculateUtils.newBigDecimal(value).multiply(weight));
+                secondSum = secondSum.add(weight);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * 累加一个基本类型的数据值以及第二数据值(列式统计使用),总和使用Kahan补偿求和,
+     * 在{@link #getSum()}、{@link #getSecondSum()}中与BigDecimal总和合并
+     *
+     * @param value       数据值
+     * @param secondValue 第二数据值(比率的分母,加权平均的权重)
+     */
+    public void acceptDouble(double value, double secondValue) {
+        if (DataValueStatisticsModeEnum.HISTOGRAM.equals(statisticsMode)) {
+            int index = histogramBins.indexOf(value);
+            // 超出直方图范围的数据值不参与统计
+            if (index >= 0) {
+                histogram[index]++;
+                count++;
+            }
+            return;
+        }
+        count++;
+        switch (statisticsMode) {
+            case SUM:
+            case AVG:
+                addPrimitiveSum(value);
+                break;
+            case DISTINCT_COUNT:
+                distinctValues.add(value);
+                break;
+            case RATIO:
+                addPrimitiveSum(value);
+                addPrimitiveSecondSum(secondValue);
+                break;
+            case WEIGHTED_AVG:
+                double product = value * secondValue;
+                addPrimitiveSum(product);
+                // 乘积的舍入误差计入补偿值(总和 = primitiveSum - primitiveSumCompensation)
+                primitiveSumCompensation -= JdkSupport.productError(value, secondValue, product);
+                addPrimitiveSecondSum(secondValue);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void addPrimitiveSum(double value) {
+        double y = value - primitiveSumCompensation;
+        double t = primitiveSum + y;
+        primitiveSumCompensation = (t - primitiveSum) - y;
+        primitiveSum = t;
+    }
+
+    private void addPrimitiveSecondSum(double value) {
+        double y = value - primitiveSecondSumCompensation;
+        double t = primitiveSecondSum + y;
+        primitiveSecondSumCompensation = (t - primitiveSecondSum) - y;
+        primitiveSecondSum = t;
+    }
+
+    /**
+     * 数据值总和(包括基本类型累加的部分)
+     *
+     * @return 数据值总和
+     */
+    public BigDecimal getSum() {
+        if (primitiveSum == 0 && primitiveSumCompensation == 0) {
+            return sum;
+        }
+        return sum.add(BigDecimal.valueOf(primitiveSum)).subtract(BigDecimal.valueOf(primitiveSumCompensation));
+    }
+
+    /**
+     * 第二数据值总和(包括基本类型累加的部分)
+     *
+     * @return 第二数据值总和
+     */
+    public BigDecimal getSecondSum() {
+        if (primitiveSecondSum == 0 && primitiveSecondSumCompensation == 0) {
+            return secondSum;
+        }
+        return secondSum.add(BigDecimal.valueOf(primitiveSecondSum)).subtract(BigDecimal.valueOf(primitiveSecondSumCompensation));
+    }
+
+    /**
+     * 直方图统计时累加一个数据值,数值类型直接取double值,不再转换为BigDecimal
+     *
+     * @param value 数据值
+     */
+    private void acceptHistogram(Object value) {
+        double doubleValue;
+        if (value instanceof Number) {
+            doubleValue = ((Number) value).doubleValue();
+        } else if (value instanceof String) {
+            doubleValue = Double.parseDouble((String) value);
+        } else {
+            throw new IllegalArgumentException("value UNSUPPORTED TYPES");
+        }
+        int index = histogramBins.indexOf(doubleValue);
+        // 超出直方图范围的数据值不参与统计
+        if (index < 0) {
+            return;
+        }
+        histogram[index]++;
+        count++;
+    }
+
+    /**
+     * 合并另一个累加器的中间状态到当前累加器中
+     *
+     * @param other 另一个累加器(统计方式需要一致)
+     * @return 当前累加器
+     */
+    public StatisticsAccumulator merge(StatisticsAccumulator other) {
+        if (other == null) {
+            return this;
+        }
+        AssertUtils.isTrue(statisticsMode.equals(other.getStatisticsMode()), "只能合并统计方式一致的累加器");
+        count += other.getCount();
+        sum = sum.add(other.getSum());
+        secondSum = secondSum.add(other.getSecondSum());
+        if (distinctValues != null) {
+            distinctValues.addAll(other.getDistinctValues());
+        }
+        if (histogram != null) {
+            AssertUtils.isTrue(histogramBins.equals(other.getHistogramBins()), "只能合并直方图区间配置一致的累加器");
+            for (int i = 0; i < histogram.length; i++) {
+                histogram[i] += other.getHistogram()[i];
+            }
+        }
+        return this;
+    }
+
+    /**
+     * 是否没有累加任何数据
+     *
+     * @return 是否为空
+     */
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    /**
+     * 根据统计方式计算统计结果
+     *
+     * @return 统计结果
+     */
+    public String getValue() {
+        if (isEmpty()) {
+            return "0";
+        }
+        BigDecimal totalSum = getSum();
+        BigDecimal totalSecondSum = getSecondSum();
+        switch (statisticsMode) {
+            case SUM:
+                return totalSum.setScale(2, RoundingMode.HALF_UP)
+                        .stripTrailingZeros()
+                        .toPlainString();
+            case AVG:
+                return DataCalculateUtils.divideIgnoreZero(totalSum, DataCalculateUtils.newBigDecimal(count),
+                                2, RoundingMode.HALF_UP)
+                        .stripTrailingZeros().toPlainString();
+            case COUNT:
+            case HISTOGRAM:
+                return String.valueOf(count);
+            case DISTINCT_COUNT:
+                return String.valueOf(distinctValues.size());
+            case RATIO:
+            case WEIGHTED_AVG:
+                // 分母(权重总和)为0时,比率无意义,直接返回0
+                if (totalSecondSum.signum() == 0) {
+                    return "0";
+                }
+                return DataCalculateUtils.divideIgnoreZero(totalSum, totalSecondSum, 2, RoundingMode.HALF_UP)
+                        .stripTrailingZeros().toPlainString();
+            default:
+                return "0";
+        }
+    }
+
+    /**
+     * 将累加器的中间状态写入二进制输出(用于检查点、溢写)
+     *
+     * @param out 输出
+     * @throws IOException 写入失败,或去重值类型不支持序列化
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeUTF(statisticsMode.name());
+        out.writeLong(count);
+        StatisticsCheckpointUtils.writeBigDecimal(out, getSum());
+        StatisticsCheckpointUtils.writeBigDecimal(out, getSecondSum());
+        if (distinctValues != null) {
+            out.writeInt(distinctValues.size());
+            for (Object distinctValue : distinctValues) {
+                StatisticsCheckpointUtils.writeObject(out, distinctValue);
+            }
+        }
+        if (histogram != null) {
+            out.writeInt(histogram.length);
+            for (long binCount : histogram) {
+                out.writeLong(binCount);
+            }
+        }
+    }
+
+    /**
+     * 从二进制输入中读取累加器的中间状态
+     *
+     * @param in            输入
+     * @param histogramBins 直方图区间配置(需要与写入时一致)
+     * @return 累加器
+     * @throws IOException 读取失败
+     */
+    public static StatisticsAccumulator readFrom(DataInput in, HistogramBins histogramBins) throws IOException {
+        StatisticsAccumulator accumulator = new StatisticsAccumulator(DataValueStatisticsModeEnum.valueOf(in.readUTF()), histogramBins);
+        accumulator.count = in.readLong();
+        accumulator.sum = StatisticsCheckpointUtils.readBigDecimal(in);
+        accumulator.secondSum = StatisticsCheckpointUtils.readBigDecimal(in);
+        if (accumulator.distinctValues != null) {
+            int size = in.readInt();
+            for (int i = 0; i < size; i++) {
+                accumulator.distinctValues.add(StatisticsCheckpointUtils.readObject(in));
+            }
+        }
+        if (accumulator.histogram != null) {
+            int length = in.readInt();
+            AssertUtils.isTrue(length == accumulator.histogram.length, "直方图区间配置与快照不一致");
+            for (int i = 0; i < length; i++) {
+                accumulator.histogram[i] = in.readLong();
+            }
+        }
+        return accumulator;
+    }
+
+    /**
+     * 根据当前累加结果构建统计数据细节
+     *
+     * @param tagCode 标签Code
+     * @param tagName 标签名称
+     * @return 统计数据细节
+     */
+    public DataStatisticsItemDetail toDetail(String tagCode, String tagName) {
+        return new DataStatisticsItemDetail(tagCode, tagName, getValue(), histogram == null ? null : histogram.clone());
+    }
+}
@@ -0,0 +1,83 @@
+package com.hopetool.core.statistics.support;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 一次统计执行的度量数据
+ *
+ * @author JunPzx
+ * @since 2024/1/16 9:15
+ */
+@Getter
+@AllArgsConstructor
+public class StatisticsExecutionMetrics {
+
+    /**
+     * 统计方法名
+     */
+    private final String operation;
+
+    /**
+     * 各阶段耗时纳秒(下标为阶段的序号)
+     */
+    private final long[] phaseNanos;
+
+    /**
+     * 各阶段当前线程分配的字节数(下标为阶段的序号),JVM不支持统计时为空
+     */
+    private final long[] phaseAllocatedBytes;
+
+    /**
+     * 遍历的数据行数(周期统计中同一行数据在每个时间段中都会被遍历)
+     */
+    private final long rowsScanned;
+
+    /**
+     * 参与累加的数据行数
+     */
+    private final long rowsMatched;
+
+    /**
+     * 输出的时间段数量(总数统计为1)
+     */
+    private final long buckets;
+
+    /**
+     * 输出的维度数量(各时间段中维度数量的最大值)
+     */
+    private final long dimensions;
+
+    /**
+     * 阶段耗时
+     *
+     * @param phase 统计执行阶段
+     * @return 耗时纳秒,没有执行该阶段时为0
+     */
+    public long getPhaseNanos(StatisticsPhaseEnum phase) {
+        return phaseNanos[phase.ordinal()];
+    }
+
+    /**
+     * 阶段内当前线程分配的字节数
+     *
+     * @param phase 统计执行阶段
+     * @return 分配的字节数,JVM不支持统计时返回-1
+     */
+    public long getAllocatedBytes(StatisticsPhaseEnum phase) {
+        return phaseAllocatedBytes == null ? -1 : phaseAllocatedBytes[phase.ordinal()];
+    }
+
+    /**
+     * 所有阶段的总耗时
+     *
+     * @return 耗时纳秒
+     */
+    public long getTotalNanos() {
+        long total = 0;
+        for (long nanos : phaseNanos) {
+            total += nanos;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,26 @@
+package com.hopetool.core.statistics.support;
+
+/**
+ * 统计执行度量扩展点
+ * <p>
+ * 每次统计执行结束时回调一次,实现需要是线程安全的;使用{@link #NOOP}时不采集任何度量数据
+ *
+ * @author JunPzx
+ * @since 2024/1/16 9:20
+ */
+@FunctionalInterface
+public interface StatisticsInstrumentation {
+
+    /**
+     * 不采集度量数据的默认实现
+     */
+    StatisticsInstrumentation NOOP = metrics -> {
+    };
+
+    /**
+     * 记录一次统计执行的度量数据
+     *
+     * @param metrics 度量数据
+     */
+    void record(StatisticsExecutionMetrics metrics);
+}
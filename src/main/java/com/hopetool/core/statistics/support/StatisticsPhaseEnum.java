@@ -0,0 +1,26 @@
+package com.hopetool.core.statistics.support;
+
+/**
+ * 统计执行阶段
+ *
+ * @author JunPzx
+ * @since 2024/1/16 9:10
+ */
+public enum StatisticsPhaseEnum {
+    /**
+     * 划分统计时间段
+     */
+    DIVISION,
+    /**
+     * 按维度分组数据
+     */
+    GROUPING,
+    /**
+     * 根据统计模式累加(包括BigDecimal运算);按时间段过滤数据、定位数据所属时间段与累加在同一次遍历中完成,同样计入该阶段
+     */
+    ACCUMULATE,
+    /**
+     * 根据累加器构建统计结果
+     */
+    RESULT_BUILD
+}
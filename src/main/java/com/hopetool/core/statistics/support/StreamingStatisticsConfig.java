@@ -0,0 +1,223 @@
+package com.hopetool.core.statistics.support;
+
+import com.hopetool.core.column.support.SFunction;
+import com.hopetool.core.datetime.support.DateTimeUnit;
+import com.hopetool.core.lang.AssertUtils;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * 流式周期统计配置
+ * <p>
+ * T: 统计数据-数据实体类型
+ * V: 统计数据-实体获取数据get方法返回类型
+ * M: 多维度统计-统计维度字段get方法返回类型
+ *
+ * @author JunPzx
+ * @since 2024/1/10 15:10
+ */
+@SuppressWarnings("UnusedReturnValue")
+@Getter
+@NoArgsConstructor
+public class StreamingStatisticsConfig<T, V, M> {
+
+    /**
+     * 统计方式
+     */
+    private DataValueStatisticsModeEnum statisticsMode;
+
+    /**
+     * 直方图区间配置(统计方式为直方图时使用)
+     */
+    private HistogramBins histogramBins;
+
+    /**
+     * 周期统计-数据分割单位
+     */
+    private DateTimeUnit dateTimeUnit;
+
+    /**
+     * 数据事件时间的get方法
+     */
+    private SFunction<T, LocalDateTime> eventTimeGetFunction;
+
+    /**
+     * 需要统计的数据值的get方法
+     */
+    private SFunction<T, V> getValueFunction;
+
+    /**
+     * 需要统计的第二数据值的get方法(比率统计时为分母,加权平均统计时为权重)
+     */
+    private SFunction<T, ?> secondValueFunction;
+
+    /**
+     * 允许的乱序时长,水位线 = 已到达数据的最大事件时间 - 允许的乱序时长
+     */
+    private Duration allowedLateness = Duration.ZERO;
+
+    /**
+     * 迟到数据处理策略
+     */
+    private LateDataPolicyEnum lateDataPolicy = LateDataPolicyEnum.DROP;
+
+    /**
+     * 迟到数据修正策略下,保留的已关闭时间段数量
+     */
+    private int amendRetention = 16;
+
+    /**
+     * 是否是多维度的
+     */
+    private Boolean isMultidimensional = false;
+
+    /**
+     * 单维度信息
+     */
+    private SingleDimensional singleDimensional;
+
+    /**
+     * 多维度信息
+     */
+    private Multidimensional<T, M> multidimensional;
+
+
+    /**
+     * 根据事件时间构建流式统计的时间分割配置
+     *
+     * @param dateTimeUnit         时间分割单位
+     * @param eventTimeGetFunction 获取事件时间的函数
+     * @return 流式统计配置对象
+     */
+    public StreamingStatisticsConfig<T, V, M> buildEventTime(DateTimeUnit dateTimeUnit, SFunction<T, LocalDateTime> eventTimeGetFunction) {
+        this.dateTimeUnit = dateTimeUnit;
+        this.eventTimeGetFunction = eventTimeGetFunction;
+        return this;
+    }
+
+
+    /**
+     * 构建流式统计的统计方式
+     *
+     * @param statisticsModeEnum 统计模式
+     * @param getValueFunction   获取值的函数
+     * @return 流式统计配置对象
+     */
+    public StreamingStatisticsConfig<T, V, M> buildStatisticsData(DataValueStatisticsModeEnum statisticsModeEnum, SFunction<T, V> getValueFunction) {
+        this.statisticsMode = statisticsModeEnum;
+        this.getValueFunction = getValueFunction;
+        return this;
+    }
+
+
+    /**
+     * 构建需要两个数据值的流式统计方式(比率、加权平均)
+     *
+     * @param statisticsModeEnum  统计模式
+     * @param getValueFunction    获取值的函数(比率的分子,加权平均的数据值)
+     * @param secondValueFunction 获取第二数据值的函数(比率的分母,加权平均的权重)
+     * @return 流式统计配置对象
+     */
+    public StreamingStatisticsConfig<T, V, M> buildStatisticsData(DataValueStatisticsModeEnum statisticsModeEnum, SFunction<T, V> getValueFunction, SFunction<T, ?> secondValueFunction) {
+        buildStatisticsData(statisticsModeEnum, getValueFunction);
+        this.secondValueFunction = secondValueFunction;
+        return this;
+    }
+
+
+    /**
+     * 构建直方图统计配置(统计方式需要为直方图)
+     *
+     * @param histogramBins 直方图区间配置
+     * @return 流式统计配置对象
+     */
+    public StreamingStatisticsConfig<T, V, M> buildHistogramBins(HistogramBins histogramBins) {
+        this.histogramBins = histogramBins;
+        return this;
+    }
+
+
+    /**
+     * 构建水位线以及迟到数据处理配置
+     *
+     * @param allowedLateness 允许的乱序时长
+     * @param lateDataPolicy  迟到数据处理策略
+     * @return 流式统计配置对象
+     */
+    public StreamingStatisticsConfig<T, V, M> buildWatermark(Duration allowedLateness, LateDataPolicyEnum lateDataPolicy) {
+        this.allowedLateness = allowedLateness;
+        this.lateDataPolicy = lateDataPolicy;
+        return this;
+    }
+
+
+    /**
+     * 构建迟到数据修正策略下保留的已关闭时间段数量
+     *
+     * @param amendRetention 保留的已关闭时间段数量
+     * @return 流式统计配置对象
+     */
+    public StreamingStatisticsConfig<T, V, M> buildAmendRetention(int amendRetention) {
+        this.amendRetention = amendRetention;
+        return this;
+    }
+
+
+    /**
+     * 构建单维的统计配置
+     *
+     * @param tagName        标签名
+     * @param tagChineseName 标签中文名
+     * @return 流式统计配置对象
+     */
+    public StreamingStatisticsConfig<T, V, M> buildSingleDimensional(String tagName, String tagChineseName) {
+        this.isMultidimensional = false;
+        this.multidimensional = null;
+        this.singleDimensional = new SingleDimensional(tagName, tagChineseName);
+        return this;
+    }
+
+
+    /**
+     * 构建多维统计配置(不在标签备忘录中的维度数据不参与统计)
+     *
+     * @param multidimensionalFunction 多维函数
+     * @param tagMemo                  标签备忘录
+     * @return 流式统计配置对象
+     */
+    public StreamingStatisticsConfig<T, V, M> buildMultidimensional(SFunction<T, M> multidimensionalFunction, Map<M, String> tagMemo) {
+        this.isMultidimensional = true;
+        this.singleDimensional = null;
+        this.multidimensional = new Multidimensional<>(multidimensionalFunction, tagMemo);
+        return this;
+    }
+
+
+    public void checkSelf() {
+        AssertUtils.notNull(statisticsMode, "统计方式不能为空");
+        AssertUtils.notNull(dateTimeUnit, "时间单位不能为空");
+        AssertUtils.notNull(eventTimeGetFunction, "事件时间获取函数不能为空");
+        AssertUtils.notNull(getValueFunction, "统计值获取函数不能为空");
+        AssertUtils.notNull(allowedLateness, "允许的乱序时长不能为空");
+        AssertUtils.isFalse(allowedLateness.isNegative(), "允许的乱序时长不能为负数");
+        AssertUtils.notNull(lateDataPolicy, "迟到数据处理策略不能为空");
+        AssertUtils.isTrue(amendRetention >= 0, "保留的已关闭时间段数量不能为负数");
+        if (statisticsMode.isRequireSecondValue()) {
+            AssertUtils.notNull(secondValueFunction, "第二统计值获取函数不能为空");
+        }
+        if (DataValueStatisticsModeEnum.HISTOGRAM.equals(statisticsMode)) {
+            AssertUtils.notNull(histogramBins, "直方图区间配置不能为空");
+        }
+        if (isMultidimensional) {
+            AssertUtils.notNull(multidimensional, "多维度统计配置不能为空");
+            AssertUtils.notNull(multidimensional.getMultidimensionalFunction(), "多维度统计方法不能为空");
+            AssertUtils.notEmpty(multidimensional.getTagMemo(), "多维度统计标签名和中文名不能为空");
+        } else {
+            AssertUtils.notNull(singleDimensional, "单维度统计配置不能为空");
+        }
+    }
+}
@@ -23,6 +23,11 @@ public class TotalStatisticsConfig<T, V, M> extends AbstractStatisticsConfig<T>
      */
     private SFunction<T, V> getValueFunction;
 
+    /**
+     * 需要统计的第二数据值的get方法(比率统计时为分母,加权平均统计时为权重)
+     */
+    private SFunction<T, ?> secondValueFunction;
+
     /**
      * 是否是多维度的
      */
@@ -54,6 +59,22 @@ public class TotalStatisticsConfig<T, V, M> extends AbstractStatisticsConfig<T>
         return this;
     }
 
+
+    /**
+     * 根据指定数据构建需要两个数据值的统计配置(比率、加权平均)
+     *
+     * @param data                数据列表
+     * @param statisticsModeEnum  统计模式
+     * @param getValueFunction    获取值的函数(比率的分子,加权平均的数据值)
+     * @param secondValueFunction 获取第二数据值的函数(比率的分母,加权平均的权重)
+     * @return 统计配置对象
+     */
+    public TotalStatisticsConfig<T, V, M> buildStatisticsData(List<T> data, DataValueStatisticsModeEnum statisticsModeEnum, SFunction<T, V> getValueFunction, SFunction<T, ?> secondValueFunction) {
+        buildStatisticsData(data, statisticsModeEnum, getValueFunction);
+        this.secondValueFunction = secondValueFunction;
+        return this;
+    }
+
     /**
      * 构建单维的统计配置
      *
@@ -84,9 +105,48 @@ public class TotalStatisticsConfig<T, V, M> extends AbstractStatisticsConfig<T>
     }
 
 
+    /**
+     * 构建直方图统计配置(统计方式需要为直方图)
+     *
+     * @param histogramBins 直方图区间配置
+     * @return 统计配置对象
+     */
+    public TotalStatisticsConfig<T, V, M> buildHistogramBins(HistogramBins histogramBins) {
+        super.setHistogramBins(histogramBins);
+        return this;
+    }
+
+
+    /**
+     * 构建稀疏结果配置(只输出存在数据的单元格,不补齐"0")
+     *
+     * @param sparse 是否为稀疏结果
+     * @return 统计配置对象
+     */
+    public TotalStatisticsConfig<T, V, M> buildSparse(boolean sparse) {
+        super.setSparse(sparse);
+        return this;
+    }
+
+
+    /**
+     * 构建多维度统计的内存预算配置(超出预算时溢写到本地临时文件)
+     *
+     * @param memoryBudgetBytes 内存预算(字节)
+     * @return 统计配置对象
+     */
+    public TotalStatisticsConfig<T, V, M> buildMemoryBudget(long memoryBudgetBytes) {
+        super.setMemoryBudgetBytes(memoryBudgetBytes);
+        return this;
+    }
+
+
     public void checkSelf() {
         super.checkSelf();
         AssertUtils.notNull(getValueFunction, "统计值获取函数不能为空");
+        if (getStatisticsMode().isRequireSecondValue()) {
+            AssertUtils.notNull(secondValueFunction, "第二统计值获取函数不能为空");
+        }
         if (isMultidimensional) {
             AssertUtils.notNull(multidimensional, "多维度统计配置不能为空");
             AssertUtils.notNull(multidimensional.getMultidimensionalFunction(), "多维度统计方法不能为空");
@@ -0,0 +1,39 @@
+package com.hopetool.core.util;
+
+/**
+ * JDK版本相关的实现
+ * <p>
+ * 多版本JAR(Multi-Release)的基础实现,兼容JDK8;在JDK17及以上版本构建时,
+ * {@code META-INF/versions/17}中的同名类会覆盖本类,直接使用新版本JDK的方法。
+ * 两个版本的方法签名需要保持一致
+ *
+ * @author JunPzx
+ * @since 2024/1/19 14:00
+ */
+public final class JdkSupport {
+
+    private JdkSupport() {
+    }
+
+    /**
+     * ConcurrentHashMap#computeIfAbsent是否可以直接调用(JDK8中可能造成死循环,见JDK-8161372)
+     *
+     * @return 是否可以直接调用
+     */
+    public static boolean isComputeIfAbsentSafe() {
+        return !JdkUtil.IS_JDK8;
+    }
+
+    /**
+     * 两数乘积的舍入误差,即 {@code a * b - product} 的精确值,用于补偿求和;
+     * JDK8没有融合乘加(Math.fma),不计算误差,返回0
+     *
+     * @param a       乘数
+     * @param b       乘数
+     * @param product {@code a * b}的浮点结果
+     * @return 舍入误差
+     */
+    public static double productError(double a, double b, double product) {
+        return 0;
+    }
+}
@@ -0,0 +1,36 @@
+package com.hopetool.core.util;
+
+/**
+ * JDK版本相关的实现(JDK17)
+ * <p>
+ * 打包到{@code META-INF/versions/17},在JDK17及以上版本运行时覆盖基础实现
+ *
+ * @author JunPzx
+ * @since 2024/1/19 14:00
+ */
+public final class JdkSupport {
+
+    private JdkSupport() {
+    }
+
+    /**
+     * ConcurrentHashMap#computeIfAbsent是否可以直接调用(JDK-8161372已在JDK9修复)
+     *
+     * @return 是否可以直接调用
+     */
+    public static boolean isComputeIfAbsentSafe() {
+        return true;
+    }
+
+    /**
+     * 两数乘积的舍入误差,即 {@code a * b - product} 的精确值,通过融合乘加一次舍入计算
+     *
+     * @param a       乘数
+     * @param b       乘数
+     * @param product {@code a * b}的浮点结果
+     * @return 舍入误差,乘积溢出时返回0
+     */
+    public static double productError(double a, double b, double product) {
+        return Double.isFinite(product) ? Math.fma(a, b, -product) : 0;
+    }
+}
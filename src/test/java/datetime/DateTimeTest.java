@@ -0,0 +1,356 @@
+package datetime;
+
+import com.hopetool.core.datetime.DateTimeBucketUtils;
+import com.hopetool.core.datetime.DateTimeRangeUtils;
+import com.hopetool.core.datetime.LocalDateTimeDivisionUtils;
+import com.hopetool.core.datetime.LocalDateTimeUtils;
+import com.hopetool.core.datetime.TemporalAccessorUtil;
+import com.hopetool.core.datetime.support.CachedClock;
+import com.hopetool.core.datetime.support.DatePattern;
+import com.hopetool.core.datetime.support.DateTimeAutoParser;
+import com.hopetool.core.datetime.support.DateTimeFormatterCache;
+import com.hopetool.core.datetime.support.DateTimeUnit;
+import com.hopetool.core.datetime.support.EpochMillisDivision;
+import com.hopetool.core.datetime.support.FixedDatePattern;
+import com.hopetool.core.datetime.support.LocalDateTimeDivisionCache;
+import com.hopetool.core.datetime.support.LocalDateTimeDivisionDomain;
+import com.hopetool.core.datetime.support.WorkdayCalendar;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+/**
+ * 日期时间测试
+ *
+ * @author JunPzx
+ * @since 2024/1/22 9:30
+ */
+public class DateTimeTest {
+
+    /**
+     * 日期格式化器缓存测试,缓存的格式化器与直接编译的格式化器结果一致,且数量有上限
+     */
+    @Test
+    public void formatterCache() {
+        LocalDateTime time = LocalDateTime.of(2024, 1, 22, 9, 30, 15, 123_000_000);
+        Assert.assertSame(DateTimeFormatterCache.get(DatePattern.NORM_DATETIME_PATTERN), DateTimeFormatterCache.get(DatePattern.NORM_DATETIME_PATTERN));
+        Assert.assertEquals("2024-01-22 09:30:15", LocalDateTimeUtils.format(time, DatePattern.NORM_DATETIME_PATTERN));
+        Assert.assertEquals("2024年01月22日", LocalDateTimeUtils.format(time, DatePattern.CHINESE_DATE_PATTERN));
+        Assert.assertEquals("Mon", DateTimeFormatterCache.get("EEE", Locale.US).format(time));
+        Assert.assertEquals(time, LocalDateTimeUtils.parse("20240122093015123", DatePattern.PURE_DATETIME_MS_PATTERN));
+        Assert.assertEquals(time.withNano(0), LocalDateTimeUtils.parse("2024/01/22 09:30:15", "yyyy/MM/dd HH:mm:ss"));
+
+        Locale locale = Locale.CANADA;
+        for (int i = 0; i < DateTimeFormatterCache.MAX_SIZE * 2; i++) {
+            DateTimeFormatterCache.get("'" + i + "'yyyy", locale);
+        }
+        Assert.assertTrue(DateTimeFormatterCache.size(locale) <= DateTimeFormatterCache.MAX_SIZE);
+        Assert.assertThrows(IllegalArgumentException.class, () -> DateTimeFormatterCache.get("yyyy-MM-dd bb", locale));
+    }
+
+    /**
+     * 定长数字日期格式测试,格式化、解析结果需要与DateTimeFormatter一致
+     */
+    @Test
+    public void fixedDatePattern() {
+        Random random = new Random(42);
+        for (FixedDatePattern fixedDatePattern : FixedDatePattern.values()) {
+            DateTimeFormatter formatter = DateTimeFormatter.ofPattern(fixedDatePattern.getPattern());
+            for (int i = 0; i < 1000; i++) {
+                LocalDateTime time = LocalDateTime.of(1 + random.nextInt(9999), 1 + random.nextInt(12), 1 + random.nextInt(28),
+                        random.nextInt(24), random.nextInt(60), random.nextInt(60), random.nextInt(1000) * 1_000_000);
+                String expected = formatter.format(time);
+                Assert.assertEquals(expected, fixedDatePattern.format(time));
+                char[] chars = new char[fixedDatePattern.length() + 1];
+                Assert.assertEquals(chars.length, fixedDatePattern.format(time, chars, 1));
+                Assert.assertEquals(expected, new String(chars, 1, fixedDatePattern.length()));
+                Assert.assertEquals(expected, fixedDatePattern.format(time, new StringBuilder()).toString());
+                Assert.assertEquals(LocalDateTimeUtils.of(formatter.parse(expected)), fixedDatePattern.parse("#" + expected, 1));
+            }
+        }
+        // 字段值不合法时回退到DateTimeFormatter(SMART模式修正为月末)
+        Assert.assertNull(FixedDatePattern.NORM_DATE.parse("2023-02-29", 0));
+        Assert.assertEquals(LocalDateTime.of(2023, 2, 28, 0, 0), LocalDateTimeUtils.parse("2023-02-29", DatePattern.NORM_DATE_PATTERN));
+        Assert.assertNull(FixedDatePattern.NORM_DATETIME.parse("2024-01-22T09:30:15", 0));
+        Assert.assertEquals("+10000-01-01 00:00:00", LocalDateTimeUtils.format(LocalDateTime.of(10000, 1, 1, 0, 0), DatePattern.NORM_DATETIME_PATTERN));
+        // 纯数字格式走定长解析,结果与原有解析一致
+        Assert.assertEquals(LocalDateTime.of(2024, 1, 22, 9, 30, 15), LocalDateTimeUtils.parse("20240122093015", DatePattern.PURE_DATETIME_PATTERN));
+    }
+
+    /**
+     * 时间段下标计算测试,时间段开始时间需要与beginTimeByDateTimeUnit一致
+     */
+    @Test
+    public void dateTimeBucket() {
+        Random random = new Random(7);
+        long from = EpochMillisDivision.toLocalMillis(LocalDateTime.of(1600, 1, 1, 0, 0));
+        long to = EpochMillisDivision.toLocalMillis(LocalDateTime.of(2400, 12, 31, 23, 59));
+        long[] localMillis = new long[10000];
+        for (int i = 0; i < localMillis.length; i++) {
+            localMillis[i] = from + (long) (random.nextDouble() * (to - from));
+        }
+        long[] buckets = new long[localMillis.length];
+        for (DateTimeUnit unit : DateTimeUnit.values()) {
+            DateTimeBucketUtils.bucketOf(localMillis, 0, localMillis.length, unit, buckets);
+            for (int i = 0; i < localMillis.length; i++) {
+                LocalDateTime time = LocalDateTime.ofEpochSecond(Math.floorDiv(localMillis[i], 1000), 0, ZoneOffset.UTC);
+                long begin = DateTimeBucketUtils.beginOf(buckets[i], unit);
+                Assert.assertEquals(buckets[i], DateTimeBucketUtils.bucketOf(begin, unit));
+                // 月初第一个周一之前的日期属于第一个周一开始的时间段
+                if (DateTimeUnit.WEEK_OF_MONTH.equals(unit) && time.getDayOfMonth() < time.getDayOfWeek().getValue()) {
+                    LocalDate firstMonday = time.toLocalDate().with(TemporalAdjusters.firstInMonth(DayOfWeek.MONDAY));
+                    Assert.assertEquals(EpochMillisDivision.toLocalMillis(firstMonday.atStartOfDay()), begin);
+                    continue;
+                }
+                Assert.assertEquals(EpochMillisDivision.toLocalMillis(LocalDateTimeUtils.beginTimeByDateTimeUnit(time, unit)), begin);
+            }
+        }
+        Assert.assertEquals(LocalDate.of(2024, 2, 29).toEpochDay(), DateTimeBucketUtils.toEpochDay(2024, 2, 29));
+        Assert.assertEquals(-1, DateTimeBucketUtils.bucketOfEpochDay(-1, DateTimeUnit.DAY));
+    }
+
+    /**
+     * 惰性分段测试,时间段与分段列表一致
+     */
+    @Test
+    public void lazyDivision() {
+        LocalDateTime begin = LocalDateTime.of(2024, 1, 1, 0, 0);
+        for (DateTimeUnit unit : new DateTimeUnit[]{DateTimeUnit.HOUR, DateTimeUnit.DAY, DateTimeUnit.WEEK, DateTimeUnit.MONTH, DateTimeUnit.YEAR}) {
+            LocalDateTime end = LocalDateTimeUtils.offsetAndEndTimeByDateTimeUnit(begin, 99, unit);
+            List<LocalDateTimeDivisionDomain<LocalDateTime>> expected = LocalDateTimeDivisionUtils.division(begin, end, unit, false);
+            List<LocalDateTimeDivisionDomain<LocalDateTime>> actual = LocalDateTimeDivisionUtils.divisionStream(begin, end, unit, false)
+                    .collect(Collectors.toList());
+            Assert.assertEquals(expected, actual);
+            long[] boundaries = LocalDateTimeDivisionUtils.divisionBoundaries(begin, end, unit, false);
+            Assert.assertEquals(expected.size() * 2, boundaries.length);
+            for (int i = 0; i < expected.size(); i++) {
+                Assert.assertEquals(EpochMillisDivision.toLocalMillis(expected.get(i).getBeginTime()), boundaries[2 * i]);
+                Assert.assertEquals(EpochMillisDivision.toLocalMillis(expected.get(i).getEndTime()), boundaries[2 * i + 1]);
+            }
+        }
+        // 只遍历需要的时间段
+        Iterator<LocalDateTimeDivisionDomain<LocalDateTime>> iterator = LocalDateTimeDivisionUtils.divisionIterator(begin, LocalDateTime.of(9999, 1, 1, 0, 0), DateTimeUnit.HOUR, false);
+        Assert.assertEquals("2024-01-01 00", iterator.next().getDateStr());
+        Assert.assertTrue(iterator.hasNext());
+        Assert.assertEquals(LocalDateTime.of(2024, 1, 1, 1, 0), iterator.next().getBeginTime());
+    }
+
+    /**
+     * 分段结果缓存测试,结果只读,超出容量时淘汰
+     */
+    @Test
+    public void divisionCache() {
+        LocalDateTime begin = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDateTime end = LocalDateTime.of(2024, 1, 31, 23, 59, 59);
+        LocalDateTimeDivisionCache cache = new LocalDateTimeDivisionCache(2);
+        List<LocalDateTimeDivisionDomain<LocalDateTime>> first = cache.get(begin, end, DateTimeUnit.DAY, false);
+        Assert.assertSame(first, cache.get(begin, end, DateTimeUnit.DAY, false));
+        Assert.assertEquals(LocalDateTimeDivisionUtils.division(begin, end, DateTimeUnit.DAY, false), first);
+        Assert.assertEquals(1, cache.getHitCount());
+        Assert.assertEquals(1, cache.getMissCount());
+        Assert.assertThrows(UnsupportedOperationException.class, () -> first.remove(0));
+        Assert.assertThrows(UnsupportedOperationException.class, () -> first.get(0).setDateStr("2000-01-01"));
+
+        cache.get(begin, end, DateTimeUnit.WEEK, false);
+        cache.get(begin, end, DateTimeUnit.DAY, true);
+        Assert.assertEquals(2, cache.size());
+        Assert.assertEquals(1, cache.getEvictionCount());
+        Assert.assertSame(LocalDateTimeDivisionUtils.cachedDivision(begin, end, DateTimeUnit.DAY), LocalDateTimeDivisionUtils.cachedDivision(begin, end, DateTimeUnit.DAY));
+
+        // 按照时间段总数淘汰,超过总容量的结果不缓存
+        LocalDateTimeDivisionCache frameCache = new LocalDateTimeDivisionCache(16, 40);
+        frameCache.get(begin, end, DateTimeUnit.DAY, false);
+        frameCache.get(begin, end, DateTimeUnit.WEEK, false);
+        Assert.assertEquals(36, frameCache.frameCount());
+        frameCache.get(begin, end, DateTimeUnit.DAY, true);
+        Assert.assertEquals(2, frameCache.size());
+        Assert.assertEquals(36, frameCache.frameCount());
+        Assert.assertEquals(1, frameCache.getEvictionCount());
+        List<LocalDateTimeDivisionDomain<LocalDateTime>> hours = frameCache.get(begin, end, DateTimeUnit.HOUR, false);
+        Assert.assertEquals(744, hours.size());
+        Assert.assertNotSame(hours, frameCache.get(begin, end, DateTimeUnit.HOUR, false));
+        Assert.assertEquals(36, frameCache.frameCount());
+    }
+
+    /**
+     * 名称表测试,与按照格式字符串生成的名称一致
+     */
+    @Test
+    public void dateTimeLabels() {
+        for (LocalDateTime time = LocalDateTime.of(2020, 1, 1, 5, 0); time.getYear() < 2026; time = time.plusDays(1)) {
+            for (DateTimeUnit unit : DateTimeUnit.values()) {
+                Assert.assertEquals(LocalDateTimeUtils.format(time, unit.getDateFormat()), unit.getDateStr(time));
+            }
+            Assert.assertEquals(String.format("%s年", time.getYear()), DateTimeUnit.YEAR.getChineseName(time));
+            Assert.assertEquals(String.format("%s月", time.getMonthValue()), DateTimeUnit.MONTH.getChineseName(time));
+            Assert.assertEquals(String.format("%s日", time.getDayOfMonth()), DateTimeUnit.DAY.getChineseName(time));
+            Assert.assertEquals("5时", DateTimeUnit.HOUR.getChineseName(time));
+            LocalDateTime firstMonday = time.with(TemporalAdjusters.firstInMonth(DayOfWeek.MONDAY));
+            int weekNumber = time.isBefore(firstMonday) ? 1 : (time.getDayOfMonth() - firstMonday.getDayOfMonth()) / 7 + 1;
+            Assert.assertEquals(String.format("%s月第%s周", time.getMonthValue(), weekNumber), DateTimeUnit.WEEK_OF_MONTH.getChineseName(time));
+        }
+        Assert.assertEquals("2季度", DateTimeUnit.QUARTER.getChineseName(LocalDateTime.of(2024, 5, 1, 0, 0)));
+        Assert.assertSame(DateTimeUnit.MONTH.getChineseName(LocalDateTime.of(2024, 5, 1, 0, 0)), DateTimeUnit.MONTH.getChineseName(LocalDateTime.of(2023, 5, 9, 0, 0)));
+        // 超出年份范围时按照格式生成
+        Assert.assertEquals("2500年", DateTimeUnit.YEAR.getChineseName(LocalDateTime.of(2500, 1, 1, 0, 0)));
+        Assert.assertEquals("2500-3", DateTimeUnit.QUARTER.getDateStr(LocalDateTime.of(2500, 8, 1, 0, 0)));
+    }
+
+    /**
+     * 批量时间范围判断测试,与逐个判断的结果一致
+     */
+    @Test
+    public void rangeBetween() {
+        Random random = new Random(7);
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 0, 0);
+        List<LocalDateTime> times = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            times.add(base.plusMinutes(random.nextInt(100)));
+        }
+        LocalDateTime[][] frames = {{base.plusMinutes(10), base.plusMinutes(40)}, {base.plusMinutes(80), base.plusMinutes(60)},
+                {base.plusMinutes(20), base.plusMinutes(20)}, {base.plusMinutes(45), base.plusMinutes(46)}};
+        for (boolean includeBegin : new boolean[]{true, false}) {
+            for (boolean includeEnd : new boolean[]{true, false}) {
+                BitSet any = new BitSet();
+                for (LocalDateTime[] frame : frames) {
+                    BitSet matches = DateTimeRangeUtils.between(times, frame[0], frame[1], includeBegin, includeEnd);
+                    BitSet expected = new BitSet();
+                    for (int i = 0; i < times.size(); i++) {
+                        if (TemporalAccessorUtil.isIn(times.get(i), frame[0], frame[1], includeBegin, includeEnd)) {
+                            expected.set(i);
+                        }
+                    }
+                    Assert.assertEquals(expected, matches);
+                    any.or(expected);
+                }
+                Assert.assertEquals(any, DateTimeRangeUtils.between(times, Arrays.asList(frames), includeBegin, includeEnd));
+            }
+        }
+        long[] millis = {5, 10, 15, 20, 25};
+        Assert.assertArrayEquals(new int[]{1, 2, 3}, DateTimeRangeUtils.indexOfBetween(millis, 20, 10, true, true));
+        Assert.assertArrayEquals(new int[]{2}, DateTimeRangeUtils.indexOfBetween(millis, 10, 20, false, false));
+        Assert.assertArrayEquals(new int[]{0, 4}, DateTimeRangeUtils.indexOfBetween(millis, new long[]{0, 5, 25, 30}, true, true));
+    }
+
+    /**
+     * 时钟测试,固定时钟用于依赖当前时间的方法,缓存时钟按照精度更新
+     */
+    @Test
+    public void clock() throws InterruptedException {
+        LocalDateTime fixed = LocalDateTime.of(2024, 1, 15, 10, 30);
+        LocalDateTimeUtils.setClock(Clock.fixed(fixed.toInstant(ZoneOffset.ofHours(8)), ZoneOffset.ofHours(8)));
+        try {
+            Assert.assertEquals(fixed, LocalDateTimeUtils.now());
+            Assert.assertTrue(LocalDateTimeUtils.beforeNow(fixed.minusSeconds(1)));
+            Assert.assertFalse(LocalDateTimeUtils.afterNow(fixed));
+            Assert.assertEquals(LocalDateTime.of(2024, 1, 15, 0, 0), LocalDateTimeDivisionUtils.division(DateTimeUnit.DAY).get(0).getBeginTime());
+        } finally {
+            LocalDateTimeUtils.setClock(null);
+        }
+
+        // 精度为1小时,测试期间不会刷新,多次读取为同一快照
+        try (CachedClock cachedClock = CachedClock.start(ZoneOffset.UTC, 3_600_000)) {
+            Assert.assertTrue(Math.abs(cachedClock.millis() - System.currentTimeMillis()) < 1000);
+            Assert.assertEquals(LocalDateTime.ofInstant(cachedClock.instant(), ZoneOffset.UTC), cachedClock.localDateTime());
+            LocalDateTimeUtils.setClock(cachedClock);
+            Assert.assertSame(cachedClock.localDateTime(), LocalDateTimeUtils.now());
+        } finally {
+            LocalDateTimeUtils.setClock(null);
+        }
+
+        // 后台线程按照精度刷新
+        try (CachedClock cachedClock = CachedClock.start(ZoneOffset.UTC, 5)) {
+            long begin = cachedClock.millis();
+            long deadline = System.currentTimeMillis() + 5000;
+            while (cachedClock.millis() == begin && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            Assert.assertTrue(cachedClock.millis() > begin);
+        }
+    }
+
+    /**
+     * 工作日日历测试,与逐日计算的结果一致
+     */
+    @Test
+    public void workdayCalendar() {
+        WorkdayCalendar calendar = WorkdayCalendar.parse(Arrays.asList("# 2024年春节", "2024-02-04 workday", "2024-02-10~2024-02-17 holiday", "", "2024-02-18 班"));
+        Assert.assertTrue(calendar.isWorkday(LocalDate.of(2024, 2, 4)));
+        Assert.assertFalse(calendar.isWorkday(LocalDate.of(2024, 2, 12)));
+        Assert.assertFalse(calendar.isWorkday(LocalDate.of(2023, 12, 31)));
+        Assert.assertEquals(LocalDate.of(2024, 2, 18), calendar.nthWorkdayAfter(LocalDate.of(2024, 2, 9), 1));
+        Random random = new Random(11);
+        LocalDate base = LocalDate.of(2023, 1, 1);
+        for (int i = 0; i < 200; i++) {
+            LocalDate begin = base.plusDays(random.nextInt(1000));
+            LocalDate end = begin.plusDays(random.nextInt(400));
+            int expected = 0;
+            for (LocalDate date = begin; !date.isAfter(end); date = date.plusDays(1)) {
+                DayOfWeek dayOfWeek = date.getDayOfWeek();
+                boolean workday = calendar.getOverrides().getOrDefault(date, dayOfWeek != DayOfWeek.SATURDAY && dayOfWeek != DayOfWeek.SUNDAY);
+                Assert.assertEquals(workday, calendar.isWorkday(date));
+                expected += workday ? 1 : 0;
+            }
+            Assert.assertEquals(expected, calendar.workdaysBetween(begin, end));
+            int n = random.nextInt(300) + 1;
+            LocalDate nth = calendar.nthWorkdayAfter(begin, n);
+            Assert.assertTrue(calendar.isWorkday(nth));
+            Assert.assertEquals(n, calendar.workdaysBetween(begin.plusDays(1), nth));
+        }
+        List<LocalDateTimeDivisionDomain<LocalDateTime>> division = calendar.division(LocalDateTime.of(2024, 2, 5, 0, 0), LocalDateTime.of(2024, 2, 18, 23, 59, 59));
+        Assert.assertEquals(Arrays.asList("2024-02-05", "2024-02-06", "2024-02-07", "2024-02-08", "2024-02-09", "2024-02-18"),
+                division.stream().map(LocalDateTimeDivisionDomain::getDateStr).collect(Collectors.toList()));
+    }
+
+    /**
+     * 日期格式自动识别测试,与按照对应格式解析的结果一致,无法识别时返回null
+     */
+    @Test
+    public void autoParse() {
+        LocalDateTime time = LocalDateTime.of(2024, 2, 29, 8, 5, 9, 123_000_000);
+        String[] patterns = {DatePattern.NORM_MONTH_PATTERN, DatePattern.NORM_DATE_PATTERN, DatePattern.NORM_DATETIME_MINUTE_PATTERN,
+                DatePattern.NORM_DATETIME_PATTERN, DatePattern.NORM_DATETIME_MS_PATTERN, DatePattern.ISO8601_PATTERN,
+                DatePattern.CHINESE_DATE_PATTERN, DatePattern.CHINESE_DATE_TIME_PATTERN, DatePattern.SIMPLE_MONTH_PATTERN,
+                DatePattern.PURE_DATE_PATTERN, DatePattern.PURE_DATETIME_PATTERN, DatePattern.PURE_DATETIME_MS_PATTERN,
+                DatePattern.UTC_SIMPLE_PATTERN, DatePattern.UTC_SIMPLE_MS_PATTERN, DatePattern.UTC_PATTERN, DatePattern.UTC_MS_PATTERN};
+        for (String pattern : patterns) {
+            String text = DateTimeFormatter.ofPattern(pattern).format(time);
+            // 格式中没有的字段取最小值
+            LocalDateTime expected = LocalDateTime.of(time.getYear(), time.getMonth(), pattern.contains("d") ? time.getDayOfMonth() : 1,
+                    pattern.contains("H") ? time.getHour() : 0, pattern.contains("m") ? time.getMinute() : 0,
+                    pattern.contains("s") ? time.getSecond() : 0, pattern.contains("S") ? time.getNano() : 0);
+            Assert.assertEquals(pattern, expected, DateTimeAutoParser.parse(text));
+        }
+        Assert.assertEquals(LocalDateTime.of(2024, 1, 1, 0, 0), LocalDateTimeUtils.parseAuto("2024"));
+        Assert.assertEquals(LocalDateTime.of(2024, 3, 5, 7, 8), DateTimeAutoParser.parse(" 2024/3/5 7:08 "));
+        Assert.assertEquals(LocalDateTime.of(2024, 3, 5, 7, 0), DateTimeAutoParser.parse("2024年3月5日 7时"));
+        Assert.assertEquals(Long.valueOf(epochMillis("2024-02-29T08:05:09.123+08:00")), DateTimeAutoParser.parseEpochMillis("2024-02-29T08:05:09.123+0800", ZoneOffset.UTC));
+        Assert.assertEquals(Long.valueOf(epochMillis("2024-02-29T08:05:09Z")), DateTimeAutoParser.parseEpochMillis("2024-02-29T08:05:09Z", ZoneOffset.ofHours(8)));
+        Assert.assertEquals(Long.valueOf(epochMillis("2024-02-29T08:05:09+08:00")), DateTimeAutoParser.parseEpochMillis("2024-02-29 08:05:09", ZoneId.of("Asia/Shanghai")));
+        for (String invalid : new String[]{null, "", "abc", "2023-02-29", "2024-13-01", "2024-01-01 24:00", "2024-01-01T08:00+19:00",
+                "2024-01-01 08:00:00.", "20240101120", "12:30:00", "2024年1月1", "0000-01-01"}) {
+            Assert.assertNull(invalid, DateTimeAutoParser.parse(invalid));
+        }
+    }
+
+    private static long epochMillis(String text) {
+        return OffsetDateTime.parse(text).toInstant().toEpochMilli();
+    }
+}
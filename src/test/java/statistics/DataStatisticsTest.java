@@ -3,19 +3,42 @@ package statistics;
 import com.hopetool.core.collection.ListUtils;
 import com.hopetool.core.datetime.LocalDateTimeUtils;
 import com.hopetool.core.datetime.support.DateTimeUnit;
+import com.hopetool.core.datetime.support.WorkdayCalendar;
 import com.hopetool.core.json.JsonUtil;
 import com.hopetool.core.map.MapUtils;
+import com.hopetool.core.statistics.ColumnarStatisticsUtils;
 import com.hopetool.core.statistics.DataCalculateUtils;
 import com.hopetool.core.statistics.DataStatisticsUtils;
+import com.hopetool.core.statistics.DelimitedFileStatisticsUtils;
+import com.hopetool.core.statistics.InMemoryStatisticsInstrumentation;
+import com.hopetool.core.statistics.SpillableAccumulatorTable;
+import com.hopetool.core.statistics.JsonStreamStatisticsUtils;
+import com.hopetool.core.statistics.StatisticsColumnStore;
+import com.hopetool.core.statistics.StatisticsExecutor;
+import com.hopetool.core.statistics.StatisticsSubscriber;
+import com.hopetool.core.statistics.StreamingStatisticsAggregator;
 import com.hopetool.core.statistics.support.*;
+import com.hopetool.core.util.JdkSupport;
+import com.hopetool.core.util.JdkUtil;
+import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * 数据统计测试
@@ -63,7 +86,7 @@ public class DataStatisticsTest {
         List<Student> students = generatorData();
         // 设置统计时间
         LocalDateTime beginTime = LocalDateTimeUtils.of(LocalDate.of(2000, 1, 1));
-        LocalDateTime endTime = LocalDateTimeUtils.afterOffsetEndTimeByDateTimeUnit(beginTime, 20,
+        LocalDateTime endTime = LocalDateTimeUtils.offsetAndEndTimeByDateTimeUnit(beginTime, 20,
                 DateTimeUnit.YEAR);
         // 创建统计配置
         CycleStatisticsConfig<Student, BigDecimal, ?> config = new CycleStatisticsConfig<>();
@@ -90,7 +113,7 @@ public class DataStatisticsTest {
         List<Student> students = generatorData();
         // 设置统计时间
         LocalDateTime beginTime = LocalDateTimeUtils.of(LocalDate.of(2000, 1, 1));
-        LocalDateTime endTime = LocalDateTimeUtils.afterOffsetEndTimeByDateTimeUnit(beginTime, 20,
+        LocalDateTime endTime = LocalDateTimeUtils.offsetAndEndTimeByDateTimeUnit(beginTime, 20,
                 DateTimeUnit.YEAR);
         // 创建统计配置
         CycleStatisticsConfig<Student, String, ?> config = new CycleStatisticsConfig<>();
@@ -117,7 +140,7 @@ public class DataStatisticsTest {
         List<Student> students = generatorData();
         // 设置统计时间
         LocalDateTime beginTime = LocalDateTimeUtils.of(LocalDate.of(2000, 1, 1));
-        LocalDateTime endTime = LocalDateTimeUtils.afterOffsetEndTimeByDateTimeUnit(beginTime, 20,
+        LocalDateTime endTime = LocalDateTimeUtils.offsetAndEndTimeByDateTimeUnit(beginTime, 20,
                 DateTimeUnit.YEAR);
         // 创建统计配置
         CycleStatisticsConfig<Student, String, String> config = new CycleStatisticsConfig<>();
@@ -205,4 +228,699 @@ public class DataStatisticsTest {
         System.out.println(JsonUtil.objectToJson(result));
     }
 
+    /**
+     * 多维度周期稀疏统计测试
+     * <p>
+     * 统计生日在2000年到2030年之间的不同年份生日男学生数量和女学生数量,没有数据的年份和标签不输出
+     */
+    @Test
+    public void cycleMultidimensionalSparseStatistics() {
+        List<Student> students = generatorData();
+        // 设置统计时间,2020年以后不存在生日数据
+        LocalDateTime beginTime = LocalDateTimeUtils.of(LocalDate.of(2000, 1, 1));
+        LocalDateTime endTime = LocalDateTimeUtils.offsetAndEndTimeByDateTimeUnit(beginTime, 30,
+                DateTimeUnit.YEAR);
+        CycleStatisticsConfig<Student, String, String> config = new CycleStatisticsConfig<>();
+        config.buildStatisticsDateTime(DateTimeUnit.YEAR, beginTime, endTime);
+        Map<String, String> tagMemo = MapUtils.newHashMap();
+        tagMemo.put("男", "男学生数量");
+        tagMemo.put("女", "女学生数量");
+        tagMemo.put("未知", "未知性别学生数量");
+        config.buildMultidimensional(Student::getSex, tagMemo);
+        config.buildStatisticsData(students, DataValueStatisticsModeEnum.COUNT, Student::getName);
+        config.buildStatisticsCondition(StatisticsArgumentMatchEnum.AND, Student::getBirthday);
+        config.buildSparse(true);
+        CycleDataStatisticsResult sparseResult = DataStatisticsUtils.cycleStatistics(config);
+        // 稀疏结果只包含存在数据的年份和标签(测试数据中每个年份只存在一种性别)
+        Assert.assertEquals(20, sparseResult.getDetails().size());
+        sparseResult.getDetails().forEach(detail -> Assert.assertEquals(1, detail.getDetails().size()));
+        // 稠密视图与非稀疏统计结果结构一致
+        CycleDataStatisticsResult denseResult = DataStatisticsUtils.denseView(sparseResult, config);
+        CycleDataStatisticsResult expectResult = DataStatisticsUtils.cycleStatistics(config.buildSparse(false));
+        Assert.assertEquals(expectResult.getDetails().size(), denseResult.getDetails().size());
+        for (int i = 0; i < expectResult.getDetails().size(); i++) {
+            Assert.assertEquals(toValueMemo(expectResult.getDetails().get(i).getDetails()), toValueMemo(denseResult.getDetails().get(i).getDetails()));
+        }
+    }
+
+    /**
+     * 比率与加权平均统计测试
+     * <p>
+     * 统计所有学生以年龄为权重的加权平均成绩,以及成绩总和与年龄总和的比率,并校验分区累加器合并结果
+     */
+    @Test
+    public void totalRatioAndWeightedAvgStatistics() {
+        List<Student> students = generatorData();
+        BigDecimal weightedScoreSum = BigDecimal.ZERO;
+        BigDecimal scoreSum = BigDecimal.ZERO;
+        BigDecimal ageSum = BigDecimal.ZERO;
+        for (Student student : students) {
+            weightedScoreSum = weightedScoreSum.add(student.getTotalScore().multiply(BigDecimal.valueOf(student.getAge())));
+            scoreSum = scoreSum.add(student.getTotalScore());
+            ageSum = ageSum.add(BigDecimal.valueOf(student.getAge()));
+        }
+        // 加权平均值
+        TotalStatisticsConfig<Student, BigDecimal, ?> config = new TotalStatisticsConfig<>();
+        config.buildStatisticsData(students, DataValueStatisticsModeEnum.WEIGHTED_AVG, Student::getTotalScore, Student::getAge);
+        config.buildSingleDimensional("score_weighted_avg", "按年龄加权平均成绩");
+        TotalDataStatisticsResult result = DataStatisticsUtils.totalStatistics(config);
+        Assert.assertEquals(DataCalculateUtils.divideAndScale(weightedScoreSum, ageSum).stripTrailingZeros().toPlainString(),
+                result.getDetails().get(0).getValue());
+        // 比率
+        config.buildStatisticsData(students, DataValueStatisticsModeEnum.RATIO, Student::getTotalScore, Student::getAge);
+        result = DataStatisticsUtils.totalStatistics(config);
+        Assert.assertEquals(DataCalculateUtils.divideAndScale(scoreSum, ageSum).stripTrailingZeros().toPlainString(),
+                result.getDetails().get(0).getValue());
+        // 分区累加后合并,结果与整体累加一致
+        StatisticsAccumulator left = new StatisticsAccumulator(DataValueStatisticsModeEnum.RATIO);
+        StatisticsAccumulator right = new StatisticsAccumulator(DataValueStatisticsModeEnum.RATIO);
+        for (int i = 0; i < students.size(); i++) {
+            Student student = students.get(i);
+            (i % 3 == 0 ? left : right).accept(student.getTotalScore(), student.getAge());
+        }
+        Assert.assertEquals(result.getDetails().get(0).getValue(), left.merge(right).getValue());
+    }
+
+    /**
+     * 基本类型加权累加测试,乘积存在舍入误差时,JDK17及以上版本通过融合乘加补偿,总和为精确值的正确舍入
+     */
+    @Test
+    public void primitiveWeightedAvgCompensation() {
+        double[] values = {0.7D, 8.9D, 8.0D, 1.3D};
+        double[] weights = {1.1D, 8.6D, 3.5D, 8.9D};
+        StatisticsAccumulator accumulator = new StatisticsAccumulator(DataValueStatisticsModeEnum.WEIGHTED_AVG);
+        BigDecimal exactSum = BigDecimal.ZERO;
+        for (int i = 0; i < values.length; i++) {
+            accumulator.acceptDouble(values[i], weights[i]);
+            exactSum = exactSum.add(new BigDecimal(values[i]).multiply(new BigDecimal(weights[i])));
+        }
+        if (JdkUtil.IS_AT_LEAST_JDK17) {
+            // 运行的是META-INF/versions/17中的实现,不补偿乘积误差时总和为116.88000000000001
+            Assert.assertNotEquals(0D, JdkSupport.productError(0.7D, 1.1D, 0.7D * 1.1D), 0D);
+            Assert.assertEquals(exactSum.doubleValue(), accumulator.getSum().doubleValue(), 0D);
+        } else {
+            Assert.assertEquals(0D, JdkSupport.productError(0.7D, 1.1D, 0.7D * 1.1D), 0D);
+            Assert.assertEquals(exactSum.doubleValue(), accumulator.getSum().doubleValue(), Math.ulp(exactSum.doubleValue()));
+        }
+    }
+
+    /**
+     * 直方图周期统计测试
+     * <p>
+     * 统计生日在2000年到2020年之间的不同年份生日学生的成绩分布(600-620,620-640,...)
+     */
+    @Test
+    public void cycleHistogramStatistics() {
+        List<Student> students = generatorData();
+        LocalDateTime beginTime = LocalDateTimeUtils.of(LocalDate.of(2000, 1, 1));
+        LocalDateTime endTime = LocalDateTimeUtils.offsetAndEndTimeByDateTimeUnit(beginTime, 20,
+                DateTimeUnit.YEAR);
+        CycleStatisticsConfig<Student, BigDecimal, ?> config = new CycleStatisticsConfig<>();
+        config.buildStatisticsDateTime(DateTimeUnit.YEAR, beginTime, endTime);
+        config.buildSingleDimensional("score_distribution", "成绩分布");
+        // 成绩区间 600-620,620-640,640-660,660-680,680-700
+        HistogramBins histogramBins = HistogramBins.equiWidth(600, 700, 5);
+        config.buildStatisticsData(students, DataValueStatisticsModeEnum.HISTOGRAM, Student::getTotalScore)
+                .buildHistogramBins(histogramBins);
+        config.buildStatisticsCondition(StatisticsArgumentMatchEnum.AND, Student::getBirthday);
+        CycleDataStatisticsResult result = DataStatisticsUtils.cycleStatistics(config);
+        // 每个年份的直方图总数与该年份的学生数量一致
+        long total = 0;
+        for (CycleStatisticsItemDetail detail : result.getDetails()) {
+            DataStatisticsItemDetail itemDetail = detail.getDetails().get(0);
+            Assert.assertEquals(histogramBins.getBinCount(), itemDetail.getHistogram().length);
+            Assert.assertEquals(itemDetail.getValue(), String.valueOf(Arrays.stream(itemDetail.getHistogram()).sum()));
+            total += Long.parseLong(itemDetail.getValue());
+        }
+        Assert.assertEquals(students.size(), total);
+        // 稀疏结果转换为稠密结果时,补齐的时间段各区间数据量为0
+        config.buildStatisticsDateTime(DateTimeUnit.YEAR, beginTime, LocalDateTimeUtils.offsetAndEndTimeByDateTimeUnit(beginTime, 30, DateTimeUnit.YEAR));
+        config.setSparse(true);
+        CycleDataStatisticsResult denseResult = DataStatisticsUtils.denseView(DataStatisticsUtils.cycleStatistics(config), config);
+        Assert.assertEquals(31, denseResult.getDetails().size());
+        for (CycleStatisticsItemDetail detail : denseResult.getDetails()) {
+            Assert.assertEquals(histogramBins.getBinCount(), detail.getDetails().get(0).getHistogram().length);
+        }
+        // 其他统计方式下不输出直方图
+        config.buildStatisticsData(students, DataValueStatisticsModeEnum.COUNT, Student::getTotalScore);
+        Assert.assertFalse(JsonUtil.objectToJson(DataStatisticsUtils.cycleStatistics(config)).contains("histogram"));
+        // 自定义区间通过二分查找定位,与等宽区间结果一致
+        HistogramBins customBins = HistogramBins.ofEdges(600, 620, 640, 660, 680, 700);
+        for (int score = 590; score <= 710; score++) {
+            Assert.assertEquals(histogramBins.indexOf(score), customBins.indexOf(score));
+        }
+        System.out.println(Arrays.toString(histogramBins.getLabels()));
+    }
+
+    /**
+     * 流式周期统计测试
+     * <p>
+     * 按照年份流式统计学生数量,数据轻微乱序,迟到数据分别按照侧输出以及修正策略处理
+     */
+    @Test
+    public void streamingStatistics() {
+        List<Student> students = generatorData();
+        // 按生日排序后交换相邻数据,模拟轻微乱序
+        students.sort((a, b) -> a.getBirthday().compareTo(b.getBirthday()));
+        for (int i = 1; i < students.size(); i += 2) {
+            Student temp = students.get(i);
+            students.set(i, students.get(i - 1));
+            students.set(i - 1, temp);
+        }
+        // 允许一年的乱序,不存在迟到数据
+        List<CycleStatisticsItemDetail> emitted = ListUtils.newArrayList();
+        StreamingStatisticsConfig<Student, String, ?> config = new StreamingStatisticsConfig<Student, String, Object>()
+                .buildEventTime(DateTimeUnit.YEAR, Student::getBirthday)
+                .buildStatisticsData(DataValueStatisticsModeEnum.COUNT, Student::getName)
+                .buildSingleDimensional("count", "本年份生日学生人数")
+                .buildWatermark(Duration.ofDays(366), LateDataPolicyEnum.DROP);
+        StreamingStatisticsAggregator<Student, String, ?> aggregator = new StreamingStatisticsAggregator<>(config, emitted::add);
+        students.forEach(aggregator::accept);
+        // 内存中只保留未关闭的时间段
+        Assert.assertTrue(aggregator.getOpenBucketCount() <= 3);
+        aggregator.flush();
+        Assert.assertEquals(20, emitted.size());
+        Assert.assertEquals(0, aggregator.getLateCount());
+        emitted.forEach(detail -> Assert.assertEquals("5000", detail.getDetails().get(0).getValue()));
+
+        // 迟到数据: 水位线越过2019年后再到达的2000年数据
+        List<Student> sideOutput = ListUtils.newArrayList();
+        List<CycleStatisticsItemDetail> amended = ListUtils.newArrayList();
+        config.buildWatermark(Duration.ZERO, LateDataPolicyEnum.AMEND).buildAmendRetention(1);
+        aggregator = new StreamingStatisticsAggregator<>(config, amended::add, sideOutput::add);
+        aggregator.accept(new Student().setName("a").setBirthday(LocalDateTime.of(2018, 6, 1, 0, 0)));
+        aggregator.accept(new Student().setName("b").setBirthday(LocalDateTime.of(2019, 6, 1, 0, 0)));
+        aggregator.accept(new Student().setName("c").setBirthday(LocalDateTime.of(2020, 6, 1, 0, 0)));
+        // 2019年已关闭且在保留范围内,修正后重新输出
+        aggregator.accept(new Student().setName("d").setBirthday(LocalDateTime.of(2019, 7, 1, 0, 0)));
+        // 2018年已超出保留范围,输出到侧输出
+        aggregator.accept(new Student().setName("e").setBirthday(LocalDateTime.of(2018, 7, 1, 0, 0)));
+        Assert.assertEquals(3, amended.size());
+        Assert.assertEquals("2019", amended.get(2).getDateStr());
+        Assert.assertEquals("2", amended.get(2).getDetails().get(0).getValue());
+        Assert.assertEquals(1, sideOutput.size());
+        Assert.assertEquals(2, aggregator.getLateCount());
+    }
+
+    @Test
+    public void streamingStatisticsCheckpoint() throws Exception {
+        List<Student> students = generatorData();
+        students.sort((a, b) -> a.getBirthday().compareTo(b.getBirthday()));
+        Map<String, String> tagMemo = MapUtils.newHashMap();
+        tagMemo.put("男", "男学生平均分");
+        tagMemo.put("女", "女学生平均分");
+        StreamingStatisticsConfig<Student, BigDecimal, String> config = new StreamingStatisticsConfig<Student, BigDecimal, String>()
+                .buildEventTime(DateTimeUnit.YEAR, Student::getBirthday)
+                .buildStatisticsData(DataValueStatisticsModeEnum.AVG, Student::getTotalScore)
+                .buildMultidimensional(Student::getSex, tagMemo);
+        // 不中断的统计结果
+        Map<String, CycleStatisticsItemDetail> expected = MapUtils.newHashMap();
+        StreamingStatisticsAggregator<Student, BigDecimal, String> aggregator = new StreamingStatisticsAggregator<>(config, detail -> expected.put(detail.getDateStr(), detail));
+        students.forEach(aggregator::accept);
+        aggregator.flush();
+
+        // 中途写入快照,模拟进程重启后从快照恢复并继续消费
+        Path file = Files.createTempFile("streaming", ".checkpoint");
+        try {
+            Map<String, CycleStatisticsItemDetail> actual = MapUtils.newHashMap();
+            aggregator = new StreamingStatisticsAggregator<>(config, detail -> actual.put(detail.getDateStr(), detail));
+            int half = students.size() / 2 + 1234;
+            for (int i = 0; i < half; i++) {
+                aggregator.accept(students.get(i));
+            }
+            aggregator.checkpoint(file, half);
+            StreamingStatisticsAggregator<Student, BigDecimal, String> restored = new StreamingStatisticsAggregator<>(config, detail -> actual.put(detail.getDateStr(), detail));
+            long position = restored.restore(file);
+            Assert.assertEquals(half, position);
+            Assert.assertEquals(aggregator.getWatermark(), restored.getWatermark());
+            for (int i = (int) position; i < students.size(); i++) {
+                restored.accept(students.get(i));
+            }
+            restored.flush();
+            Assert.assertEquals(expected.keySet(), actual.keySet());
+            expected.forEach((dateStr, detail) -> Assert.assertEquals(toValueMemo(detail.getDetails()), toValueMemo(actual.get(dateStr).getDetails())));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+        Assert.assertEquals(-1, new StreamingStatisticsAggregator<>(config, detail -> {
+        }).restore(file));
+    }
+
+    /**
+     * 有内存预算的多维度统计测试(超出预算时溢写到本地临时文件),结果需要与分组统计一致
+     */
+    @Test
+    public void multidimensionalStatisticsWithinMemoryBudget() {
+        List<Student> students = generatorData();
+        students.sort((a, b) -> a.getBirthday().compareTo(b.getBirthday()));
+        LocalDateTime beginTime = LocalDateTimeUtils.of(LocalDate.of(2000, 1, 1));
+        LocalDateTime endTime = LocalDateTimeUtils.offsetAndEndTimeByDateTimeUnit(beginTime, 20, DateTimeUnit.YEAR);
+        Map<String, String> tagMemo = MapUtils.newHashMap();
+        tagMemo.put("男", "男学生平均分");
+        tagMemo.put("女", "女学生平均分");
+        tagMemo.put("未知", "未知性别学生平均分");
+        CycleStatisticsConfig<Student, BigDecimal, String> cycleConfig = new CycleStatisticsConfig<Student, BigDecimal, String>()
+                .buildStatisticsDateTime(DateTimeUnit.YEAR, beginTime, endTime)
+                .buildMultidimensional(Student::getSex, tagMemo)
+                .buildStatisticsData(students, DataValueStatisticsModeEnum.AVG, Student::getTotalScore)
+                .buildStatisticsCondition(StatisticsArgumentMatchEnum.AND, Student::getBirthday);
+        CycleDataStatisticsResult expectedCycle = DataStatisticsUtils.cycleStatistics(cycleConfig);
+        CycleDataStatisticsResult actualCycle = DataStatisticsUtils.cycleStatistics(cycleConfig.buildMemoryBudget(4096));
+        Assert.assertEquals(expectedCycle.getDetails().size(), actualCycle.getDetails().size());
+        for (int i = 0; i < expectedCycle.getDetails().size(); i++) {
+            Assert.assertEquals(expectedCycle.getDetails().get(i).getDateStr(), actualCycle.getDetails().get(i).getDateStr());
+            Assert.assertEquals(toValueMemo(expectedCycle.getDetails().get(i).getDetails()), toValueMemo(actualCycle.getDetails().get(i).getDetails()));
+        }
+
+        // 高基数维度: 以学生姓名为维度统计人数
+        Map<String, String> nameMemo = MapUtils.newHashMap();
+        students.forEach(student -> nameMemo.put(student.getName(), student.getName()));
+        TotalStatisticsConfig<Student, String, String> totalConfig = new TotalStatisticsConfig<Student, String, String>()
+                .buildStatisticsData(students, DataValueStatisticsModeEnum.COUNT, Student::getName)
+                .buildMultidimensional(Student::getName, nameMemo);
+        Map<String, String> expectedTotal = toValueMemo(DataStatisticsUtils.totalStatistics(totalConfig).getDetails());
+        Map<String, String> actualTotal = toValueMemo(DataStatisticsUtils.totalStatistics(totalConfig.buildMemoryBudget(64 * 1024)).getDetails());
+        Assert.assertEquals(students.size(), actualTotal.size());
+        Assert.assertEquals(expectedTotal, actualTotal);
+
+        // 合并分区时超出预算则再次分区,内存中的累加器估算占用不超过预算(加上一个累加器)
+        long memoryBudgetBytes = 16 * 1024;
+        Map<Object, Long> counts = MapUtils.newHashMap();
+        try (SpillableAccumulatorTable table = new SpillableAccumulatorTable(DataValueStatisticsModeEnum.COUNT, null, memoryBudgetBytes)) {
+            for (int i = 0; i < 40000; i++) {
+                table.accept(i % 7, "dimension-" + (i % 5000), 1, null);
+            }
+            table.drain((frameIndex, dimensionKey, accumulator) -> counts.merge(frameIndex + ":" + dimensionKey, accumulator.getCount(), Long::sum));
+            Assert.assertTrue(table.getRepartitionCount() > 0);
+            Assert.assertTrue(table.getPeakEstimatedBytes() <= memoryBudgetBytes + 256);
+        }
+        Assert.assertEquals(35000, counts.size());
+        Assert.assertEquals(40000, counts.values().stream().mapToLong(Long::longValue).sum());
+    }
+
+    /**
+     * 堆外列式统计测试,结果需要与对象统计一致
+     */
+    @Test
+    public void columnarStatistics() {
+        List<Student> students = generatorData();
+        LocalDateTime beginTime = LocalDateTimeUtils.of(LocalDate.of(2000, 1, 1));
+        LocalDateTime endTime = LocalDateTimeUtils.offsetAndEndTimeByDateTimeUnit(beginTime, 20, DateTimeUnit.YEAR);
+        Map<String, String> tagMemo = MapUtils.newHashMap();
+        tagMemo.put("男", "男学生平均分");
+        tagMemo.put("女", "女学生平均分");
+        CycleDataStatisticsResult expected = DataStatisticsUtils.cycleStatistics(new CycleStatisticsConfig<Student, BigDecimal, String>()
+                .buildStatisticsDateTime(DateTimeUnit.YEAR, beginTime, endTime)
+                .buildMultidimensional(Student::getSex, tagMemo)
+                .buildStatisticsData(students, DataValueStatisticsModeEnum.AVG, Student::getTotalScore)
+                .buildStatisticsCondition(StatisticsArgumentMatchEnum.AND, Student::getBirthday));
+        try (StatisticsColumnStore store = StatisticsColumnStore.allocateDirect()) {
+            students.forEach(student -> store.append(student.getBirthday().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(),
+                    student.getTotalScore().doubleValue(), 0, student.getSex()));
+            CycleDataStatisticsResult actual = ColumnarStatisticsUtils.cycleStatistics(store, new ColumnarStatisticsConfig()
+                    .buildStatisticsMode(DataValueStatisticsModeEnum.AVG)
+                    .buildStatisticsDateTime(DateTimeUnit.YEAR, beginTime, endTime)
+                    .buildMultidimensional(tagMemo));
+            Assert.assertEquals(expected.getDetails().size(), actual.getDetails().size());
+            for (int i = 0; i < expected.getDetails().size(); i++) {
+                Assert.assertEquals(expected.getDetails().get(i).getDateStr(), actual.getDetails().get(i).getDateStr());
+                Assert.assertEquals(toValueMemo(expected.getDetails().get(i).getDetails()), toValueMemo(actual.getDetails().get(i).getDetails()));
+            }
+            // 总分
+            TotalDataStatisticsResult total = ColumnarStatisticsUtils.totalStatistics(store, new ColumnarStatisticsConfig()
+                    .buildStatisticsMode(DataValueStatisticsModeEnum.SUM)
+                    .buildSingleDimensional("score_sum", "总分"));
+            BigDecimal expectedSum = students.stream().map(Student::getTotalScore).reduce(BigDecimal.ZERO, BigDecimal::add);
+            Assert.assertEquals(0, expectedSum.compareTo(new BigDecimal(total.getDetails().get(0).getValue())));
+            // 直方图统计方式下,补齐的维度(包括没有任何数据的维度)各区间数据量为0
+            Map<String, String> histogramMemo = MapUtils.newHashMap(tagMemo);
+            histogramMemo.put("未知", "未知性别成绩分布");
+            HistogramBins histogramBins = HistogramBins.equiWidth(600, 700, 5);
+            CycleDataStatisticsResult histogram = ColumnarStatisticsUtils.cycleStatistics(store, new ColumnarStatisticsConfig()
+                    .buildStatisticsMode(DataValueStatisticsModeEnum.HISTOGRAM)
+                    .buildHistogramBins(histogramBins)
+                    .buildStatisticsDateTime(DateTimeUnit.YEAR, beginTime, endTime)
+                    .buildMultidimensional(histogramMemo));
+            for (CycleStatisticsItemDetail detail : histogram.getDetails()) {
+                Assert.assertEquals(3, detail.getDetails().size());
+                detail.getDetails().forEach(itemDetail -> Assert.assertEquals(histogramBins.getBinCount(), itemDetail.getHistogram().length));
+            }
+        }
+    }
+
+    /**
+     * 同一目录下的多个内存映射列式存储互不影响,关闭时只删除自己的映射文件
+     */
+    @Test
+    public void mappedColumnStoreIsolation() throws Exception {
+        Path directory = Files.createTempDirectory("column-store");
+        try {
+            StatisticsColumnStore first = StatisticsColumnStore.mapped(directory);
+            try (StatisticsColumnStore second = StatisticsColumnStore.mapped(directory)) {
+                first.append(1L, 1.5D, 0, 0);
+                second.append(2L, 2.5D, 0, 0);
+                Assert.assertEquals(1L, first.getEpochMillis(0, 0));
+                Assert.assertEquals(1.5D, first.getValue(0, 0), 0D);
+                Assert.assertEquals(2L, second.getEpochMillis(0, 0));
+                Assert.assertEquals(2.5D, second.getValue(0, 0), 0D);
+                first.close();
+                try (Stream<Path> files = Files.list(directory)) {
+                    Assert.assertEquals(1, files.count());
+                }
+                Assert.assertEquals(2.5D, second.getValue(0, 0), 0D);
+            }
+            try (Stream<Path> files = Files.list(directory)) {
+                Assert.assertEquals(0, files.count());
+            }
+        } finally {
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    /**
+     * 分隔符文件统计测试,结果需要与对象统计一致
+     */
+    @Test
+    public void delimitedFileStatistics() throws Exception {
+        List<Student> students = generatorData();
+        LocalDateTime beginTime = LocalDateTimeUtils.of(LocalDate.of(2000, 1, 1));
+        LocalDateTime endTime = LocalDateTimeUtils.offsetAndEndTimeByDateTimeUnit(beginTime, 20, DateTimeUnit.YEAR);
+        Map<String, String> tagMemo = MapUtils.newHashMap();
+        tagMemo.put("男", "男学生平均分");
+        tagMemo.put("女", "女学生平均分");
+        CycleDataStatisticsResult expected = DataStatisticsUtils.cycleStatistics(new CycleStatisticsConfig<Student, BigDecimal, String>()
+                .buildStatisticsDateTime(DateTimeUnit.YEAR, beginTime, endTime)
+                .buildMultidimensional(Student::getSex, tagMemo)
+                .buildStatisticsData(students, DataValueStatisticsModeEnum.AVG, Student::getTotalScore)
+                .buildStatisticsCondition(StatisticsArgumentMatchEnum.AND, Student::getBirthday));
+        Path file = Files.createTempFile("students", ".csv");
+        try {
+            StringBuilder content = new StringBuilder("name,sex,birthday,score\r\n");
+            students.forEach(student -> content.append(student.getName()).append(",\"").append(student.getSex()).append("\",")
+                    .append(LocalDateTimeUtils.formatNormal(student.getBirthday())).append(',').append(student.getTotalScore()).append("\r\n"));
+            // 不存在的日期不参与周期统计,不能顺延到下个月
+            content.append("invalid,\"男\",2010-02-31 10:00:00,0\r\n");
+            Files.write(file, content.toString().getBytes(StandardCharsets.UTF_8));
+            DelimitedFileSourceConfig source = new DelimitedFileSourceConfig()
+                    .buildFile(file, ',', true)
+                    .buildTimeColumn(2, EventTimeFormatEnum.DATE_TIME)
+                    .buildValueColumn(3)
+                    .buildDimensionColumn(1);
+            CycleDataStatisticsResult actual = DelimitedFileStatisticsUtils.cycleStatistics(source, new ColumnarStatisticsConfig()
+                    .buildStatisticsMode(DataValueStatisticsModeEnum.AVG)
+                    .buildStatisticsDateTime(DateTimeUnit.YEAR, beginTime, endTime)
+                    .buildMultidimensional(tagMemo));
+            Assert.assertEquals(expected.getDetails().size(), actual.getDetails().size());
+            for (int i = 0; i < expected.getDetails().size(); i++) {
+                Assert.assertEquals(toValueMemo(expected.getDetails().get(i).getDetails()), toValueMemo(actual.getDetails().get(i).getDetails()));
+            }
+            TotalDataStatisticsResult total = DelimitedFileStatisticsUtils.totalStatistics(source, new ColumnarStatisticsConfig()
+                    .buildStatisticsMode(DataValueStatisticsModeEnum.COUNT)
+                    .buildSingleDimensional("count", "学生人数"));
+            // 总数统计不使用时间列,不存在日期的行同样计数
+            Assert.assertEquals(String.valueOf(students.size() + 1), total.getDetails().get(0).getValue());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void jsonStreamStatistics() {
+        List<Student> students = generatorData();
+        LocalDateTime beginTime = LocalDateTimeUtils.of(LocalDate.of(2000, 1, 1));
+        LocalDateTime endTime = LocalDateTimeUtils.offsetAndEndTimeByDateTimeUnit(beginTime, 20, DateTimeUnit.YEAR);
+        Map<String, String> tagMemo = MapUtils.newHashMap();
+        tagMemo.put("男", "男学生平均分");
+        tagMemo.put("女", "女学生平均分");
+        CycleDataStatisticsResult expected = DataStatisticsUtils.cycleStatistics(new CycleStatisticsConfig<Student, BigDecimal, String>()
+                .buildStatisticsDateTime(DateTimeUnit.YEAR, beginTime, endTime)
+                .buildMultidimensional(Student::getSex, tagMemo)
+                .buildStatisticsData(students, DataValueStatisticsModeEnum.AVG, Student::getTotalScore)
+                .buildStatisticsCondition(StatisticsArgumentMatchEnum.AND, Student::getBirthday));
+        StringBuilder array = new StringBuilder("[");
+        StringBuilder lines = new StringBuilder();
+        for (Student student : students) {
+            long birthday = student.getBirthday().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            String object = "{\"name\":\"" + student.getName() + "\",\"extra\":{\"score\":[1,2]},\"sex\":\"" + student.getSex()
+                    + "\",\"birthday\":" + birthday + ",\"score\":\"" + student.getTotalScore() + "\"}";
+            array.append(array.length() > 1 ? "," : "").append(object);
+            lines.append(object).append('\n');
+        }
+        array.append(']');
+        JsonStreamSourceConfig source = new JsonStreamSourceConfig()
+                .buildTimeField("birthday", EventTimeFormatEnum.EPOCH_MILLIS)
+                .buildValueField("score")
+                .buildDimensionField("sex");
+        CycleDataStatisticsResult actual = JsonStreamStatisticsUtils.cycleStatistics(new ByteArrayInputStream(array.toString().getBytes(StandardCharsets.UTF_8)),
+                source, new ColumnarStatisticsConfig()
+                        .buildStatisticsMode(DataValueStatisticsModeEnum.AVG)
+                        .buildStatisticsDateTime(DateTimeUnit.YEAR, beginTime, endTime)
+                        .buildMultidimensional(tagMemo));
+        Assert.assertEquals(expected.getDetails().size(), actual.getDetails().size());
+        for (int i = 0; i < expected.getDetails().size(); i++) {
+            Assert.assertEquals(toValueMemo(expected.getDetails().get(i).getDetails()), toValueMemo(actual.getDetails().get(i).getDetails()));
+        }
+        TotalDataStatisticsResult total = JsonStreamStatisticsUtils.totalStatistics(new ByteArrayInputStream(lines.toString().getBytes(StandardCharsets.UTF_8)),
+                source, new ColumnarStatisticsConfig()
+                        .buildStatisticsMode(DataValueStatisticsModeEnum.COUNT)
+                        .buildSingleDimensional("count", "学生人数"));
+        Assert.assertEquals(String.valueOf(students.size()), total.getDetails().get(0).getValue());
+    }
+
+    @Test
+    public void statisticsInstrumentation() {
+        List<Student> students = generatorData();
+        LocalDateTime beginTime = LocalDateTimeUtils.of(LocalDate.of(2000, 1, 1));
+        LocalDateTime endTime = LocalDateTimeUtils.offsetAndEndTimeByDateTimeUnit(beginTime, 20, DateTimeUnit.YEAR);
+        Map<String, String> tagMemo = MapUtils.newHashMap();
+        tagMemo.put("男", "男学生数量");
+        tagMemo.put("女", "女学生数量");
+        InMemoryStatisticsInstrumentation instrumentation = new InMemoryStatisticsInstrumentation();
+        DataStatisticsUtils.setInstrumentation(instrumentation);
+        try {
+            CycleDataStatisticsResult result = DataStatisticsUtils.cycleStatistics(new CycleStatisticsConfig<Student, String, String>()
+                    .buildStatisticsDateTime(DateTimeUnit.YEAR, beginTime, endTime)
+                    .buildMultidimensional(Student::getSex, tagMemo)
+                    .buildStatisticsData(students, DataValueStatisticsModeEnum.COUNT, Student::getName)
+                    .buildStatisticsCondition(StatisticsArgumentMatchEnum.AND, Student::getBirthday));
+            Assert.assertEquals(1, instrumentation.getExecutionCount());
+            Assert.assertEquals(result.getDetails().size(), instrumentation.getBuckets());
+            Assert.assertEquals(2, instrumentation.getDimensions());
+            Assert.assertEquals((long) students.size() * result.getDetails().size(), instrumentation.getRowsScanned());
+            Assert.assertEquals(students.size(), instrumentation.getRowsMatched());
+            Assert.assertEquals(1, instrumentation.getCount(StatisticsPhaseEnum.GROUPING));
+            Assert.assertTrue(instrumentation.getPercentileNanos(StatisticsPhaseEnum.ACCUMULATE, 99) > 0);
+        } finally {
+            DataStatisticsUtils.setInstrumentation(null);
+        }
+    }
+
+    @Test
+    public void epochMillisStatisticsAcrossDaylightSavingTime() {
+        // 美国东部时间2023-11-05 02:00夏令时结束,01:00-01:59出现两次
+        ZoneId zoneId = ZoneId.of("America/New_York");
+        long begin = LocalDateTime.of(2023, 11, 5, 0, 0).atZone(zoneId).toInstant().toEpochMilli();
+        List<Student> students = ListUtils.newArrayList();
+        for (int i = 0; i < 10; i++) {
+            Student student = new Student();
+            student.setAge(i);
+            student.setSex(i % 2 == 0 ? "男" : "女");
+            students.add(student);
+        }
+        LocalDateTime beginTime = LocalDateTime.of(2023, 11, 5, 0, 0);
+        LocalDateTime endTime = LocalDateTimeUtils.offsetAndEndTimeByDateTimeUnit(beginTime, 3, DateTimeUnit.HOUR);
+        CycleDataStatisticsResult single = DataStatisticsUtils.cycleStatistics(new CycleStatisticsConfig<Student, Integer, String>()
+                .buildStatisticsDateTime(DateTimeUnit.HOUR, beginTime, endTime)
+                .buildSingleDimensional("count", "数量")
+                .buildStatisticsData(students, DataValueStatisticsModeEnum.COUNT, Student::getAge)
+                .buildEpochMillisCondition(zoneId, student -> begin + student.getAge() * 1800_000L));
+        Assert.assertEquals(Arrays.asList("2", "4", "2", "2"), single.getDetails().stream()
+                .map(detail -> detail.getDetails().get(0).getValue()).collect(Collectors.toList()));
+        Map<String, String> tagMemo = MapUtils.newHashMap();
+        tagMemo.put("男", "男学生数量");
+        tagMemo.put("女", "女学生数量");
+        CycleDataStatisticsResult multi = DataStatisticsUtils.cycleStatistics(new CycleStatisticsConfig<Student, Integer, String>()
+                .buildStatisticsDateTime(DateTimeUnit.HOUR, beginTime, endTime)
+                .buildMultidimensional(Student::getSex, tagMemo)
+                .buildStatisticsData(students, DataValueStatisticsModeEnum.COUNT, Student::getAge)
+                .buildEpochMillisCondition(zoneId, student -> begin + student.getAge() * 1800_000L));
+        try (StatisticsColumnStore store = StatisticsColumnStore.allocateDirect()) {
+            students.forEach(student -> store.append(begin + student.getAge() * 1800_000L, student.getAge(), 0, student.getSex()));
+            CycleDataStatisticsResult columnar = ColumnarStatisticsUtils.cycleStatistics(store, new ColumnarStatisticsConfig()
+                    .buildStatisticsMode(DataValueStatisticsModeEnum.COUNT)
+                    .buildStatisticsDateTime(DateTimeUnit.HOUR, beginTime, endTime)
+                    .buildZoneId(zoneId)
+                    .buildMultidimensional(tagMemo));
+            Assert.assertEquals(4, multi.getDetails().size());
+            Assert.assertEquals(4, columnar.getDetails().size());
+            for (int i = 0; i < multi.getDetails().size(); i++) {
+                Map<String, String> expected = MapUtils.newHashMap();
+                expected.put("男", i == 1 ? "2" : "1");
+                expected.put("女", i == 1 ? "2" : "1");
+                Assert.assertEquals(expected, toValueMemo(multi.getDetails().get(i).getDetails()));
+                Assert.assertEquals(expected, toValueMemo(columnar.getDetails().get(i).getDetails()));
+            }
+        }
+    }
+
+    /**
+     * 响应式流统计测试,上游按照请求数量推送数据,未请求的数据量不能超过预取数量
+     */
+    @Test
+    public void statisticsSubscriber() {
+        List<Student> students = generatorData();
+        students.sort((a, b) -> a.getBirthday().compareTo(b.getBirthday()));
+        StreamingStatisticsConfig<Student, String, Object> config = new StreamingStatisticsConfig<Student, String, Object>()
+                .buildEventTime(DateTimeUnit.YEAR, Student::getBirthday)
+                .buildStatisticsData(DataValueStatisticsModeEnum.COUNT, Student::getName)
+                .buildSingleDimensional("count", "本年份生日学生人数");
+        List<CycleStatisticsItemDetail> emitted = ListUtils.newArrayList();
+        boolean[] completed = new boolean[1];
+        StatisticsSubscriber<Student, String, Object> subscriber = new StatisticsSubscriber<>(config, 64, new StatisticsSubscriber.Downstream() {
+            @Override
+            public void onNext(CycleStatisticsItemDetail detail) {
+                emitted.add(detail);
+            }
+
+            @Override
+            public void onComplete() {
+                completed[0] = true;
+            }
+        }, null);
+        // 同步的上游,只推送已请求的数据
+        long[] demand = new long[1];
+        long[] maxDemand = new long[1];
+        subscriber.onSubscribe(n -> {
+            demand[0] += n;
+            maxDemand[0] = Math.max(maxDemand[0], demand[0]);
+        }, () -> Assert.fail("不应取消订阅"));
+        int index = 0;
+        while (index < students.size()) {
+            Assert.assertTrue(demand[0] > 0);
+            demand[0]--;
+            subscriber.onNext(students.get(index++));
+        }
+        subscriber.onComplete();
+        Assert.assertTrue(completed[0]);
+        Assert.assertTrue(maxDemand[0] <= 64);
+        Assert.assertEquals(20, emitted.size());
+        emitted.forEach(detail -> Assert.assertEquals("5000", detail.getDetails().get(0).getValue()));
+
+        // 下游出错时取消上游订阅
+        Throwable[] error = new Throwable[1];
+        boolean[] cancelled = new boolean[1];
+        subscriber = new StatisticsSubscriber<>(config, 64, new StatisticsSubscriber.Downstream() {
+            @Override
+            public void onNext(CycleStatisticsItemDetail detail) {
+                throw new IllegalStateException("下游出错");
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                error[0] = throwable;
+            }
+        }, null);
+        subscriber.onSubscribe(n -> {
+        }, () -> cancelled[0] = true);
+        subscriber.onNext(students.get(0));
+        // 水位线越过第一个时间段,输出时下游出错
+        subscriber.onNext(students.get(students.size() - 1));
+        Assert.assertTrue(error[0] instanceof IllegalStateException);
+        Assert.assertTrue(cancelled[0]);
+    }
+
+    /**
+     * 统计任务执行器测试,分片累加后合并的结果需要与一次累加一致,任一任务失败时中断其余任务
+     */
+    @Test
+    public void statisticsExecutor() {
+        List<Student> students = generatorData();
+        Map<String, StatisticsAccumulator> expected = MapUtils.newHashMap();
+        students.forEach(student -> expected.computeIfAbsent(student.getSex(), sex -> new StatisticsAccumulator(DataValueStatisticsModeEnum.AVG))
+                .accept(student.getTotalScore()));
+        // 每个分片模拟一个数据源
+        List<List<Student>> shards = ListUtils.newArrayList();
+        for (int i = 0; i < students.size(); i += 10000) {
+            shards.add(students.subList(i, i + 10000));
+        }
+        try (StatisticsExecutor executor = StatisticsExecutor.create(4)) {
+            Map<String, StatisticsAccumulator> merged = executor.invokeAllAndMerge(shards, shard -> {
+                Map<String, StatisticsAccumulator> partial = MapUtils.newHashMap();
+                shard.forEach(student -> partial.computeIfAbsent(student.getSex(), sex -> new StatisticsAccumulator(DataValueStatisticsModeEnum.AVG))
+                        .accept(student.getTotalScore()));
+                return partial;
+            });
+            Assert.assertEquals(expected.keySet(), merged.keySet());
+            expected.forEach((sex, accumulator) -> Assert.assertEquals(accumulator.getValue(), merged.get(sex).getValue()));
+            Assert.assertEquals(Integer.valueOf(students.size()), executor.invokeAll(shards, List::size, Integer::sum));
+        }
+
+        boolean[] interrupted = new boolean[1];
+        CountDownLatch started = new CountDownLatch(1);
+        long start = System.nanoTime();
+        try (StatisticsExecutor executor = StatisticsExecutor.createPlatform(2)) {
+            executor.invokeAll(Arrays.asList(0, 1), index -> {
+                if (index == 1) {
+                    // 等待另一个任务开始读取后失败
+                    try {
+                        started.await();
+                    } catch (InterruptedException ignored) {
+                    }
+                    throw new IllegalStateException("数据源读取失败");
+                }
+                try {
+                    started.countDown();
+                    Thread.sleep(10000);
+                } catch (InterruptedException e) {
+                    interrupted[0] = true;
+                }
+                return index;
+            });
+            Assert.fail("任务失败时需要抛出异常");
+        } catch (IllegalStateException e) {
+            Assert.assertEquals("数据源读取失败", e.getMessage());
+        }
+        Assert.assertTrue(interrupted[0]);
+        Assert.assertTrue(System.nanoTime() - start < 5_000_000_000L);
+    }
+
+    /**
+     * 按工作日统计测试,只输出工作日的时间段,纪元毫秒时间条件下结果一致
+     */
+    @Test
+    public void workdayCycleStatistics() {
+        List<Student> students = ListUtils.newArrayList();
+        for (int i = 0; i < 29 * 24; i++) {
+            Student student = new Student();
+            student.setAge(i);
+            student.setBirthday(LocalDateTime.of(2024, 2, 1, 0, 0).plusHours(i));
+            student.setTotalScore(DataCalculateUtils.newBigDecimal(600));
+            students.add(student);
+        }
+        WorkdayCalendar calendar = WorkdayCalendar.parse(Arrays.asList("2024-02-04 workday", "2024-02-10~2024-02-17 holiday", "2024-02-18 workday"));
+        LocalDateTime beginTime = LocalDateTime.of(2024, 2, 1, 0, 0);
+        LocalDateTime endTime = LocalDateTime.of(2024, 2, 29, 23, 59, 59);
+        CycleStatisticsConfig<Student, BigDecimal, ?> config = new CycleStatisticsConfig<Student, BigDecimal, Object>()
+                .buildStatisticsDateTime(DateTimeUnit.DAY, beginTime, endTime)
+                .buildSingleDimensional("count", "人数")
+                .buildStatisticsData(students, DataValueStatisticsModeEnum.COUNT, Student::getTotalScore)
+                .buildStatisticsCondition(StatisticsArgumentMatchEnum.AND, Student::getBirthday)
+                .buildWorkdayCalendar(calendar);
+        CycleDataStatisticsResult result = DataStatisticsUtils.cycleStatistics(config);
+        Assert.assertEquals(calendar.workdaysBetween(beginTime.toLocalDate(), endTime.toLocalDate()), result.getDetails().size());
+        Assert.assertEquals("2024-02-04", result.getDetails().get(2).getDateStr());
+        result.getDetails().forEach(detail -> Assert.assertEquals("24", detail.getDetails().get(0).getValue()));
+
+        ZoneId zoneId = ZoneId.of("Asia/Shanghai");
+        config.buildEpochMillisCondition(zoneId, student -> student.getBirthday().atZone(zoneId).toInstant().toEpochMilli());
+        Assert.assertEquals(JsonUtil.objectToJson(result), JsonUtil.objectToJson(DataStatisticsUtils.cycleStatistics(config)));
+        Assert.assertThrows(IllegalArgumentException.class, () -> DataStatisticsUtils.cycleStatistics(config.buildStatisticsDateTime(DateTimeUnit.MONTH, beginTime, endTime)));
+    }
+
+    private Map<String, String> toValueMemo(List<DataStatisticsItemDetail> details) {
+        Map<String, String> memo = MapUtils.newHashMap();
+        details.forEach(detail -> memo.put(detail.getTagCode(), detail.getValue()));
+        return memo;
+    }
+
 }